@@ -0,0 +1,89 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.controller.dto.request.ActualizeDtoRequest;
+import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.entity.model.AcceptedFirstTimeOrReplacedEnum;
+import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
+import com.example.gostsNaumen.entity.model.HarmonizationEnum;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Тестовые данные для бенчмарков: ГОСТ типичного размера и запросы на его создание и изменение.
+ */
+final class BenchmarkFixtures {
+    /**
+     * Секрет для подписи и шифрования токенов
+     */
+    static final String SECRET = "tPpMbX+5QkX1qKp3iPh4mfrc5D0F3eG9HvA2BcD4Efg";
+
+    private static final String FULL_NAME = "БРОНЕОДЕЖДА Классификация и общие технические требования";
+    private static final String APPLICATION_AREA = "Настоящий стандарт распространяется на бронеодежду, " +
+            "предназначенную для защиты туловища и конечностей человека от воздействия холодного " +
+            "и огнестрельного стрелкового оружия, а также поражения осколками.";
+    private static final String KEY_WORDS = "бронеодежда, холодное оружие, стрелковое оружие, защитная структура";
+
+    private BenchmarkFixtures() {
+    }
+
+    static Document document() {
+        Document document = newDocument(FULL_NAME);
+        document.setId(1L);
+        return document;
+    }
+
+    /**
+     * @param fullName полное название ГОСТа
+     * @return ещё не сохранённый ГОСТ с заданным названием
+     */
+    static Document newDocument(String fullName) {
+        return new Document(
+                fullName,
+                "ГОСТ 34286-2017",
+                "13.340.10",
+                "Защитная одежда",
+                "МТК 391",
+                APPLICATION_AREA,
+                "https://example.com/gost-34286-2017",
+                2017,
+                2019,
+                KEY_WORDS,
+                AdoptionLevelEnum.INTERSTATE,
+                StatusEnum.CURRENT,
+                HarmonizationEnum.NON_HARMONIZED,
+                AcceptedFirstTimeOrReplacedEnum.FIRST_TIME,
+                new HashSet<>(Set.of("ГОСТ Р 50744-95", "ГОСТ 12.4.011-89", "ГОСТ 15150-69"))
+        );
+    }
+
+    static DocumentDtoRequest documentRequest() {
+        return new DocumentDtoRequest(
+                FULL_NAME,
+                "ГОСТ 34286-2017",
+                "13.340.10",
+                "Защитная одежда",
+                "МТК 391",
+                APPLICATION_AREA,
+                "https://example.com/gost-34286-2017",
+                2017,
+                2019,
+                KEY_WORDS,
+                "Межгосударственный",
+                "Актуальный",
+                "Не гармонизированный",
+                "ВВЕДЕН ВПЕРВЫЕ",
+                Set.of("ГОСТ Р 50744-95", "ГОСТ 12.4.011-89", "ГОСТ 15150-69")
+        );
+    }
+
+    static ActualizeDtoRequest actualizeRequest() {
+        return new ActualizeDtoRequest()
+                .setFullName(FULL_NAME + " (с изменением № 1)")
+                .setStatus("Заменённый")
+                .setHarmonization("Модифицированный")
+                .setReferences(Set.of("ГОСТ Р 50744-95", "ГОСТ 15150-69"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.GostsNaumenApplication;
+import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportDtoResponse;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.example.gostsNaumen.service.document.DocumentBulkImportService;
+import com.example.gostsNaumen.service.document.DocumentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность вставки {@link #rows} ГОСТов в БД.
+ * <p>Требует запущенный PostgreSQL и те же переменные окружения, что и приложение
+ * ({@code POSTGRES_DB_URL}, {@code POSTGRES_DB_PORT} и т.д.), поэтому по умолчанию исключён из запуска
+ * профиля {@code benchmarks}. Запуск: {@code -Djmh.args="DocumentInsert -rf json -rff target/jmh-insert.json"}.
+ * Вставленные ГОСТы удаляются по окончании.</p>
+ * <ul>
+ *     <li>{@link #saveDocumentPerRequest()} – каждый ГОСТ через {@link DocumentService#saveDocument(Document)}
+ *     в отдельной транзакции, как при {@code POST /api/standards}.</li>
+ *     <li>{@link #saveDocumentInOneTransaction()} – те же вызовы в одной транзакции.</li>
+ *     <li>{@link #saveAllInOneTransaction()} – {@link DocumentRepository#saveAll(Iterable)},
+ *     вставки объединяются Hibernate в JDBC-пакеты.</li>
+ *     <li>{@link #bulkImport()} – {@link DocumentBulkImportService#importDocuments(java.io.InputStream)}.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentInsertBenchmark {
+    @Param({"100"})
+    private int rows;
+
+    private final String prefix = "benchmark-" + UUID.randomUUID() + "-";
+    private long counter;
+    private ConfigurableApplicationContext context;
+    private DocumentService documentService;
+    private DocumentRepository documentRepository;
+    private DocumentBulkImportService documentBulkImportService;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(GostsNaumenApplication.class)
+                .properties("spring.jpa.show-sql=false", "server.port=0")
+                .run();
+        documentService = context.getBean(DocumentService.class);
+        documentRepository = context.getBean(DocumentRepository.class);
+        documentBulkImportService = context.getBean(DocumentBulkImportService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("delete from document where full_name like ?", prefix + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public void saveDocumentPerRequest() {
+        for (Document document : newDocuments()) {
+            documentService.saveDocument(document);
+        }
+    }
+
+    @Benchmark
+    public void saveDocumentInOneTransaction() {
+        List<Document> documents = newDocuments();
+        transactionTemplate.executeWithoutResult(status -> documents.forEach(documentService::saveDocument));
+    }
+
+    @Benchmark
+    public List<Document> saveAllInOneTransaction() {
+        List<Document> documents = newDocuments();
+        return transactionTemplate.execute(status -> documentRepository.saveAll(documents));
+    }
+
+    @Benchmark
+    public DocumentBulkImportDtoResponse bulkImport() throws IOException {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        DocumentDtoRequest request = BenchmarkFixtures.documentRequest();
+        for (int i = 0; i < rows; i++) {
+            request.setFullName(nextFullName());
+            objectMapper.writeValue(ndjson, request);
+            ndjson.write('\n');
+        }
+
+        return documentBulkImportService.importDocuments(new ByteArrayInputStream(ndjson.toByteArray()));
+    }
+
+    private List<Document> newDocuments() {
+        List<Document> documents = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            documents.add(BenchmarkFixtures.newDocument(nextFullName()));
+        }
+        return documents;
+    }
+
+    private String nextFullName() {
+        return prefix + counter++;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.controller.dto.DocumentFieldsActualizer;
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.request.ActualizeDtoRequest;
+import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+import com.example.gostsNaumen.entity.model.converter.RusEngEnumConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования ГОСТа, выполняемые на каждом запросе к {@code /api/standards}:
+ * маппинг сущности в ДТО и обратно, конвертация enum-ов и актуализация полей.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentMappingBenchmark {
+    private RusEngEnumConverter rusEngEnumConverter;
+    private DocumentMapper documentMapper;
+    private DocumentFieldsActualizer documentFieldsActualizer;
+    private Document document;
+    private DocumentDtoRequest documentRequest;
+    private ActualizeDtoRequest actualizeRequest;
+
+    @Setup
+    public void setUp() {
+        rusEngEnumConverter = new RusEngEnumConverter();
+        documentMapper = new DocumentMapper(rusEngEnumConverter);
+        documentFieldsActualizer = new DocumentFieldsActualizer();
+        document = BenchmarkFixtures.document();
+        documentRequest = BenchmarkFixtures.documentRequest();
+        actualizeRequest = BenchmarkFixtures.actualizeRequest();
+    }
+
+    @Benchmark
+    public DocumentDtoResponse mapEntityToDto() {
+        return documentMapper.mapEntityToDto(document);
+    }
+
+    @Benchmark
+    public Document createDocumentEntity() {
+        return documentMapper.createDocumentEntity(documentRequest);
+    }
+
+    @Benchmark
+    public StatusEnum convertToEnglishValue() {
+        return rusEngEnumConverter.convertToEnglishValue("Заменённый", StatusEnum.class);
+    }
+
+    /**
+     * Актуализация применяется к новой копии документа, чтобы каждый вызов начинал с исходного состояния
+     */
+    @Benchmark
+    public Document setNewValues() {
+        return documentFieldsActualizer.setNewValues(BenchmarkFixtures.document(), actualizeRequest);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentSuggestionDtoResponse;
+import com.example.gostsNaumen.service.document.DocumentSuggestIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка подсказок {@link DocumentSuggestIndex#suggest(String, int)} и объём памяти индекса.
+ * <p>Индекс заполняется через {@link DocumentSuggestIndex#put(Long, String, String)} вне транзакции,
+ * БД не нужна. При подготовке в консоль выводится прирост занятой кучи в байтах на один ГОСТ –
+ * оценка по {@link Runtime} после сборки мусора, для порядка величины, а не точного значения.</p>
+ * <ul>
+ *     <li>{@link #suggestDesignation()} – префикс обозначения, совпадают тысячи ключей, возвращаются первые 10.</li>
+ *     <li>{@link #suggestNumber()} – префикс номера без "ГОСТ".</li>
+ *     <li>{@link #suggestMiss()} – префикс, по которому нет совпадений.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentSuggestBenchmark {
+    @Param({"10000", "100000"})
+    private int documents;
+
+    private DocumentSuggestIndex documentSuggestIndex;
+
+    @Setup
+    public void setUp() {
+        long usedBefore = usedMemory();
+
+        // Репозиторий нужен только для построения индекса из БД, здесь индекс заполняется напрямую
+        documentSuggestIndex = new DocumentSuggestIndex(null, new SimpleMeterRegistry());
+        for (int i = 0; i < documents; i++) {
+            documentSuggestIndex.put((long) i, "ГОСТ %d-%d".formatted(10000 + i, 1990 + i % 35),
+                    "Стандарт номер %d. Общие технические требования".formatted(i));
+        }
+
+        long usedAfter = usedMemory();
+        System.out.printf("%nИндекс подсказок: %d ГОСТов, ~%d байт на ГОСТ%n",
+                documents, (usedAfter - usedBefore) / documents);
+    }
+
+    @Benchmark
+    public List<DocumentSuggestionDtoResponse> suggestDesignation() {
+        return documentSuggestIndex.suggest("ГОСТ 1", 10);
+    }
+
+    @Benchmark
+    public List<DocumentSuggestionDtoResponse> suggestNumber() {
+        return documentSuggestIndex.suggest("1234", 10);
+    }
+
+    @Benchmark
+    public List<DocumentSuggestionDtoResponse> suggestMiss() {
+        return documentSuggestIndex.suggest("ГОСТ Р ИСО", 10);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
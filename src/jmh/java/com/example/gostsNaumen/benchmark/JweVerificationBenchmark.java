@@ -0,0 +1,60 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.security.dto.JwtAuthDto;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.jwe.JweService;
+import com.example.gostsNaumen.security.permission.UserRoles;
+import com.nimbusds.jose.JOSEException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость выпуска и проверки JWE токенов.
+ * <ul>
+ *     <li>{@link #generateAuthToken()} – выпуск пары токенов при входе.</li>
+ *     <li>{@link #validateJweToken()} – проверка токена без извлечения данных.</li>
+ *     <li>{@link #validateThenGetEmail()} – прежняя схема фильтра: {@link JweService#validateJweToken(String)},
+ *     затем {@link JweService#getEmailFromToken(String)}, токен расшифровывается дважды.</li>
+ *     <li>{@link #verifyToken()} – {@link JweService#verifyToken(String)}, одна расшифровка и проверка подписи.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JweVerificationBenchmark {
+    private JweService jweService;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        jweService = new JweService(BenchmarkFixtures.SECRET, BenchmarkFixtures.SECRET, 60, 43200);
+        token = jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER).token();
+    }
+
+    @Benchmark
+    public JwtAuthDto generateAuthToken() throws JOSEException {
+        return jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
+    }
+
+    @Benchmark
+    public boolean validateJweToken() {
+        return jweService.validateJweToken(token);
+    }
+
+    @Benchmark
+    public String validateThenGetEmail() {
+        if (!jweService.validateJweToken(token)) {
+            throw new IllegalStateException("Токен не прошёл проверку");
+        }
+        return jweService.getEmailFromToken(token);
+    }
+
+    @Benchmark
+    public TokenClaimsDto verifyToken() {
+        return jweService.verifyToken(token).orElseThrow();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gostsNaumen.benchmark;
+
+import com.example.gostsNaumen.controller.dto.validator.CustomEmailValidator;
+import com.example.gostsNaumen.controller.dto.validator.CustomPasswordValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Валидаторы пароля и почты, вызываемые при регистрации, входе и смене пароля.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+    private CustomPasswordValidator passwordValidator;
+    private CustomEmailValidator emailValidator;
+
+    @Param({"Str0ng!Password", "weakpassword"})
+    public String password;
+
+    @Param({"petrov.petr@example.com", "not-an-email"})
+    public String email;
+
+    @Setup
+    public void setUp() {
+        passwordValidator = new CustomPasswordValidator();
+        emailValidator = new CustomEmailValidator();
+    }
+
+    @Benchmark
+    public boolean passwordIsValid() {
+        return passwordValidator.isValid(password, null);
+    }
+
+    @Benchmark
+    public boolean emailIsValid() {
+        return emailValidator.isValid(email, null);
+    }
+}
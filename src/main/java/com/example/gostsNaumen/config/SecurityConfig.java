@@ -1,6 +1,10 @@
 package com.example.gostsNaumen.config;
 
 import com.example.gostsNaumen.security.jwe.JweFilter;
+import com.example.gostsNaumen.security.password.AdaptiveBCryptPasswordEncoder;
+import com.example.gostsNaumen.security.permission.Permission;
+import com.example.gostsNaumen.security.ratelimit.SignInRateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -8,11 +12,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Конфигурация слоя безопасности приложения.
  */
@@ -21,14 +26,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableMethodSecurity
 public class SecurityConfig {
     private final JweFilter jweFilter;
+    private final SignInRateLimitFilter signInRateLimitFilter;
 
-    public SecurityConfig(JweFilter jweFilter) {
+    public SecurityConfig(JweFilter jweFilter, SignInRateLimitFilter signInRateLimitFilter) {
         this.jweFilter = jweFilter;
+        this.signInRateLimitFilter = signInRateLimitFilter;
     }
 
     /**
      * Создание бина Security Filter Chain.
      * Позволяет настроить фильтры безопасности для обработки HTTP запроса.
+     * Эндпоинт {@code /actuator/health} доступен без авторизации, остальные эндпоинты Actuator, в том числе
+     * метрики, – только с разрешением {@link Permission#USER_WRITE}, которое есть у администратора.
      * @param http используется для настройки безопасности
      * @return бин Security Filter Chain
      * @throws Exception выбрасывает исключение, необходима обработка
@@ -38,19 +47,31 @@ public class SecurityConfig {
         http.httpBasic(AbstractHttpConfigurer::disable).
                 csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth.requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority(Permission.USER_WRITE.getPermission())
                         .anyRequest().permitAll())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .addFilterBefore(signInRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jweFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
     /**
-     * Создание бина для шифрования паролей
+     * Создание бина для шифрования паролей.
+     * Стоимость BCrypt подбирается при старте под бюджет {@code app.security.passwordHashing.targetMillis}
+     * в пределах {@code minCost..maxCost}, см. {@link AdaptiveBCryptPasswordEncoder}.
+     * @param targetMillis бюджет времени на один хеш в миллисекундах
+     * @param minCost      минимальная стоимость BCrypt
+     * @param maxCost      максимальная стоимость BCrypt
      * @return бин PasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(4);
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.passwordHashing.targetMillis:100}") Long targetMillis,
+            @Value("${app.security.passwordHashing.minCost:10}") Integer minCost,
+            @Value("${app.security.passwordHashing.maxCost:16}") Integer maxCost
+    ) {
+        return new AdaptiveBCryptPasswordEncoder(Duration.ofMillis(targetMillis), minCost, maxCost);
     }
 }
\ No newline at end of file
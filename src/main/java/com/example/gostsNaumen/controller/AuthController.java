@@ -7,6 +7,7 @@ import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.security.dto.JwtAuthDto;
 import com.example.gostsNaumen.security.dto.RefreshTokenDto;
 import com.example.gostsNaumen.security.dto.UserCredentialsDto;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
 import com.example.gostsNaumen.service.user.AuthService;
 import com.example.gostsNaumen.service.user.UserService;
 import com.nimbusds.jose.JOSEException;
@@ -21,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.naming.AuthenticationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Контролер регистрации и авторизации.
@@ -32,31 +35,41 @@ public class AuthController {
     private final AuthService authService;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final PasswordHashingService passwordHashingService;
 
     public AuthController(
             UserService userService,
             UserMapper userMapper,
-            AuthService authService
+            AuthService authService,
+            PasswordHashingService passwordHashingService
     ) {
         this.userMapper = userMapper;
         this.userService = userService;
         this.authService = authService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     /**
      * Эндпоинт для логина.
+     * <p>Обрабатывается асинхронно: поток Tomcat освобождается на время сверки пароля,
+     * ответ отправляется после её завершения в пуле {@link PasswordHashingService}.</p>
      *
      * @param userCredentialsDto данные пользователя, достаточные для входа (почта, пароль).
      * @return Дто с токенами и айди пользователя.
      */
     @PostMapping("/sign-in")
-    public JwtAuthDto signIn(@RequestBody @Valid UserCredentialsDto userCredentialsDto) {
-        try {
-            return authService.signIn(userCredentialsDto);
-        } catch (AuthenticationException | JOSEException e) {
-            logger.error("Authentication failed: {}", e.getMessage(), e);
-            throw new RuntimeException("Auth failed: " + e.getMessage(), e);
-        }
+    public CompletableFuture<JwtAuthDto> signIn(@RequestBody @Valid UserCredentialsDto userCredentialsDto) {
+        return authService.signIn(userCredentialsDto)
+                .exceptionally(throwable -> {
+                    Throwable e = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause()
+                            : throwable;
+                    if (e instanceof AuthenticationException || e instanceof JOSEException) {
+                        logger.error("Authentication failed: {}", e.getMessage(), e);
+                        throw new RuntimeException("Auth failed: " + e.getMessage(), e);
+                    }
+                    throw new CompletionException(e);
+                });
     }
 
     /**
@@ -74,15 +87,32 @@ public class AuthController {
         return authService.refreshToken(refreshTokenDto);
     }
 
+    /**
+     * Эндпоинт для выхода из системы.
+     * Отзывает основной токен из заголовка Authorization и переданный токен обновления.
+     *
+     * @param refreshTokenDto токен обновления, может отсутствовать.
+     * @throws AuthenticationException невалидный токен обновления.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) RefreshTokenDto refreshTokenDto
+    ) throws AuthenticationException {
+        authService.logout(refreshTokenDto);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Эндпоинт для регистрации.
+     * Пароль хешируется в пуле {@link PasswordHashingService}.
      *
      * @param userDtoRequest Дто с данными пользователя достаточными для входа
      * @return Сущность записанную в бд.
      */
     @PostMapping("/registration")
     public ResponseEntity<UserDtoResponse> register(@RequestBody @Valid UserDtoRequest userDtoRequest) {
-        User user = userMapper.mapToEntity(userDtoRequest);
+        String passwordHash = passwordHashingService.encodeAndWait(userDtoRequest.password());
+        User user = userMapper.mapToEntity(userDtoRequest, passwordHash);
         UserDtoResponse userDtoResponse = userMapper.mapEntityToDto(userService.saveUser(user));
         return new ResponseEntity<>(userDtoResponse, HttpStatus.CREATED);
     }
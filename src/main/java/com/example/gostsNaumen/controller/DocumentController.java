@@ -1,19 +1,44 @@
 package com.example.gostsNaumen.controller;
 
+import com.example.gostsNaumen.controller.dto.DocumentCursorCodec;
+import com.example.gostsNaumen.controller.dto.DocumentETags;
 import com.example.gostsNaumen.controller.dto.DocumentFieldsActualizer;
 import com.example.gostsNaumen.controller.dto.DocumentMapper;
 import com.example.gostsNaumen.controller.dto.request.ActualizeDtoRequest;
 import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.request.DocumentFilterDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportDtoResponse;
 import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentFacetsDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentPageDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentReferenceDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentSuggestionDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.OksTreeDtoResponse;
 import com.example.gostsNaumen.controller.dto.response.StandardIdDtoResponse;
 import com.example.gostsNaumen.entity.Document;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.exception.CustomPreconditionFailedException;
+import com.example.gostsNaumen.service.document.DocumentBulkImportService;
+import com.example.gostsNaumen.service.document.DocumentExportService;
+import com.example.gostsNaumen.service.document.DocumentFacetService;
+import com.example.gostsNaumen.service.document.DocumentPage;
+import com.example.gostsNaumen.service.document.DocumentReferenceService;
 import com.example.gostsNaumen.service.document.DocumentService;
+import com.example.gostsNaumen.service.document.DocumentSuggestIndex;
+import com.example.gostsNaumen.service.document.OksClassifierIndex;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -25,26 +50,231 @@ public class DocumentController {
     private final DocumentService documentService;
     private final DocumentMapper documentMapper;
     private final DocumentFieldsActualizer documentFieldsActualizer;
+    private final DocumentCursorCodec documentCursorCodec;
+    private final DocumentExportService documentExportService;
+    private final DocumentBulkImportService documentBulkImportService;
+    private final DocumentReferenceService documentReferenceService;
+    private final DocumentFacetService documentFacetService;
+    private final OksClassifierIndex oksClassifierIndex;
+    private final DocumentSuggestIndex documentSuggestIndex;
 
     public DocumentController(
             DocumentService documentService,
             DocumentMapper documentMapper,
-            DocumentFieldsActualizer documentFieldsActualizer) {
+            DocumentFieldsActualizer documentFieldsActualizer,
+            DocumentCursorCodec documentCursorCodec,
+            DocumentExportService documentExportService,
+            DocumentBulkImportService documentBulkImportService,
+            DocumentReferenceService documentReferenceService,
+            DocumentFacetService documentFacetService,
+            OksClassifierIndex oksClassifierIndex,
+            DocumentSuggestIndex documentSuggestIndex) {
         this.documentService = documentService;
         this.documentMapper = documentMapper;
         this.documentFieldsActualizer = documentFieldsActualizer;
+        this.documentCursorCodec = documentCursorCodec;
+        this.documentExportService = documentExportService;
+        this.documentBulkImportService = documentBulkImportService;
+        this.documentReferenceService = documentReferenceService;
+        this.documentFacetService = documentFacetService;
+        this.oksClassifierIndex = oksClassifierIndex;
+        this.documentSuggestIndex = documentSuggestIndex;
     }
 
     /**
-     * Получение всех ГОСТов из БД
+     * Постраничное получение ГОСТов из БД с необязательной фильтрацией.
+     * <p>Используется keyset-пагинация по id, поэтому объём памяти на запрос ограничен размером страницы
+     * независимо от размера каталога. Для получения следующей страницы нужно передать
+     * {@code nextCursor} из ответа в параметр {@code after} вместе с тем же фильтром.</p>
+     * <p>Ответ содержит ETag страницы. Если он совпадает с {@code If-None-Match}, возвращается
+     * {@code 304 NOT MODIFIED} без преобразования ГОСТов в ДТО и сериализации.</p>
      *
-     * @return список с ДТО ГОСТов
+     * @param limit    размер страницы, от 1 до {@value DocumentService#MAX_PAGE_LIMIT}
+     * @param after    курсор предыдущей страницы, для первой страницы не передаётся
+     * @param filter   параметры фильтрации: статус, уровень принятия, гармонизация, диапазоны годов принятия
+     *                 и введения, автор и начало кода ОКС
+     * @param request  текущий запрос для проверки {@code If-None-Match}
+     * @param response текущий ответ, в него записывается {@link DocumentETags#CACHE_CONTROL}
+     * @return <ul>
+     * <li>{@link DocumentPageDtoResponse} со списком ДТО ГОСТов и курсором следующей страницы</li>
+     * <li>{@code 304 NOT MODIFIED} без тела, если страница не изменилась</li>
+     * <li>В случае некорректного курсора, размера страницы или параметров фильтрации возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
      */
     @GetMapping("/documents")
     @PreAuthorize("hasAuthority('user:read')")
     @Transactional
-    public List<DocumentDtoResponse> getAll() {
-        return documentService.findAll().stream().map(documentMapper::mapEntityToDto).toList();
+    public DocumentPageDtoResponse getAll(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after,
+            @Valid DocumentFilterDtoRequest filter,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
+        Long afterId = after == null ? null : documentCursorCodec.decode(after);
+        DocumentPage page = documentService.findPage(documentMapper.createFilter(filter), afterId, limit);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, DocumentETags.CACHE_CONTROL.getHeaderValue());
+        if (request.checkNotModified(DocumentETags.ofPage(page.documents(), page.nextAfterId()))) {
+            return null;
+        }
+
+        return new DocumentPageDtoResponse(
+                page.documents().stream().map(documentMapper::mapEntityToDto).toList(),
+                page.nextAfterId() == null ? null : documentCursorCodec.encode(page.nextAfterId())
+        );
+    }
+
+    /**
+     * Потоковая выгрузка всего каталога ГОСТов в формате NDJSON.
+     * <p>Ответ формируется асинхронно: документы читаются из БД курсором и отправляются клиенту порциями,
+     * без построения полного списка в памяти.</p>
+     *
+     * @return поток ДТО ГОСТов, по одному JSON-объекту на строку
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('user:read')")
+    public ResponseEntity<StreamingResponseBody> exportDocuments() {
+        StreamingResponseBody body = documentExportService::exportNdjson;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Полнотекстовый поиск ГОСТов по полному названию, ключевым словам и области применения.
+     * <p>Поддерживается синтаксис веб-поиска: слова в кавычках ищутся как фраза,
+     * {@code or} объединяет условия, {@code -} исключает слово.</p>
+     *
+     * @param query строка поиска
+     * @param page  номер страницы, начиная с 0
+     * @param size  размер страницы
+     * @return <ul>
+     * <li>Список ДТО найденных ГОСТов в порядке убывания релевантности</li>
+     * <li>В случае пустой строки поиска или некорректных параметров страницы возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('user:read')")
+    @Transactional
+    public List<DocumentDtoResponse> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return documentService.search(query, page, size).stream().map(documentMapper::mapEntityToDto).toList();
+    }
+
+    /**
+     * Подсказки при вводе по началу обозначения, номера или полного названия ГОСТа.
+     * <p>Ответ строится по индексу в памяти без обращения к БД; регистр, "ё" и виды тире не учитываются.</p>
+     *
+     * @param prefix начало обозначения ("ГОСТ 342"), номера ("34286") или полного названия
+     * @param limit  максимальное количество подсказок, от 1 до {@value DocumentSuggestIndex#MAX_LIMIT}
+     * @return <ul>
+     * <li>Список {@link DocumentSuggestionDtoResponse} с id, обозначением и полным названием ГОСТов</li>
+     * <li>В случае пустого или слишком длинного префикса или некорректного количества возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAuthority('user:read')")
+    public List<DocumentSuggestionDtoResponse> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return documentSuggestIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Количество ГОСТов по статусу, уровню принятия, гармонизации и группе ОКС.
+     * <p>Все счётчики считаются под одним фильтром; параметр, который не передан, выборку не ограничивает.
+     * Значения перечислений передаются и возвращаются на русском языке.</p>
+     *
+     * @param status        статус ГОСТа
+     * @param adoptionLevel уровень принятия ГОСТа
+     * @param harmonization уровень гармонизации ГОСТа
+     * @param oksGroup      группа ОКС – две первые цифры кода ОКС
+     * @return <ul>
+     * <li>{@link DocumentFacetsDtoResponse} с общим количеством и количеством по каждому значению фасетов</li>
+     * <li>В случае некорректного значения фильтра возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/facets")
+    @PreAuthorize("hasAuthority('user:read')")
+    public DocumentFacetsDtoResponse getFacets(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String adoptionLevel,
+            @RequestParam(required = false) String harmonization,
+            @RequestParam(required = false) String oksGroup
+    ) {
+        return documentFacetService.getFacets(status, adoptionLevel, harmonization, oksGroup);
+    }
+
+    /**
+     * Верхний уровень классификатора ОКС: группы, по которым в каталоге есть ГОСТы
+     *
+     * @return корень классификатора с общим количеством ГОСТов и группами верхнего уровня
+     */
+    @GetMapping("/oks")
+    @PreAuthorize("hasAuthority('user:read')")
+    public OksTreeDtoResponse getOksRoot() {
+        return oksClassifierIndex.getNode(null)
+                .orElseGet(() -> new OksTreeDtoResponse(null, 0, List.of()));
+    }
+
+    /**
+     * Узел классификатора ОКС с дочерними узлами и количеством ГОСТов в каждом поддереве
+     *
+     * @param code код узла, например "13" или "13.340"
+     * @throws CustomEntityNotFoundException в поддереве узла нет ГОСТов
+     * @return <ul>
+     * <li>{@link OksTreeDtoResponse} с количеством ГОСТов в поддереве и дочерними узлами</li>
+     * <li>В случае, если в каталоге нет ГОСТов с таким кодом, возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 404 NOT FOUND}</li>
+     * <li>В случае некорректного кода возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/oks/{code}")
+    @PreAuthorize("hasAuthority('user:read')")
+    public OksTreeDtoResponse getOksNode(@PathVariable String code) {
+        return oksClassifierIndex.getNode(code).orElseThrow(
+                () -> new CustomEntityNotFoundException("По коду ОКС - %s документы не найдены!".formatted(code))
+        );
+    }
+
+    /**
+     * Постраничное получение ГОСТов из поддерева классификатора ОКС
+     *
+     * @param code  код узла, например "13" или "13.340"
+     * @param limit размер страницы, от 1 до {@value DocumentService#MAX_PAGE_LIMIT}
+     * @param after курсор предыдущей страницы, для первой страницы не передаётся
+     * @return <ul>
+     * <li>{@link DocumentPageDtoResponse} с ГОСТами, код ОКС которых равен {@code code} или вложен в него</li>
+     * <li>В случае некорректного кода, курсора или размера страницы возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/oks/{code}/documents")
+    @PreAuthorize("hasAuthority('user:read')")
+    @Transactional
+    public DocumentPageDtoResponse getOksSubtreeDocuments(
+            @PathVariable String code,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String after
+    ) {
+        Long afterId = after == null ? null : documentCursorCodec.decode(after);
+        DocumentPage page = documentService.findOksSubtreePage(code, afterId, limit);
+
+        return new DocumentPageDtoResponse(
+                page.documents().stream().map(documentMapper::mapEntityToDto).toList(),
+                page.nextAfterId() == null ? null : documentCursorCodec.encode(page.nextAfterId())
+        );
     }
 
     /**
@@ -70,12 +300,39 @@ public class DocumentController {
     }
 
     /**
-     * Получение ГОСТа по ID
+     * Массовое добавление ГОСТов.
+     * <p>Принимает JSON-массив или NDJSON с {@link DocumentDtoRequest}. Каждая запись проверяется так же,
+     * как при добавлении одного ГОСТа; некорректные записи и дубликаты по полному названию пропускаются,
+     * не прерывая загрузку остальных.</p>
      *
-     * @param docId ID приходящий в запросе
+     * @param inputStream тело запроса
+     * @return <ul>
+     * <li>{@link DocumentBulkImportDtoResponse} с количеством добавленных и отклонённых записей
+     * и результатом по каждой записи</li>
+     * <li>В случае синтаксической ошибки JSON возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 400 BAD REQUEST}, ни одна запись не добавляется</li>
+     * </ul>
+     * @throws IOException ошибка чтения тела запроса
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAuthority('user:write')")
+    public DocumentBulkImportDtoResponse importDocuments(InputStream inputStream) throws IOException {
+        return documentBulkImportService.importDocuments(inputStream);
+    }
+
+    /**
+     * Получение ГОСТа по ID.
+     * <p>Ответ содержит ETag по версии ГОСТа и Last-Modified по моменту его изменения. Если ГОСТ не изменился
+     * ({@code If-None-Match} или {@code If-Modified-Since}), возвращается {@code 304 NOT MODIFIED} без тела;
+     * ДТО при этом берётся из кэша и не сериализуется.</p>
+     *
+     * @param docId    ID приходящий в запросе
+     * @param request  текущий запрос для проверки условных заголовков
+     * @param response текущий ответ, в него записывается {@link DocumentETags#CACHE_CONTROL}
      * @throws CustomEntityNotFoundException по переданному id нет стандарта
      * @return <ul>
      * <li>В случае успешного поиска документа по id, возвращает {@link DocumentDtoResponse}</li>
+     * <li>{@code 304 NOT MODIFIED} без тела, если ГОСТ не изменился</li>
      * <li>В случае, если документ не был найден, возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
      * с кодом {@code 404 NOT FOUND}</li>
      * <li>В случае передачи некорректного {@code /{docId}} возвращается
@@ -85,12 +342,95 @@ public class DocumentController {
     @GetMapping("/{docId}")
     @PreAuthorize("hasAuthority('user:read')")
     @Transactional
-    public DocumentDtoResponse getDocument(@PathVariable Long docId) {
-        Document document = documentService.getDocumentById(docId).orElseThrow(
+    public DocumentDtoResponse getDocument(
+            @PathVariable Long docId,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
+        DocumentDtoResponse document = documentService.getDocumentDtoById(docId).orElseThrow(
                 () -> new CustomEntityNotFoundException("По id - %d документ не найден!".formatted(docId))
         );
 
-        return documentMapper.mapEntityToDto(document);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, DocumentETags.CACHE_CONTROL.getHeaderValue());
+        String eTag = DocumentETags.of(document.getId(), document.getVersion());
+        if (request.checkNotModified(eTag, document.getUpdatedAt().toEpochMilli())) {
+            return null;
+        }
+
+        return document;
+    }
+
+    /**
+     * Получение ГОСТа по обозначению в произвольной записи, например из списка нормативных ссылок.
+     * <p>"ГОСТ 3722—2014", "ГОСТ 3722-2014" и "ГОСТ 3722 2014" считаются одним обозначением;
+     * при отсутствии точного совпадения возвращается ГОСТ с наиболее похожим обозначением.</p>
+     *
+     * @param designation обозначение ГОСТа
+     * @throws CustomEntityNotFoundException нет ГОСТа с достаточно похожим обозначением
+     * @return <ul>
+     * <li>{@link DocumentDtoResponse} найденного ГОСТа</li>
+     * <li>В случае, если похожее обозначение не найдено, возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 404 NOT FOUND}</li>
+     * <li>В случае пустого или слишком длинного обозначения возвращается
+     * {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/resolve")
+    @PreAuthorize("hasAuthority('user:read')")
+    @Transactional
+    public DocumentDtoResponse resolveDesignation(@RequestParam String designation) {
+        return documentService.resolveDesignation(designation).map(documentMapper::mapEntityToDto).orElseThrow(
+                () -> new CustomEntityNotFoundException(
+                        "По обозначению - %s документ не найден!".formatted(designation))
+        );
+    }
+
+    /**
+     * Получение ГОСТов, на которые ссылается ГОСТ.
+     * <p>При {@code depth > 1} возвращаются и транзитивные ссылки: ссылки упомянутых ГОСТов и так далее.
+     * Упомянутые обозначения, которых нет в каталоге, возвращаются без id.</p>
+     *
+     * @param docId id ГОСТа
+     * @param depth глубина обхода, от 1 до {@value DocumentReferenceService#MAX_DEPTH}
+     * @return <ul>
+     * <li>Список {@link DocumentReferenceDtoResponse} по возрастанию глубины</li>
+     * <li>В случае, если документ не был найден, возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 404 NOT FOUND}</li>
+     * <li>В случае некорректной глубины возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/{docId}/references")
+    @PreAuthorize("hasAuthority('user:read')")
+    public List<DocumentReferenceDtoResponse> getReferences(
+            @PathVariable Long docId,
+            @RequestParam(defaultValue = "1") int depth
+    ) {
+        return documentReferenceService.getReferences(docId, depth);
+    }
+
+    /**
+     * Получение ГОСТов, которые ссылаются на ГОСТ.
+     * <p>При {@code depth > 1} возвращаются и ГОСТы, ссылающиеся на него косвенно, что позволяет оценить,
+     * какие стандарты затронет замена или отмена ГОСТа.</p>
+     *
+     * @param docId id ГОСТа
+     * @param depth глубина обхода, от 1 до {@value DocumentReferenceService#MAX_DEPTH}
+     * @return <ul>
+     * <li>Список {@link DocumentReferenceDtoResponse} по возрастанию глубины</li>
+     * <li>В случае, если документ не был найден, возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 404 NOT FOUND}</li>
+     * <li>В случае некорректной глубины возвращается {@link com.example.gostsNaumen.handler.ErrorResponse}
+     * с кодом {@code 400 BAD REQUEST}</li>
+     * </ul>
+     */
+    @GetMapping("/{docId}/cited-by")
+    @PreAuthorize("hasAuthority('user:read')")
+    public List<DocumentReferenceDtoResponse> getCitingDocuments(
+            @PathVariable Long docId,
+            @RequestParam(defaultValue = "1") int depth
+    ) {
+        return documentReferenceService.getCitingDocuments(docId, depth);
     }
 
     /**
@@ -108,25 +448,44 @@ public class DocumentController {
     }
 
     /**
-     * Метод для обновления полей документа
+     * Метод для обновления полей документа.
+     * <p>Изменение выполняется одним UPDATE с условием на версию ГОСТа, поэтому параллельные изменения
+     * не перезаписывают друг друга. Если передан {@code If-Match}, ГОСТ изменяется, только если его ETag
+     * совпадает с текущим; {@code If-Match: *} и отсутствие заголовка проверку версии клиентом не требуют.</p>
      *
      * @param docId            идентификатор госта
      * @param dtoWithNewValues дто, содержащее новые значения полей
-     * @throws CustomEntityNotFoundException по переданному id нет стандарта
-     * @return обновлённое дто госта
+     * @param ifMatch          ETag версии ГОСТа, которую изменяет клиент
+     * @throws CustomEntityNotFoundException      по переданному id нет стандарта
+     * @throws CustomPreconditionFailedException ETag не совпадает с текущей версией ГОСТа
+     * @return <ul>
+     * <li>обновлённое дто госта с новым ETag</li>
+     * <li>В случае, если ГОСТ изменён после получения клиентом его ETag или изменён параллельным запросом,
+     * возвращается {@link com.example.gostsNaumen.handler.ErrorResponse} с кодом
+     * {@code 412 PRECONDITION FAILED}</li>
+     * </ul>
      */
     @PatchMapping("/{docId}")
     @PreAuthorize("hasAuthority('user:write')")
     @Transactional
-    public DocumentDtoResponse updateDocument(
+    public ResponseEntity<DocumentDtoResponse> updateDocument(
             @PathVariable Long docId,
-            @RequestBody @Valid ActualizeDtoRequest dtoWithNewValues
+            @RequestBody @Valid ActualizeDtoRequest dtoWithNewValues,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        Document oldDocument = documentService.getDocumentById(docId).orElseThrow(
-                () -> new CustomEntityNotFoundException("По id - %d документ не найден!".formatted(docId))
-        );
-        Document documentWithNewFieldsValues = documentFieldsActualizer.setNewValues(oldDocument, dtoWithNewValues);
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.strip().equals("*")) {
+            expectedVersion = DocumentETags.parseVersion(docId, ifMatch).orElseThrow(
+                    () -> new CustomPreconditionFailedException(
+                            "ETag %s не соответствует ГОСТу с id %d".formatted(ifMatch, docId))
+            );
+        }
+
+        Document updatedDocument = documentService.updateDocument(docId, expectedVersion,
+                document -> documentFieldsActualizer.setNewValues(document, dtoWithNewValues));
 
-        return documentMapper.mapEntityToDto(documentService.updateDocument(documentWithNewFieldsValues));
+        return ResponseEntity.ok()
+                .eTag(DocumentETags.of(updatedDocument.getId(), updatedDocument.getVersion()))
+                .body(documentMapper.mapEntityToDto(updatedDocument));
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import com.example.gostsNaumen.controller.dto.request.UpdateUserDtoRequest;
 import com.example.gostsNaumen.controller.dto.response.UserDtoResponse;
 import com.example.gostsNaumen.controller.dto.response.UserIdDtoResponse;
 import com.example.gostsNaumen.entity.User;
+import com.example.gostsNaumen.service.user.AuthService;
 import com.example.gostsNaumen.service.user.UserService;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -24,13 +25,16 @@ import java.util.Map;
 public class UserController {
     private final UserService userService;
     private final UserMapper userMapper;
+    private final AuthService authService;
 
     public UserController(
             UserService userService,
-            UserMapper userMapper
+            UserMapper userMapper,
+            AuthService authService
     ) {
         this.userService = userService;
         this.userMapper = userMapper;
+        this.authService = authService;
     }
 
     /**
@@ -99,4 +103,18 @@ public class UserController {
                 "deletedUsername", username
         ));
     }
+
+    /**
+     * Эндпоинт для принудительного завершения всех сессий пользователя.
+     * Все токены пользователя, выпущенные до вызова, перестают приниматься.
+     *
+     * @param id айди пользователя из БД.
+     */
+    @DeleteMapping("/{id}/sessions")
+    @PreAuthorize("hasAuthority('user:write')")
+    public ResponseEntity<Void> revokeAllSessions(@PathVariable Long id) {
+        authService.revokeAllSessions(id);
+
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
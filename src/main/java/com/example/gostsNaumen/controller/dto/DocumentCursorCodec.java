@@ -0,0 +1,54 @@
+package com.example.gostsNaumen.controller.dto;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Кодирует позицию keyset-пагинации в непрозрачный для клиента курсор и обратно.
+ * <p>Клиент не должен делать предположений о содержимом курсора: он лишь передаёт
+ * полученное значение {@code nextCursor} в параметре {@code after} следующего запроса.</p>
+ */
+@Component
+public class DocumentCursorCodec {
+    private static final String PREFIX = "doc:";
+
+    /**
+     * Кодирует id последнего стандарта страницы в курсор
+     *
+     * @param lastId id последнего стандарта страницы
+     * @return курсор для запроса следующей страницы
+     */
+    public String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует курсор, пришедший от клиента
+     *
+     * @param cursor курсор из параметра запроса
+     * @return id, после которого начинается страница
+     * @throws IllegalArgumentException если курсор повреждён или сформирован не сервером
+     */
+    public Long decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, e);
+        }
+
+        if (!decoded.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor);
+        }
+
+        try {
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + cursor, e);
+        }
+    }
+}
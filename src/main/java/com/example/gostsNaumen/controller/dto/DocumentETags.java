@@ -0,0 +1,78 @@
+package com.example.gostsNaumen.controller.dto;
+
+import com.example.gostsNaumen.entity.Document;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Построение и разбор сильных ETag для ответов с ГОСТами.
+ * <p>ETag вычисляется по id и версии ГОСТа, а не по телу ответа, поэтому для ответа
+ * {@code 304 NOT MODIFIED} не нужно ни преобразовывать сущности в ДТО, ни сериализовать их.
+ * Тот же ETag принимается в {@code If-Match} при изменении ГОСТа.</p>
+ */
+public final class DocumentETags {
+    /**
+     * Политика кэширования ответов с ETag: ответ хранится только клиентом и перед использованием перепроверяется
+     * через {@code If-None-Match}. Заменяет {@code no-store} Spring Security, при котором клиент не хранит ETag.
+     */
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    private static final Pattern DOCUMENT_ETAG = Pattern.compile("\"(\\d+)-(\\d+)\"");
+
+    private DocumentETags() {
+    }
+
+    /**
+     * ETag одного ГОСТа
+     *
+     * @param id      id ГОСТа
+     * @param version версия ГОСТа
+     * @return ETag в кавычках, например {@code "42-3"}
+     */
+    public static String of(Long id, Long version) {
+        return "\"%d-%d\"".formatted(id, version);
+    }
+
+    /**
+     * ETag страницы ГОСТов: меняется при изменении, добавлении или удалении любого ГОСТа страницы
+     *
+     * @param documents   ГОСТы страницы в порядке выдачи
+     * @param nextAfterId id для запроса следующей страницы или {@code null}, если страница последняя
+     * @return ETag в кавычках
+     */
+    public static String ofPage(List<Document> documents, Long nextAfterId) {
+        StringBuilder versions = new StringBuilder(documents.size() * 16);
+        for (Document document : documents) {
+            versions.append(document.getId()).append(':').append(document.getVersion()).append(';');
+        }
+        versions.append(nextAfterId);
+
+        return "\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Извлечение версии из ETag, переданного клиентом в {@code If-Match}.
+     * Слабые ETag и ETag другого ГОСТа не подходят: изменение допустимо только при точном совпадении.
+     *
+     * @param id   id изменяемого ГОСТа
+     * @param eTag значение заголовка
+     * @return версия ГОСТа, если ETag выдан для этого ГОСТа
+     */
+    public static Optional<Long> parseVersion(Long id, String eTag) {
+        Matcher matcher = DOCUMENT_ETAG.matcher(eTag.strip());
+        if (!matcher.matches() || !matcher.group(1).equals(String.valueOf(id))) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Long.parseLong(matcher.group(2)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.gostsNaumen.controller.dto;
 
 import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.request.DocumentFilterDtoRequest;
 import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
 import com.example.gostsNaumen.entity.Document;
 import com.example.gostsNaumen.entity.model.AcceptedFirstTimeOrReplacedEnum;
@@ -8,6 +9,7 @@ import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
 import com.example.gostsNaumen.entity.model.HarmonizationEnum;
 import com.example.gostsNaumen.entity.model.StatusEnum;
 import com.example.gostsNaumen.entity.model.converter.RusEngEnumConverter;
+import com.example.gostsNaumen.service.document.DocumentFilter;
 import org.springframework.stereotype.Component;
 
 /**
@@ -73,6 +75,35 @@ public class DocumentMapper {
                 .setStatus(rusEngEnumConverter.convertToRussianValue(fromWhat.getStatus()))
                 .setHarmonization(rusEngEnumConverter.convertToRussianValue(fromWhat.getHarmonization()))
                 .setAcceptedFirstTimeOrReplaced(rusEngEnumConverter.convertToRussianValue(fromWhat.getAcceptedFirstTimeOrReplaced()))
-                .setReferences(fromWhat.getReferences());
+                .setReferences(fromWhat.getReferences())
+                .setUpdatedAt(fromWhat.getUpdatedAt())
+                .setVersion(fromWhat.getVersion());
     }
-}
\ No newline at end of file
+
+    /**
+     * Преобразует параметры фильтрации из запроса в критерии выборки,
+     * значения enum-ов переводятся с русского языка в английские ключи
+     *
+     * @param dto параметры фильтрации из запроса
+     * @return критерии выборки ГОСТов
+     */
+    public DocumentFilter createFilter(DocumentFilterDtoRequest dto) {
+        return new DocumentFilter(
+                dto.status() == null
+                        ? null
+                        : rusEngEnumConverter.convertToEnglishValue(dto.status(), StatusEnum.class),
+                dto.adoptionLevel() == null
+                        ? null
+                        : rusEngEnumConverter.convertToEnglishValue(dto.adoptionLevel(), AdoptionLevelEnum.class),
+                dto.harmonization() == null
+                        ? null
+                        : rusEngEnumConverter.convertToEnglishValue(dto.harmonization(), HarmonizationEnum.class),
+                dto.acceptanceYearFrom(),
+                dto.acceptanceYearTo(),
+                dto.commissionYearFrom(),
+                dto.commissionYearTo(),
+                dto.author(),
+                dto.codeOksPrefix()
+        );
+    }
+}
@@ -3,7 +3,6 @@ package com.example.gostsNaumen.controller.dto;
 import com.example.gostsNaumen.controller.dto.request.UserDtoRequest;
 import com.example.gostsNaumen.controller.dto.response.UserDtoResponse;
 import com.example.gostsNaumen.entity.User;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -11,23 +10,16 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class UserMapper {
-    private final PasswordEncoder passwordEncoder;
-
-    public UserMapper(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
-    }
-
     /**
      * Используется только во время регистрации нового пользователя.
      *
      * <P>Конвертирует {@link UserDtoRequest} в сущность пригодную для сохранения в БД</P>
      *
-     * @param fromWhat ДТО пришедшая извне для регистрации нового пользователя
+     * @param fromWhat     ДТО пришедшая извне для регистрации нового пользователя
+     * @param passwordHash хеш пароля из ДТО
      * @return сущность готовая для сохранения в БД (примечание: по дефолту роль для всех ставится User)
      */
-    public User mapToEntity(UserDtoRequest fromWhat) {
-        String passwordHash = passwordEncoder.encode(fromWhat.password());
-
+    public User mapToEntity(UserDtoRequest fromWhat, String passwordHash) {
         return new User(
                 fromWhat.userName(),
                 fromWhat.fullName(),
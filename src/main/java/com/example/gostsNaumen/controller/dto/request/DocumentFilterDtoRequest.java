@@ -0,0 +1,41 @@
+package com.example.gostsNaumen.controller.dto.request;
+
+import com.example.gostsNaumen.controller.dto.validator.CustomEnumValid;
+import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
+import com.example.gostsNaumen.entity.model.HarmonizationEnum;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * ДТО с параметрами фильтрации каталога ГОСТов, передаётся в параметрах запроса.
+ * Непереданный параметр выборку не ограничивает, переданные объединяются через "и".
+ *
+ * @param status             статус ГОСТа: Актуальный, Отменённый или Заменённый
+ * @param adoptionLevel      уровень принятия ГОСТа
+ * @param harmonization      уровень гармонизации ГОСТа
+ * @param acceptanceYearFrom минимальный год принятия включительно
+ * @param acceptanceYearTo   максимальный год принятия включительно
+ * @param commissionYearFrom минимальный год введения в действие включительно
+ * @param commissionYearTo   максимальный год введения в действие включительно
+ * @param author             автор ГОСТа, точное совпадение
+ * @param codeOksPrefix      начало кода ОКС, например "13" или "13.340"
+ */
+public record DocumentFilterDtoRequest(
+        @CustomEnumValid(enumClass = StatusEnum.class, message = "Должно содержать: Актуальный, Отменённый или Заменённый")
+        String status,
+        @CustomEnumValid(enumClass = AdoptionLevelEnum.class, message = "Должно содержать: Национальный, Межгосударственный, Отраслевой, Региональный, Стандарт Организаций")
+        String adoptionLevel,
+        @CustomEnumValid(enumClass = HarmonizationEnum.class, message = "Должно содержать: Не гармонизированный, Модифицированный или Гармонизированный")
+        String harmonization,
+        Integer acceptanceYearFrom,
+        Integer acceptanceYearTo,
+        Integer commissionYearFrom,
+        Integer commissionYearTo,
+        @Size(min = 1, max = 256)
+        String author,
+        @Size(min = 1, max = 64)
+        @Pattern(regexp = "[0-9.]+", message = "Может содержать только цифры и точки")
+        String codeOksPrefix
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO с итогами массовой загрузки ГОСТов
+ *
+ * @param created  количество добавленных ГОСТов
+ * @param rejected количество отклонённых записей
+ * @param rows     результаты по каждой записи в порядке входных данных
+ */
+public record DocumentBulkImportDtoResponse(
+        int created,
+        int rejected,
+        List<DocumentBulkImportRowDtoResponse> rows
+) {
+}
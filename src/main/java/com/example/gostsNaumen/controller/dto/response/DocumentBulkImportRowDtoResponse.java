@@ -0,0 +1,34 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+/**
+ * DTO с результатом импорта одной записи при массовой загрузке ГОСТов
+ *
+ * @param row     порядковый номер записи во входных данных, начиная с 1
+ * @param status  результат обработки записи
+ * @param id      id созданного ГОСТа, {@code null} если запись не добавлена
+ * @param message причина отказа, {@code null} если запись добавлена
+ */
+public record DocumentBulkImportRowDtoResponse(
+        int row,
+        Status status,
+        Long id,
+        String message
+) {
+    /**
+     * Результат обработки записи
+     */
+    public enum Status {
+        /**
+         * ГОСТ добавлен
+         */
+        CREATED,
+        /**
+         * ГОСТ с таким полным названием уже существует в БД или встречался ранее во входных данных
+         */
+        DUPLICATE,
+        /**
+         * Запись не прошла валидацию
+         */
+        INVALID
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.gostsNaumen.controller.dto.response;
 
+import java.time.Instant;
 import java.util.Set;
 
 /**
@@ -87,6 +88,16 @@ public class DocumentDtoResponse {
      */
     private Set<String> references;
 
+    /**
+     * Момент последнего изменения ГОСТа.
+     */
+    private Instant updatedAt;
+
+    /**
+     * Версия ГОСТа, увеличивается при каждом изменении.
+     */
+    private Long version;
+
     public DocumentDtoResponse() {
     }
 
@@ -257,4 +268,22 @@ public class DocumentDtoResponse {
         this.references = references;
         return this;
     }
-}
\ No newline at end of file
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public DocumentDtoResponse setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+        return this;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public DocumentDtoResponse setVersion(Long version) {
+        this.version = version;
+        return this;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+import java.util.Map;
+
+/**
+ * DTO с количеством ГОСТов по значениям фасетов каталога.
+ * Значения перечислений возвращаются на русском языке, как в {@link DocumentDtoResponse}.
+ *
+ * @param total         общее количество ГОСТов под фильтром
+ * @param status        количество по статусам
+ * @param adoptionLevel количество по уровням принятия
+ * @param harmonization количество по уровням гармонизации
+ * @param oksGroup      количество по группам ОКС – части кода ОКС до первой точки
+ */
+public record DocumentFacetsDtoResponse(
+        long total,
+        Map<String, Long> status,
+        Map<String, Long> adoptionLevel,
+        Map<String, Long> harmonization,
+        Map<String, Long> oksGroup
+) {
+}
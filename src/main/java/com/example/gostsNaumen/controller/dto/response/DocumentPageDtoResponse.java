@@ -0,0 +1,15 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO со страницей ГОСТов при постраничном получении каталога
+ *
+ * @param documents  ГОСТы текущей страницы
+ * @param nextCursor курсор для получения следующей страницы, {@code null} если страница последняя
+ */
+public record DocumentPageDtoResponse(
+        List<DocumentDtoResponse> documents,
+        String nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+/**
+ * DTO вершины графа нормативных ссылок
+ *
+ * @param designation обозначение стандарта
+ * @param id          id стандарта, {@code null} если стандарта с таким обозначением нет в каталоге
+ * @param fullName    полное название стандарта, {@code null} если его нет в каталоге
+ * @param depth       количество переходов по ссылкам от исходного стандарта, 1 – прямая ссылка
+ */
+public record DocumentReferenceDtoResponse(
+        String designation,
+        Long id,
+        String fullName,
+        int depth
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+/**
+ * DTO подсказки при вводе обозначения или названия ГОСТа
+ *
+ * @param id          id ГОСТа
+ * @param designation обозначение ГОСТа
+ * @param fullName    полное название ГОСТа
+ */
+public record DocumentSuggestionDtoResponse(
+        Long id,
+        String designation,
+        String fullName
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+/**
+ * DTO узла классификатора ОКС
+ *
+ * @param code          код узла, например "13" или "13.340"
+ * @param documentCount количество ГОСТов в поддереве узла, включая сам узел
+ * @param hasChildren   есть ли у узла дочерние узлы
+ */
+public record OksNodeDtoResponse(
+        String code,
+        long documentCount,
+        boolean hasChildren
+) {
+}
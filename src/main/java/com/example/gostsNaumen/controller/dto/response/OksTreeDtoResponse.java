@@ -0,0 +1,17 @@
+package com.example.gostsNaumen.controller.dto.response;
+
+import java.util.List;
+
+/**
+ * DTO узла классификатора ОКС вместе с дочерними узлами
+ *
+ * @param code          код узла, {@code null} для корня классификатора
+ * @param documentCount количество ГОСТов в поддереве узла
+ * @param children      дочерние узлы по возрастанию кода
+ */
+public record OksTreeDtoResponse(
+        String code,
+        long documentCount,
+        List<OksNodeDtoResponse> children
+) {
+}
@@ -8,6 +8,8 @@ import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -18,10 +20,13 @@ import java.util.Set;
 @Entity
 public class Document {
     /**
-     * Генерируемый id типа Long
+     * Генерируемый id типа Long.<br>
+     * Значения выделяются из последовательности блоками по {@code allocationSize}, что позволяет Hibernate
+     * объединять вставки в JDBC-пакеты. Шаг последовательности в БД должен совпадать с {@code allocationSize}.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_id_seq")
+    @SequenceGenerator(name = "document_id_seq", sequenceName = "document_id_seq", allocationSize = 50)
     private Long id;
     /**
      * Полное название ГОСТа.<br>
@@ -130,6 +135,23 @@ public class Document {
     @Column(name = "references_list")
     private Set<String> references = new HashSet<>();
 
+    /**
+     * Момент последнего изменения ГОСТа.<br>
+     * Обновляется при каждой вставке и изменении сущности, используется для ETag и Last-Modified.
+     * Хранится с точностью до микросекунд, как в БД, чтобы значение после сохранения совпадало с прочитанным.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Версия ГОСТа для оптимистической блокировки.<br>
+     * Увеличивается при каждом изменении, а UPDATE выполняется с условием на прочитанную версию,
+     * поэтому параллельные изменения одного ГОСТа не перезаписывают друг друга.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Document() {
     }
 
@@ -295,6 +317,28 @@ public class Document {
         this.references = references;
     }
 
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
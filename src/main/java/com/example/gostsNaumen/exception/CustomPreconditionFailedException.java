@@ -0,0 +1,10 @@
+package com.example.gostsNaumen.exception;
+
+/**
+ * Ошибка, относящаяся к ситуации, когда сущность изменилась после того, как клиент получил её версию
+ */
+public class CustomPreconditionFailedException extends RuntimeException {
+    public CustomPreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.gostsNaumen.exception;
+
+import java.time.Duration;
+
+/**
+ * Ошибка, относящаяся к ситуации, когда сервис временно перегружен и запрос стоит повторить позже
+ */
+public class CustomServiceUnavailableException extends RuntimeException {
+    /**
+     * Через сколько клиенту стоит повторить запрос
+     */
+    private final Duration retryAfter;
+
+    public CustomServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
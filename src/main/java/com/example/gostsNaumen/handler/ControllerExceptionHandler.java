@@ -1,9 +1,11 @@
 package com.example.gostsNaumen.handler;
 
+import com.example.gostsNaumen.exception.CustomServiceUnavailableException;
 import com.example.gostsNaumen.exception.InvalidTokenException;
 import com.example.gostsNaumen.handler.dto.ValidationError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -92,4 +94,27 @@ public class ControllerExceptionHandler extends BaseControllerAdvice {
                 HttpStatus.UNAUTHORIZED
         );
     }
+
+    /**
+     * Отлавливает ошибки перегрузки: клиент получает 503 и заголовок Retry-After,
+     * через сколько секунд стоит повторить запрос.
+     *
+     * @param exception возникает при заполненной очереди ограниченного пула
+     * @param request   http запрос
+     * @return HTTP Status код и JSON с ответом
+     */
+    @ExceptionHandler(CustomServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+            final CustomServiceUnavailableException exception,
+            WebRequest request) {
+        log.warn("CustomServiceUnavailableException: {}", exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse()
+                        .setTimestamp(LocalDateTime.now())
+                        .setMessage(exception.getMessage())
+                        .setStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                        .setUrl(getUrl(request)));
+    }
 }
\ No newline at end of file
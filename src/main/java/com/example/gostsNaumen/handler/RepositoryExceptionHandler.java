@@ -2,8 +2,10 @@ package com.example.gostsNaumen.handler;
 
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.exception.CustomPreconditionFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -91,4 +93,33 @@ public class RepositoryExceptionHandler extends BaseControllerAdvice {
                 HttpStatus.CONFLICT
         );
     }
+
+    /**
+     * Отлавливает ошибки связанные с изменением сущности, версия которой устарела:
+     * клиент передал ETag прежней версии или сущность изменена параллельным запросом.
+     *
+     * @param exception возникает если версия изменяемой сущности не совпадает с текущей
+     * @param request   http запрос
+     * @return HTTP Status код и JSON с ответом
+     */
+    @ExceptionHandler({CustomPreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(
+            RuntimeException exception,
+            WebRequest request) {
+        log.info("{}: {}", exception.getClass().getSimpleName(), exception.getMessage());
+        log.debug(exception.getMessage(), exception);
+
+        String message = exception instanceof CustomPreconditionFailedException
+                ? exception.getMessage()
+                : "Сущность была изменена другим запросом, получите актуальную версию и повторите изменение";
+
+        return new ResponseEntity<>(
+                new ErrorResponse()
+                        .setTimestamp(LocalDateTime.now())
+                        .setMessage(message)
+                        .setStatus(HttpStatus.PRECONDITION_FAILED)
+                        .setUrl(getUrl(request)),
+                HttpStatus.PRECONDITION_FAILED
+        );
+    }
 }
\ No newline at end of file
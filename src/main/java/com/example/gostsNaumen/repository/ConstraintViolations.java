@@ -0,0 +1,56 @@
+package com.example.gostsNaumen.repository;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+/**
+ * Имена ограничений уникальности в БД и определение нарушенного ограничения по ошибке вставки.
+ * <p>Позволяет проверять уникальность одной вставкой вместо предварительного поиска: сервис пытается
+ * сохранить сущность и переводит нарушение известного ограничения в понятную пользователю ошибку.</p>
+ */
+public final class ConstraintViolations {
+    /**
+     * Уникальный индекс полного названия ГОСТа
+     */
+    public static final String DOCUMENT_FULL_NAME = "uq_document_full_name";
+    /**
+     * Ограничение уникальности почты пользователя, имя присвоено PostgreSQL при создании таблицы
+     */
+    public static final String USER_EMAIL = "users_email_key";
+    /**
+     * Ограничение уникальности ника пользователя, имя присвоено PostgreSQL при создании таблицы
+     */
+    public static final String USER_USERNAME = "users_user_name_key";
+
+    private ConstraintViolations() {
+    }
+
+    /**
+     * Проверка, что ошибка вызвана нарушением переданного ограничения
+     *
+     * @param exception      ошибка целостности данных
+     * @param constraintName имя ограничения
+     * @return {@code true}, если нарушено именно это ограничение
+     */
+    public static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+        return violatedConstraint(exception).filter(constraintName::equalsIgnoreCase).isPresent();
+    }
+
+    /**
+     * Имя нарушенного ограничения из цепочки причин ошибки
+     *
+     * @param exception ошибка целостности данных
+     * @return имя ограничения, если его удалось определить
+     */
+    public static Optional<String> violatedConstraint(DataIntegrityViolationException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return Optional.ofNullable(violation.getConstraintName());
+            }
+        }
+
+        return Optional.empty();
+    }
+}
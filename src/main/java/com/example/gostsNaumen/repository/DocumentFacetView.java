@@ -0,0 +1,22 @@
+package com.example.gostsNaumen.repository;
+
+/**
+ * Проекция строки агрегированных счётчиков по фасетам каталога
+ */
+public interface DocumentFacetView {
+    /**
+     * @return имя фасета: {@code status}, {@code adoptionLevel}, {@code harmonization}, {@code oksGroup}
+     * или {@code total} для общего количества
+     */
+    String getFacet();
+
+    /**
+     * @return значение фасета: английский ключ enum-а или группа ОКС, {@code null} для {@code total}
+     */
+    String getValue();
+
+    /**
+     * @return количество стандартов с этим значением
+     */
+    Long getCount();
+}
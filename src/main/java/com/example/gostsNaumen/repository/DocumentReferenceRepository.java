@@ -0,0 +1,80 @@
+package com.example.gostsNaumen.repository;
+
+import com.example.gostsNaumen.entity.Document;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для обхода графа нормативных ссылок между стандартами.
+ * <p>Рёбра хранятся в таблице {@code document_reference}, которую триггер синхронизирует
+ * с колонкой {@code references_list} при каждой вставке и обновлении стандарта.
+ * Ссылка связывает стандарт с обозначением, а не с id, поэтому в результатах бывают
+ * обозначения, которых нет в каталоге. Обозначения сопоставляются по нормализованным колонкам
+ * ({@code normalize_designation}), поэтому разная запись тире и пробелов в ссылке не разрывает граф.</p>
+ */
+@Repository
+public interface DocumentReferenceRepository extends org.springframework.data.repository.Repository<Document, Long> {
+    /**
+     * Стандарты, на которые ссылается стандарт, напрямую и транзитивно.
+     * Циклы не приводят к зацикливанию: обход ограничен глубиной, а для каждой вершины
+     * возвращается минимальная глубина.
+     *
+     * @param id       id исходного стандарта
+     * @param maxDepth максимальная глубина обхода, 1 – только прямые ссылки
+     * @return вершины графа по возрастанию глубины и обозначения, без исходного стандарта
+     */
+    @Query(value = """
+            with recursive closure(designation_key, designation, depth) as (
+                select r.referenced_designation_normalized, r.referenced_designation, 1
+                from document_reference r
+                where r.document_id = :id
+                union
+                select r.referenced_designation_normalized, r.referenced_designation, c.depth + 1
+                from closure c
+                         join document d on d.designation_normalized = c.designation_key
+                         join document_reference r on r.document_id = d.id
+                where c.depth < :maxDepth
+            )
+            select coalesce(d.designation, min(c.designation)) as designation, d.id as id, d.full_name as fullName,
+                   min(c.depth) as depth
+            from closure c
+                     left join document d on d.designation_normalized = c.designation_key
+            where d.id is distinct from :id
+            group by c.designation_key, d.id, d.designation, d.full_name
+            order by depth, designation, id
+            """, nativeQuery = true)
+    List<DocumentReferenceView> findReferences(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+
+    /**
+     * Стандарты, которые ссылаются на стандарт, напрямую и транзитивно.
+     * Используется для оценки влияния замены или отмены стандарта.
+     *
+     * @param id       id стандарта, на который ссылаются
+     * @param maxDepth максимальная глубина обхода, 1 – только прямые ссылки
+     * @return ссылающиеся стандарты по возрастанию глубины и обозначения, без исходного стандарта
+     */
+    @Query(value = """
+            with recursive citing(id, depth) as (
+                select r.document_id, 1
+                from document target
+                         join document_reference r on r.referenced_designation_normalized = target.designation_normalized
+                where target.id = :id
+                union
+                select r.document_id, c.depth + 1
+                from citing c
+                         join document cited on cited.id = c.id
+                         join document_reference r on r.referenced_designation_normalized = cited.designation_normalized
+                where c.depth < :maxDepth
+            )
+            select d.designation as designation, d.id as id, d.full_name as fullName, min(c.depth) as depth
+            from citing c
+                     join document d on d.id = c.id
+            where d.id <> :id
+            group by d.id
+            order by depth, designation, id
+            """, nativeQuery = true)
+    List<DocumentReferenceView> findCitingDocuments(@Param("id") Long id, @Param("maxDepth") int maxDepth);
+}
@@ -0,0 +1,26 @@
+package com.example.gostsNaumen.repository;
+
+/**
+ * Проекция вершины графа ссылок между стандартами
+ */
+public interface DocumentReferenceView {
+    /**
+     * @return обозначение стандарта, например "ГОСТ 34286-2017"
+     */
+    String getDesignation();
+
+    /**
+     * @return id стандарта или {@code null}, если стандарта с таким обозначением нет в каталоге
+     */
+    Long getId();
+
+    /**
+     * @return полное название стандарта или {@code null}, если его нет в каталоге
+     */
+    String getFullName();
+
+    /**
+     * @return минимальное количество переходов по ссылкам от исходного стандарта
+     */
+    Integer getDepth();
+}
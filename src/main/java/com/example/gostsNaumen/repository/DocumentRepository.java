@@ -1,21 +1,184 @@
 package com.example.gostsNaumen.repository;
 
 import com.example.gostsNaumen.entity.Document;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы со стандартами
  */
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, JpaSpecificationExecutor<Document> {
     /**
-     * Поиск пользователя по полному имени записанному в БД
+     * Получение кода ОКС стандарта в том виде, в котором он сохранён в БД.
+     * <p>Запрос не сбрасывает изменения контекста персистентности перед выполнением, поэтому внутри
+     * транзакции возвращает код до ещё не сохранённого изменения сущности.</p>
      *
-     * @param fullName полное имя пользователя
-     * @return сущность Document обернутую в {@link Optional}
+     * @param id id стандарта
+     * @return код ОКС, если стандарт существует
      */
-    Optional<Document> findByFullName(String fullName);
+    @Query("select d.codeOKS from Document d where d.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    Optional<String> findCodeOksById(@Param("id") Long id);
+
+    /**
+     * Количество стандартов по каждому коду ОКС
+     *
+     * @return пары (код ОКС, количество) для всех кодов каталога
+     */
+    @Query("select d.codeOKS as code, count(d) as count from Document d group by d.codeOKS")
+    List<OksCodeCountView> countByCodeOks();
+
+    /**
+     * Количество стандартов по переданным кодам ОКС
+     *
+     * @param codes коды ОКС
+     * @return пары (код ОКС, количество); коды, по которым стандартов нет, не возвращаются
+     */
+    @Query("select d.codeOKS as code, count(d) as count from Document d where d.codeOKS in :codes group by d.codeOKS")
+    List<OksCodeCountView> countByCodeOksIn(@Param("codes") Collection<String> codes);
+
+    /**
+     * Поиск уже существующих полных названий среди переданных одним запросом
+     *
+     * @param fullNames проверяемые полные названия
+     * @return полные названия, по которым в БД уже есть стандарты
+     */
+    @Query("select d.fullName from Document d where d.fullName in :fullNames")
+    List<String> findExistingFullNames(@Param("fullNames") Collection<String> fullNames);
+
+    /**
+     * Получение порции стандартов, идущих по возрастанию id строго после переданного.
+     * Используется для keyset-пагинации: в отличие от offset не требует пропуска предыдущих строк
+     * и опирается на индекс первичного ключа.
+     *
+     * @param id    id последнего стандарта предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return список стандартов, отсортированный по id
+     */
+    List<Document> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Потоковое чтение всех стандартов по возрастанию id.
+     * <p>Строки читаются из открытого курсора порциями по {@code fetchSize}, а не загружаются в память целиком.
+     * Должен вызываться внутри транзакции, возвращаемый {@link Stream} обязательно закрывать.</p>
+     *
+     * @return поток сущностей стандартов
+     */
+    @Query("select d from Document d order by d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Document> streamAllOrderedById();
+
+    /**
+     * Потоковое чтение id, обозначений и полных названий всех стандартов без загрузки сущностей.
+     * Должен вызываться внутри транзакции, возвращаемый {@link Stream} обязательно закрывать.
+     *
+     * @return поток проекций стандартов
+     */
+    @Query("select d.id as id, d.designation as designation, d.fullName as fullName from Document d order by d.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<DocumentSuggestView> streamSuggestViews();
+
+    /**
+     * Полнотекстовый поиск стандартов по полному названию, ключевым словам и области применения.
+     * <p>Использует сгенерированную колонку {@code search_vector} с GIN-индексом и русской конфигурацией
+     * текстового поиска. Возвращает только id в порядке убывания релевантности,
+     * сами сущности дочитываются отдельно по первичному ключу.</p>
+     *
+     * @param query  поисковая строка в синтаксисе {@code websearch_to_tsquery}
+     * @param limit  максимальное количество результатов
+     * @param offset количество пропускаемых результатов
+     * @return id найденных стандартов, отсортированные по релевантности
+     */
+    @Query(value = """
+            select d.id
+            from document d
+            where d.search_vector @@ websearch_to_tsquery('russian', :query)
+            order by ts_rank_cd(d.search_vector, websearch_to_tsquery('russian', :query)) desc, d.id
+            limit :limit offset :offset
+            """, nativeQuery = true)
+    List<Long> searchIdsByText(
+            @Param("query") String query,
+            @Param("limit") int limit,
+            @Param("offset") long offset
+    );
+
+    /**
+     * Поиск стандарта, обозначение которого лучше всего совпадает с произвольно записанным.
+     * <p>Обе стороны сравниваются после {@code normalize_designation}: без учёта регистра, "ё", вида тире
+     * и пробелов, так что "ГОСТ 3722—2014", "ГОСТ 3722-2014" и "ГОСТ 3722 2014" совпадают точно.
+     * Кандидаты отбираются оператором {@code %} модуля {@code pg_trgm} по GIN-индексу колонки
+     * {@code designation_normalized}, из них выбирается ближайший по триграммному расстоянию.</p>
+     *
+     * @param designation обозначение в произвольной записи
+     * @return стандарт с наиболее похожим обозначением, если похожесть не ниже порога {@code pg_trgm}
+     */
+    @Query(value = """
+            select d.*
+            from document d
+            where d.designation_normalized % normalize_designation(:designation)
+            order by d.designation_normalized <-> normalize_designation(:designation), d.id
+            limit 1
+            """, nativeQuery = true)
+    Optional<Document> findBestDesignationMatch(@Param("designation") String designation);
+
+    /**
+     * Подсчёт стандартов по статусу, уровню принятия, гармонизации и группе ОКС одним проходом.
+     * <p>Все фасеты считаются через {@code GROUPING SETS} под одним и тем же фильтром, пустая группа
+     * даёт общее количество. Группа ОКС – часть кода до первой точки, например "13" для "13.340.10".
+     * Параметры фильтра со значением {@code null} не ограничивают выборку.</p>
+     *
+     * @param status        английский ключ статуса
+     * @param adoptionLevel английский ключ уровня принятия
+     * @param harmonization английский ключ гармонизации
+     * @param oksGroup      группа ОКС
+     * @return строки вида (фасет, значение, количество)
+     */
+    @Query(value = """
+            select case
+                       when grouping(d.status) = 0 then 'status'
+                       when grouping(d.adoption_level) = 0 then 'adoptionLevel'
+                       when grouping(d.harmonization) = 0 then 'harmonization'
+                       when grouping(d.oks_group) = 0 then 'oksGroup'
+                       else 'total'
+                       end  as facet,
+                   coalesce(cast(d.status as text), cast(d.adoption_level as text),
+                            cast(d.harmonization as text), d.oks_group) as value,
+                   count(*) as count
+            from (select status, adoption_level, harmonization, split_part(code_oks, '.', 1) as oks_group
+                  from document
+                  where (cast(:status as text) is null or status = cast(cast(:status as text) as status_enum))
+                    and (cast(:adoptionLevel as text) is null
+                      or adoption_level = cast(cast(:adoptionLevel as text) as adoption_level_enum))
+                    and (cast(:harmonization as text) is null
+                      or harmonization = cast(cast(:harmonization as text) as harmonization_enum))
+                    and (cast(:oksGroup as text) is null or split_part(code_oks, '.', 1) = cast(:oksGroup as text))
+                 ) d
+            group by grouping sets ((d.status), (d.adoption_level), (d.harmonization), (d.oks_group), ())
+            """, nativeQuery = true)
+    List<DocumentFacetView> countFacets(
+            @Param("status") String status,
+            @Param("adoptionLevel") String adoptionLevel,
+            @Param("harmonization") String harmonization,
+            @Param("oksGroup") String oksGroup
+    );
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.gostsNaumen.repository;
+
+/**
+ * Проекция стандарта с полями, по которым строятся подсказки при вводе
+ */
+public interface DocumentSuggestView {
+    /**
+     * @return id стандарта
+     */
+    Long getId();
+
+    /**
+     * @return обозначение стандарта, например "ГОСТ 34286-2017"
+     */
+    String getDesignation();
+
+    /**
+     * @return полное название стандарта
+     */
+    String getFullName();
+}
@@ -0,0 +1,16 @@
+package com.example.gostsNaumen.repository;
+
+/**
+ * Проекция количества стандартов с одним и тем же кодом ОКС
+ */
+public interface OksCodeCountView {
+    /**
+     * @return код ОКС, например "13.340.10"
+     */
+    String getCode();
+
+    /**
+     * @return количество стандартов с этим кодом
+     */
+    Long getCount();
+}
@@ -2,7 +2,11 @@ package com.example.gostsNaumen.repository;
 
 import com.example.gostsNaumen.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -28,4 +32,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return {@code Optional<User>}
      */
     Optional<User> findUserByUsername(String username);
+
+    /**
+     * Замена хеша пароля, только если в БД всё ещё записан прежний хеш.
+     * Смена пароля, произошедшая после чтения прежнего хеша, не перезаписывается.
+     *
+     * @param id      айди пользователя
+     * @param oldHash прежний хеш пароля
+     * @param newHash новый хеш того же пароля
+     * @return количество обновлённых строк: 1, если хеш заменён, иначе 0
+     */
+    @Modifying
+    @Transactional
+    @Query("update User u set u.passwordHash = :newHash where u.id = :id and u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.example.gostsNaumen.security.dto;
+
+import com.example.gostsNaumen.security.jwe.TokenType;
+import com.example.gostsNaumen.security.permission.UserRoles;
+
+import java.time.Instant;
+
+/**
+ * Проверенные данные из JWE токена. Создаётся только после расшифровки токена,
+ * проверки подписи и срока действия.
+ * @param subject почта пользователя.
+ * @param expiration время истечения токена.
+ * @param userId айди пользователя из БД, {@code null} для токенов, выпущенных до добавления поля в токен.
+ * @param role роль пользователя на момент выпуска токена, {@code null} для токенов, выпущенных до добавления поля.
+ * @param issuedAt время выпуска токена, с точностью до миллисекунды; до секунды для токенов, выпущенных
+ *                 до добавления миллисекунд в токен.
+ * @param type тип токена, {@code null} для токенов, выпущенных до разделения на основной токен и токен обновления.
+ * @param tokenId уникальный айди токена (jti), {@code null} для токенов, выпущенных до добавления поля.
+ */
+public record TokenClaimsDto(
+        String subject,
+        Instant expiration,
+        Long userId,
+        UserRoles role,
+        Instant issuedAt,
+        TokenType type,
+        String tokenId
+) {
+}
@@ -2,6 +2,9 @@ package com.example.gostsNaumen.security.jwe;
 
 import com.example.gostsNaumen.exception.InvalidTokenException;
 import com.example.gostsNaumen.security.dto.CustomUserDetails;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.service.security.SecurityContextService;
+import com.example.gostsNaumen.service.security.TokenRevocationStore;
 import com.example.gostsNaumen.service.security.UserDetailServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -17,30 +20,36 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * Фильтр Spring Security для обработки и проверки JWE-токенов аутентификации.
- * Проверяет наличие токена в заголовке Authorization запроса, валидирует его
- * с помощью {@link JweService}, и если токен действителен, загружает
+ * Проверяет наличие токена в заголовке Authorization запроса, за один проход расшифровывает
+ * и валидирует его с помощью {@link JweService#verifyToken(String)}, и если токен действителен, загружает
  * информацию о пользователе через {@link UserDetailServiceImpl} и устанавливает
  * его в {@link SecurityContextHolder}.
  *
  * <p>Фильтр обрабатывает только те запросы, которые содержат заголовок
- * {@code Authorization} с префиксом {@code Bearer}. Если токен недействителен
- * или истёк, фильтр отправляет ответ с кодом 401 (Unauthorized).</p>
+ * {@code Authorization} с префиксом {@code Bearer}. Если токен недействителен, истёк,
+ * является токеном обновления или отозван, фильтр отправляет ответ с кодом 401 (Unauthorized).
+ * Отзыв токена или всех сессий пользователя проверяется по {@link TokenRevocationStore} в памяти,
+ * без обращения к БД.</p>
  */
 @Component
 public class JweFilter extends OncePerRequestFilter {
     private final Logger logger = LoggerFactory.getLogger(JweFilter.class);
     private final JweService jweService;
     private final UserDetailServiceImpl userDetailServiceIml;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public JweFilter(
             JweService jweService,
-            UserDetailServiceImpl userDetailServiceIml
+            UserDetailServiceImpl userDetailServiceIml,
+            TokenRevocationStore tokenRevocationStore
     ) {
         this.jweService = jweService;
         this.userDetailServiceIml = userDetailServiceIml;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     /**
@@ -61,8 +70,11 @@ public class JweFilter extends OncePerRequestFilter {
         String token = getTokenFromRequest(request);
 
         if (token != null) {
-            if (jweService.validateJweToken(token)) {
-                setCustomUserDetailsToSecurityContextHolder(token);
+            Optional<TokenClaimsDto> claims = jweService.verifyToken(token)
+                    .filter(this::isActiveAccessToken);
+
+            if (claims.isPresent()) {
+                setCustomUserDetailsToSecurityContextHolder(claims.get());
             } else {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Невалидный токен.");
                 return;
@@ -73,22 +85,22 @@ public class JweFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Извлекает объект {@link CustomUserDetails} по email из токена и устанавливает
+     * Получает объект {@link CustomUserDetails} из проверенных данных токена и устанавливает
      * его в {@link SecurityContextHolder} как текущую аутентификацию.
+     * Пользователь загружается из БД, только если ролям из токена нельзя доверять.
+     * Данные токена сохраняются в деталях аутентификации, см. {@link SecurityContextService#getLoggedInTokenClaims()}.
      *
-     * <p>В случае ошибки при извлечении email или загрузке пользователя
-     * записывает соответствующее сообщение в лог.</p>
+     * <p>В случае ошибки при загрузке пользователя записывает соответствующее сообщение в лог.</p>
      *
-     * @param token Валидный JWE-токен, из которого будет извлечён email.
+     * @param claims Проверенные данные JWE-токена.
      */
-    private void setCustomUserDetailsToSecurityContextHolder(String token) {
+    private void setCustomUserDetailsToSecurityContextHolder(TokenClaimsDto claims) {
         try {
-            String email = jweService.getEmailFromToken(token);
-
-            CustomUserDetails customUserDetails = userDetailServiceIml.loadUserByUsername(email);
+            CustomUserDetails customUserDetails = userDetailServiceIml.loadUserByClaims(claims);
 
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     customUserDetails, null, customUserDetails.getAuthorities());
+            authentication.setDetails(claims);
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -98,6 +110,18 @@ public class JweFilter extends OncePerRequestFilter {
         }
     }
 
+    /**
+     * Проверяет, что токен можно использовать для доступа: это не токен обновления и он не отозван.
+     * Токены без типа, выпущенные до разделения типов, считаются основными.
+     *
+     * @param claims Проверенные данные JWE-токена.
+     * @return {@code true}, если токен можно использовать для доступа.
+     */
+    private boolean isActiveAccessToken(TokenClaimsDto claims) {
+        return claims.type() != TokenType.REFRESH
+                && !tokenRevocationStore.isRevoked(claims);
+    }
+
     /**
      * Извлекает токен из заголовка {@code Authorization} HTTP-запроса.
      *
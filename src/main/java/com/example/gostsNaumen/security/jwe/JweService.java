@@ -2,6 +2,8 @@ package com.example.gostsNaumen.security.jwe;
 
 import com.example.gostsNaumen.exception.InvalidTokenException;
 import com.example.gostsNaumen.security.dto.JwtAuthDto;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.permission.UserRoles;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.DirectDecrypter;
 import com.nimbusds.jose.crypto.DirectEncrypter;
@@ -18,9 +20,12 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.text.ParseException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Сервис для работы с JWE токенами.
@@ -31,60 +36,107 @@ import java.util.Date;
  */
 @Service
 public class JweService {
-    private final String jwsSecret;
-    private final String jweSecret;
+    /**
+     * Имя claim с айди пользователя
+     */
+    public static final String USER_ID_CLAIM = "uid";
+    /**
+     * Имя claim с ролью пользователя
+     */
+    public static final String ROLE_CLAIM = "role";
+    /**
+     * Имя claim с типом токена
+     */
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    /**
+     * Имя claim с временем выпуска токена в миллисекундах: стандартный {@code iat} хранит только секунды,
+     * а отзыв всех сессий пользователя сравнивает время выпуска с моментом отзыва
+     */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    /**
+     * Заголовок внутреннего JWS токена
+     */
+    private static final JWSHeader JWS_HEADER = new JWSHeader(JWSAlgorithm.HS256);
+    /**
+     * Заголовок JWE токена
+     */
+    private static final JWEHeader JWE_HEADER = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A256GCM)
+            .contentType("JWT")
+            .build();
     private final Integer expireMinutes;
+    private final Integer refreshExpireMinutes;
     private final Logger log = LoggerFactory.getLogger(JweService.class);
+    /**
+     * Объекты подписи и шифрования создаются один раз при старте: они не хранят состояния между вызовами
+     * и потокобезопасны, поэтому переиспользуются всеми запросами.
+     */
+    private final JWSSigner jwsSigner;
+    private final JWSVerifier jwsVerifier;
+    private final JWEEncrypter jweEncrypter;
+    private final JWEDecrypter jweDecrypter;
 
+    /**
+     * Ключи выводятся из секретов и проверяются при создании сервиса,
+     * некорректный секрет не даст приложению запуститься.
+     *
+     * @throws IllegalStateException если секрет не является ключом подходящей длины.
+     */
     public JweService(
             @Value("${app.jws.secret}") String jwsSecret,
             @Value("${app.jwe.secret}") String jweSecret,
-            @Value("${app.expireMinutes}") Integer expireMinutes
+            @Value("${app.expireMinutes}") Integer expireMinutes,
+            @Value("${app.refreshExpireMinutes:43200}") Integer refreshExpireMinutes
     ) {
-        this.jwsSecret = jwsSecret;
-        this.jweSecret = jweSecret;
         this.expireMinutes = expireMinutes;
-    }
+        this.refreshExpireMinutes = refreshExpireMinutes;
 
-    /**
-     * Создаёт секретный ключ для шифрования на основе {@code jweSecret}.
-     * Ожидается, что {@code jweSecret} закодирован в Base64 и представляет собой 256-битный ключ.
-     *
-     * @return Секретный ключ для шифрования.
-     */
-    private SecretKey getEncryptionKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jweSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey signingKey = deriveKey(jwsSecret);
+        SecretKey encryptionKey = deriveKey(jweSecret);
+
+        if (encryptionKey.getEncoded().length != 32) {
+            throw new IllegalStateException("Ключ шифрования должен быть 256 бит (32 байта) для A256GCM.");
+        }
+
+        try {
+            this.jwsSigner = new MACSigner(signingKey);
+            this.jwsVerifier = new MACVerifier(signingKey);
+            this.jweEncrypter = new DirectEncrypter(encryptionKey);
+            this.jweDecrypter = new DirectDecrypter(encryptionKey);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Некорректный ключ подписи или шифрования JWE токенов.", e);
+        }
     }
 
     /**
-     * Создаёт секретный ключ для подписи на основе {@code jwsSecret}.
-     * Ожидается, что {@code jwsSecret} закодирован в Base64 и представляет собой 256-битный ключ.
+     * Создаёт секретный ключ на основе секрета из конфигурации.
+     * Ожидается, что секрет закодирован в Base64 и представляет собой 256-битный ключ.
      *
-     * @return Секретный ключ для подписи.
+     * @param secret секрет в Base64.
+     * @return Секретный ключ.
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwsSecret);
+    private static SecretKey deriveKey(String secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
     /**
      * Генерирует JWE-токены (access и refresh) для указанного пользователя.
      *
-     * <p>Этот метод генерирует два токена JWE: один для аутентификации,
-     * и второй как токен обновления.</p>
-     *
-     * <p>Время жизни токена необходимо изменить.</p>
+     * <p>Этот метод генерирует два токена JWE: основной токен типа {@link TokenType#ACCESS}
+     * со временем жизни {@code app.expireMinutes} для аутентификации, и токен обновления типа
+     * {@link TokenType#REFRESH} со временем жизни {@code app.refreshExpireMinutes}.
+     * У каждого токена свой уникальный айди (jti), по которому токен можно отозвать.</p>
      *
      * @param email почта пользователя.
      * @param id    айди пользователя.
+     * @param role  роль пользователя.
      * @return Объект {@link JwtAuthDto}, содержащий сгенерированные токены и ID пользователя.
      * @throws JOSEException в случае ошибки при создании токена.
      */
-    public JwtAuthDto generateAuthToken(String email, Long id) throws JOSEException {
+    public JwtAuthDto generateAuthToken(String email, Long id, UserRoles role) throws JOSEException {
         return new JwtAuthDto(
-                generateJweToken(email, expireMinutes),
-                generateJweToken(email, expireMinutes),
+                generateJweToken(email, id, role, TokenType.ACCESS, expireMinutes),
+                generateJweToken(email, id, role, TokenType.REFRESH, refreshExpireMinutes),
                 id);
     }
 
@@ -116,97 +168,118 @@ public class JweService {
     }
 
     /**
-     * Проверяет действительность JWE-токена.
+     * Проверяет JWE-токен и возвращает его данные за один проход.
      *
-     * <p>Выполняет следующие проверки:</p>
-     * <ul>
-     *   <li>Расшифровка токена JWE.</li>
-     *   <li>Проверка подписи внутреннего JWS токена.</li>
-     *   <li>Проверка срока действия токена.</li>
-     * </ul>
+     * <p>Токен один раз расшифровывается, после чего проверяются подпись внутреннего JWS токена,
+     * срок действия и наличие почты пользователя. В отличие от последовательного вызова
+     * {@link #validateJweToken(String)} и {@link #getEmailFromToken(String)}, расшифровка и проверка подписи
+     * не повторяются.</p>
      *
-     * @param token JWE токен для валидации.
-     * @return {@code true}, если токен действителен, {@code false} в противном случае.
+     * @param token JWE токен.
+     * @return проверенные данные токена, или {@link Optional#empty()}, если токен недействителен.
+     * <p>
+     * Причина отказа пишется только в лог, т.к. ошибки связанные с токеном могут говорить о попытке взлома.
      */
-    public boolean validateJweToken(String token) {
+    public Optional<TokenClaimsDto> verifyToken(String token) {
         try {
             SignedJWT signedJWT = parseJweToSignedJWT(token);
 
-            if (signedJWT.verify(new MACVerifier(getSigningKey()))) {
+            if (!signedJWT.verify(jwsVerifier)) {
+                log.error("Верификация JWS сигнатуры не пройдена.");
+                return Optional.empty();
+            }
 
-                JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
-                Date expirationTime = claimsSet.getExpirationTime();
+            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
+            Date expirationTime = claimsSet.getExpirationTime();
 
-                if (expirationTime != null && new Date().after(expirationTime)) {
-                    log.error("JWE токен истёк.");
-                    return false;
-                }
-                return true;
-            } else {
-                log.error("Верификация JWS сигнатуры не пройдена.");
+            if (expirationTime != null && new Date().after(expirationTime)) {
+                log.error("JWE токен истёк.");
+                return Optional.empty();
             }
+            if (claimsSet.getSubject() == null) {
+                log.error("В JWE токене отсутствует почта пользователя.");
+                return Optional.empty();
+            }
+
+            String role = claimsSet.getStringClaim(ROLE_CLAIM);
+            String type = claimsSet.getStringClaim(TOKEN_TYPE_CLAIM);
+            Date issueTime = claimsSet.getIssueTime();
+            Long issuedAtMillis = claimsSet.getLongClaim(ISSUED_AT_MILLIS_CLAIM);
+
+            return Optional.of(new TokenClaimsDto(
+                    claimsSet.getSubject(),
+                    expirationTime == null ? null : expirationTime.toInstant(),
+                    claimsSet.getLongClaim(USER_ID_CLAIM),
+                    role == null ? null : UserRoles.valueOf(role),
+                    issuedAtMillis != null
+                            ? Instant.ofEpochMilli(issuedAtMillis)
+                            : issueTime == null ? null : issueTime.toInstant(),
+                    type == null ? null : TokenType.valueOf(type),
+                    claimsSet.getJWTID()
+            ));
         } catch (Exception exception) {
             log.error("Ошибка валидации JWE токена.", exception);
         }
-        return false;
+        return Optional.empty();
     }
 
     /**
-     * Обновляет основной токен, используя токен обновления.
+     * Проверяет действительность JWE-токена.
+     *
+     * <p>Выполняет следующие проверки:</p>
+     * <ul>
+     *   <li>Расшифровка токена JWE.</li>
+     *   <li>Проверка подписи внутреннего JWS токена.</li>
+     *   <li>Проверка срока действия токена.</li>
+     * </ul>
      *
-     * <p>Генерирует новый основной токен для указанного пользователя, сохраняя переданный токен обновления.</p>
+     * <p>Если кроме проверки нужны данные токена, следует использовать {@link #verifyToken(String)}.</p>
      *
-     * @param email        почта пользователя.
-     * @param refreshToken Существующий токен обновления.
-     * @param id           айди пользователя.
-     * @return Объект {@link JwtAuthDto}, содержащий новый основной токен, старый токен обновления и айди пользователя.
-     * @throws JOSEException в случае ошибки при создании токена.
+     * @param token JWE токен для валидации.
+     * @return {@code true}, если токен действителен, {@code false} в противном случае.
      */
-    public JwtAuthDto refreshBaseToken(String email, String refreshToken, Long id) throws JOSEException {
-        return new JwtAuthDto(
-                generateJweToken(email, expireMinutes),
-                refreshToken,
-                id);
+    public boolean validateJweToken(String token) {
+        return verifyToken(token).isPresent();
     }
 
     /**
      * Генерирует зашифрованный JWE-токен с указанной почтой и временем жизни.
      *
-     * <p>Токен подписывается с использованием {@link #getSigningKey()} JWS,
-     * затем шифруется с использованием {@link #getEncryptionKey()} JWE.
+     * <p>Токен подписывается ключом JWS, затем шифруется ключом JWE.
      * Алгоритмы: HS256 для подписи, DIR и A256GCM для шифрования.</p>
      *
      * @param email         почта пользователя, который будет установлен в поле subject токена.
+     * @param id            айди пользователя, устанавливается в claim {@value #USER_ID_CLAIM}.
+     * @param role          роль пользователя, устанавливается в claim {@value #ROLE_CLAIM}.
+     * @param type          тип токена, устанавливается в claim {@value #TOKEN_TYPE_CLAIM}.
+     *                      Время выпуска записывается в {@code iat} и с точностью до миллисекунды
+     *                      в claim {@value #ISSUED_AT_MILLIS_CLAIM}.
      * @param expireMinutes Время жизни токена в минутах.
      * @return JWE токен в формате String.
      * @throws JOSEException         в случае ошибки при создании токена.
-     * @throws IllegalStateException если длина ключа шифрования некорректна для A256GCM.
      */
-    private String generateJweToken(String email, int expireMinutes) throws JOSEException {
+    private String generateJweToken(String email, Long id, UserRoles role, TokenType type, int expireMinutes)
+            throws JOSEException {
+        Date issueDate = new Date();
         Date expDate = Date.from(LocalDateTime.now().plusMinutes(expireMinutes)
                 .atZone(ZoneId.systemDefault()).toInstant());
 
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
                 .subject(email)
+                .claim(USER_ID_CLAIM, id)
+                .claim(ROLE_CLAIM, role == null ? null : role.name())
+                .claim(TOKEN_TYPE_CLAIM, type.name())
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(issueDate)
+                .claim(ISSUED_AT_MILLIS_CLAIM, issueDate.getTime())
                 .expirationTime(expDate)
                 .build();
 
-        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claimsSet);
-
-        signedJWT.sign(new MACSigner(getSigningKey()));
-
-        JWEHeader jweHeader = new JWEHeader.Builder(JWEAlgorithm.DIR, EncryptionMethod.A256GCM)
-                .contentType("JWT")
-                .build();
-
-        SecretKey encryptionKey = getEncryptionKey();
+        SignedJWT signedJWT = new SignedJWT(JWS_HEADER, claimsSet);
+        signedJWT.sign(jwsSigner);
 
-        if (encryptionKey.getEncoded().length != 32) {
-            throw new IllegalStateException("Ключ шифрования должен быть 256 бит (32 байта) для A256GCM.");
-        }
-
-        JWEObject jweObject = new JWEObject(jweHeader, new Payload(signedJWT));
-        jweObject.encrypt(new DirectEncrypter(encryptionKey));
+        JWEObject jweObject = new JWEObject(JWE_HEADER, new Payload(signedJWT));
+        jweObject.encrypt(jweEncrypter);
 
         return jweObject.serialize();
     }
@@ -219,17 +292,11 @@ public class JweService {
      * если токен не удалось расшифровать, или его заголовок не указан как JWT.
      * @throws ParseException        в случае ошибки парсинга JWE.
      * @throws JOSEException         в случае ошибки при расшифровке JWE.
-     * @throws IllegalStateException если длина ключа дешифрования некорректна для A256GCM.
      */
     private SignedJWT parseJweToSignedJWT(String jweString) throws ParseException, JOSEException {
         JWEObject jweObject = JWEObject.parse(jweString);
 
-        SecretKey decryptionKey = getEncryptionKey();
-        if (decryptionKey.getEncoded().length != 32) {
-            throw new IllegalStateException("Ключ дешифрования должен быть 256 бит (32 байта) для A256GCM.");
-        }
-
-        jweObject.decrypt(new DirectDecrypter(decryptionKey));
+        jweObject.decrypt(jweDecrypter);
 
         if (!"JWT".equals(jweObject.getHeader().getContentType())) {
             log.error("Ожидается, что Header JWE будет представлять собой JWT");
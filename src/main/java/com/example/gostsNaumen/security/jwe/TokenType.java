@@ -0,0 +1,16 @@
+package com.example.gostsNaumen.security.jwe;
+
+/**
+ * Тип JWE токена, записывается в claim {@value JweService#TOKEN_TYPE_CLAIM}.
+ */
+public enum TokenType {
+    /**
+     * Короткоживущий основной токен, передаётся в заголовке Authorization
+     */
+    ACCESS,
+    /**
+     * Долгоживущий токен обновления, принимается только эндпоинтом обновления токенов
+     * и после использования отзывается
+     */
+    REFRESH
+}
@@ -0,0 +1,116 @@
+package com.example.gostsNaumen.security.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * BCrypt-кодировщик, стоимость которого подбирается под бюджет времени хеширования.
+ * <p>При создании хеширование замеряется на возрастающих стоимостях, начиная с {@code minCost}, и выбирается
+ * наибольшая стоимость, при которой один хеш считается не дольше {@code targetHashTime}, но не больше
+ * {@code maxCost}. Стоимость не опускается ниже {@code minCost}, даже если бюджет меньше.</p>
+ * <p>Новые пароли хешируются с выбранной стоимостью, а сверяются хеши любой стоимости: она записана в самом хеше.
+ * {@link #upgradeEncoding(String)} возвращает {@code true} для хешей с меньшей стоимостью,
+ * такие хеши стоит пересчитать при следующем успешном входе.</p>
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+    /**
+     * Минимальная стоимость, которую допускает BCrypt
+     */
+    public static final int MIN_BCRYPT_COST = 4;
+    /**
+     * Максимальная стоимость, которую допускает BCrypt
+     */
+    public static final int MAX_BCRYPT_COST = 31;
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+    private final int cost;
+    private final BCryptPasswordEncoder delegate;
+
+    public AdaptiveBCryptPasswordEncoder(Duration targetHashTime, int minCost, int maxCost) {
+        this(chooseCost(targetHashTime, minCost, maxCost, AdaptiveBCryptPasswordEncoder::measureHashTime));
+        log.info("Стоимость BCrypt выбрана равной {} для бюджета {} мс", cost, targetHashTime.toMillis());
+    }
+
+    AdaptiveBCryptPasswordEncoder(int cost) {
+        this.cost = cost;
+        this.delegate = new BCryptPasswordEncoder(cost);
+    }
+
+    /**
+     * Выбор стоимости хеширования.
+     * <p>Время хеширования BCrypt удваивается с каждой единицей стоимости, поэтому замеры прекращаются
+     * на первой стоимости, превысившей бюджет: калибровка занимает порядка трёх бюджетов.</p>
+     *
+     * @param targetHashTime  бюджет времени на один хеш
+     * @param minCost         минимальная стоимость
+     * @param maxCost         максимальная стоимость
+     * @param measureHashTime замер времени хеширования с переданной стоимостью
+     * @return наибольшая стоимость в пределах бюджета, но не меньше {@code minCost}
+     * @throws IllegalArgumentException если границы стоимости выходят за пределы, допустимые BCrypt
+     */
+    static int chooseCost(
+            Duration targetHashTime,
+            int minCost,
+            int maxCost,
+            IntFunction<Duration> measureHashTime
+    ) {
+        if (minCost < MIN_BCRYPT_COST || maxCost > MAX_BCRYPT_COST || minCost > maxCost) {
+            throw new IllegalArgumentException(
+                    "Некорректные границы стоимости BCrypt: %d..%d".formatted(minCost, maxCost));
+        }
+
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (measureHashTime.apply(cost).compareTo(targetHashTime) > 0) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    /**
+     * Время одного хеширования с переданной стоимостью.
+     * Перед замером выполняется прогревочный вызов с минимальной стоимостью, он почти ничего не стоит.
+     *
+     * @param cost стоимость хеширования
+     * @return время хеширования
+     */
+    private static Duration measureHashTime(int cost) {
+        new BCryptPasswordEncoder(MIN_BCRYPT_COST).encode(CALIBRATION_PASSWORD);
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Выбранная стоимость хеширования
+     *
+     * @return стоимость, с которой хешируются новые пароли
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
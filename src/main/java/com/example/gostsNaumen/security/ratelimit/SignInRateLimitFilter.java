@@ -0,0 +1,196 @@
+package com.example.gostsNaumen.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Фильтр, ограничивающий частоту запросов на вход до обращения к БД и хешированию пароля.
+ * <p>Обрабатывает только {@code POST} {@value #SIGN_IN_PATH}. Сначала проверяется ограничение по IP, и только
+ * разрешённая попытка читает тело запроса, не больше {@value #MAX_BODY_BYTES} байт: тело больше этого размера
+ * отклоняется с 413. Почта читается из тела, тело сохраняется и передаётся дальше по цепочке без изменений.
+ * Если {@link SignInRateLimiter} отклоняет попытку, клиент получает 429 и заголовок Retry-After,
+ * контроллер не вызывается.</p>
+ * <p>IP клиента берётся из {@link HttpServletRequest#getRemoteAddr()}; за обратным прокси он должен
+ * восстанавливаться из заголовков самим сервером ({@code server.forward-headers-strategy}).</p>
+ */
+@Component
+public class SignInRateLimitFilter extends OncePerRequestFilter {
+    /**
+     * Путь эндпоинта входа
+     */
+    static final String SIGN_IN_PATH = "/api/auth/sign-in";
+    /**
+     * Максимальный размер тела запроса на вход в байтах
+     */
+    static final int MAX_BODY_BYTES = 4096;
+    private final SignInRateLimiter signInRateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public SignInRateLimitFilter(SignInRateLimiter signInRateLimiter, ObjectMapper objectMapper) {
+        this.signInRateLimiter = signInRateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod()) || !SIGN_IN_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Optional<Duration> ipRetryAfter = signInRateLimiter.tryAcquireIp(request.getRemoteAddr());
+        if (ipRetryAfter.isPresent()) {
+            sendTooManyRequests(response, ipRetryAfter.get());
+            return;
+        }
+
+        byte[] body = readBoundedBody(request);
+        if (body == null) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Слишком большой запрос на вход.");
+            return;
+        }
+
+        Optional<Duration> emailRetryAfter = signInRateLimiter.tryAcquireEmail(readEmail(body));
+        if (emailRetryAfter.isPresent()) {
+            sendTooManyRequests(response, emailRetryAfter.get());
+            return;
+        }
+
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    /**
+     * Тело запроса на вход, прочитанное не больше чем на {@value #MAX_BODY_BYTES} байт
+     *
+     * @param request запрос на вход
+     * @return тело запроса или {@code null}, если оно больше допустимого размера
+     */
+    private static byte[] readBoundedBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            return null;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private void sendTooManyRequests(HttpServletResponse response, Duration retryAfter) throws IOException {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Слишком много попыток входа, повторите позже.");
+    }
+
+    /**
+     * Почта из тела запроса на вход
+     *
+     * @param body тело запроса
+     * @return почта или {@code null}, если тело не JSON или почты в нём нет; такой запрос отклонит валидация
+     */
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).path("email");
+            return email.isTextual() ? email.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Запрос с уже прочитанным телом, которое можно прочитать повторно
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * Тело уже в памяти, поэтому слушатель сразу получает все данные
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] buffer, int offset, int length) {
+                    return inputStream.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
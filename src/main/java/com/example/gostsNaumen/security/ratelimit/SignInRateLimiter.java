@@ -0,0 +1,149 @@
+package com.example.gostsNaumen.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты попыток входа по IP клиента и по почте.
+ * <p>Для каждого IP и каждой почты заводится {@link TokenBucket} с ёмкостью {@code capacity} и пополнением
+ * {@code refillPerMinute} токенов в минуту. По IP ограничивается перебор паролей к разным почтам с одного адреса,
+ * по почте – перебор пароля одной учётной записи с разных адресов.</p>
+ * <p>Корзины хранятся в Caffeine-кэше не больше {@code app.security.signInRateLimit.maximumKeys} ключей
+ * каждого вида. Корзина удаляется, если к ней не обращались дольше времени её полного пополнения:
+ * к этому моменту она всё равно полна, поэтому удаление не ослабляет ограничение.</p>
+ * <p>Отклонённые попытки считаются счётчиком {@value #REJECTED_METRIC} с тегом {@code limit=ip|email},
+ * количество корзин публикуется как {@value #BUCKETS_METRIC}.</p>
+ */
+@Component
+public class SignInRateLimiter {
+    /**
+     * Имя счётчика отклонённых попыток входа
+     */
+    public static final String REJECTED_METRIC = "auth.sign-in.rate-limited";
+    /**
+     * Имя метрики количества корзин
+     */
+    public static final String BUCKETS_METRIC = "auth.sign-in.rate-limit.buckets";
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public SignInRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.signInRateLimit.maximumKeys:100000}") Long maximumKeys,
+            @Value("${app.security.signInRateLimit.ip.capacity:20}") Integer ipCapacity,
+            @Value("${app.security.signInRateLimit.ip.refillPerMinute:20}") Integer ipRefillPerMinute,
+            @Value("${app.security.signInRateLimit.email.capacity:5}") Integer emailCapacity,
+            @Value("${app.security.signInRateLimit.email.refillPerMinute:5}") Integer emailRefillPerMinute
+    ) {
+        this(meterRegistry, maximumKeys, ipCapacity, ipRefillPerMinute, emailCapacity, emailRefillPerMinute,
+                System::nanoTime);
+    }
+
+    SignInRateLimiter(
+            MeterRegistry meterRegistry,
+            long maximumKeys,
+            int ipCapacity,
+            int ipRefillPerMinute,
+            int emailCapacity,
+            int emailRefillPerMinute,
+            LongSupplier nanoClock
+    ) {
+        this.nanoClock = nanoClock;
+        this.ipLimit = new Limit("ip", ipCapacity, ipRefillPerMinute, maximumKeys, meterRegistry);
+        this.emailLimit = new Limit("email", emailCapacity, emailRefillPerMinute, maximumKeys, meterRegistry);
+    }
+
+    /**
+     * Попытка входа с переданного IP на переданную почту.
+     * <p>Сначала проверяется IP: отклонённая по IP попытка не расходует токен почты,
+     * поэтому перебор с одного адреса не блокирует вход владельцу учётной записи с другого.</p>
+     *
+     * @param clientIp IP клиента
+     * @param email    почта из запроса, может отсутствовать
+     * @return пустой {@link Optional}, если попытка разрешена, иначе через сколько её можно повторить
+     */
+    public Optional<Duration> tryAcquire(String clientIp, String email) {
+        Optional<Duration> retryAfter = tryAcquireIp(clientIp);
+        if (retryAfter.isPresent()) {
+            return retryAfter;
+        }
+        return tryAcquireEmail(email);
+    }
+
+    /**
+     * Попытка входа с переданного IP. Проверяется до чтения тела запроса.
+     *
+     * @param clientIp IP клиента
+     * @return пустой {@link Optional}, если попытка разрешена, иначе через сколько её можно повторить
+     */
+    public Optional<Duration> tryAcquireIp(String clientIp) {
+        return ipLimit.tryAcquire(clientIp, nanoClock.getAsLong());
+    }
+
+    /**
+     * Попытка входа на переданную почту. Вызывается только для попыток, уже разрешённых по IP.
+     *
+     * @param email почта из запроса, может отсутствовать
+     * @return пустой {@link Optional}, если попытка разрешена или почты нет, иначе через сколько её можно повторить
+     */
+    public Optional<Duration> tryAcquireEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        return emailLimit.tryAcquire(email.strip().toLowerCase(Locale.ROOT), nanoClock.getAsLong());
+    }
+
+    /**
+     * Корзины и метрики одного вида ключей
+     */
+    private static final class Limit {
+        private final int capacity;
+        private final long refillNanos;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter rejectedCounter;
+
+        private Limit(String name, int capacity, int refillPerMinute, long maximumKeys, MeterRegistry meterRegistry) {
+            if (capacity < 1 || refillPerMinute < 1) {
+                throw new IllegalArgumentException(
+                        "Ёмкость и скорость пополнения ограничения %s должны быть положительными".formatted(name));
+            }
+
+            this.capacity = capacity;
+            this.refillNanos = Duration.ofMinutes(1).toNanos() / refillPerMinute;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumKeys)
+                    .expireAfterAccess(Duration.ofNanos(capacity * refillNanos))
+                    .build();
+            this.rejectedCounter = Counter.builder(REJECTED_METRIC)
+                    .tag("limit", name)
+                    .register(meterRegistry);
+            Gauge.builder(BUCKETS_METRIC, buckets, Cache::estimatedSize)
+                    .tag("limit", name)
+                    .register(meterRegistry);
+        }
+
+        private Optional<Duration> tryAcquire(String key, long now) {
+            long waitNanos = buckets.get(key, ignored -> new TokenBucket(now))
+                    .tryAcquire(now, refillNanos, capacity);
+            if (waitNanos == 0) {
+                return Optional.empty();
+            }
+
+            rejectedCounter.increment();
+            return Optional.of(Duration.ofNanos(waitNanos));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.gostsNaumen.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket.
+ * <p>Вместо количества токенов и времени последнего пополнения хранится одно число – теоретическое время
+ * прихода следующего запроса (алгоритм GCRA). Каждый пропущенный запрос сдвигает его на интервал пополнения
+ * одного токена, а запрос пропускается, пока это время опережает текущее не больше, чем на ёмкость корзины.
+ * Состояние меняется одним {@code compareAndSet}, поэтому параллельные запросы не блокируют друг друга.</p>
+ */
+final class TokenBucket {
+    private final AtomicLong theoreticalArrivalNanos;
+
+    /**
+     * @param nowNanos текущее время, корзина создаётся полной
+     */
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Попытка взять один токен.
+     *
+     * @param nowNanos    текущее время
+     * @param refillNanos интервал пополнения одного токена
+     * @param capacity    ёмкость корзины
+     * @return 0, если токен взят, иначе через сколько наносекунд появится следующий токен
+     */
+    long tryAcquire(long nowNanos, long refillNanos, int capacity) {
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            long nextArrival = Math.max(arrival, nowNanos) + refillNanos;
+            long waitNanos = nextArrival - nowNanos - capacity * refillNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportRowDtoResponse;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массовой загрузки ГОСТов.
+ * <p>Входные данные – JSON-массив или NDJSON (по одному JSON-объекту на строку) с {@link DocumentDtoRequest}.
+ * Записи читаются потоково и обрабатываются порциями по {@value #CHUNK_SIZE}: для каждой порции выполняется
+ * один запрос на проверку дубликатов по полному названию и одна пакетная вставка через JDBC.</p>
+ */
+@Service
+public class DocumentBulkImportService {
+    /**
+     * Количество записей, проверяемых и вставляемых за один раз
+     */
+    static final int CHUNK_SIZE = 1000;
+    private static final String INSERT_SQL = """
+            insert into document (full_name, designation, code_oks, activity_field, author, application_area,
+                                  content_link, acceptance_year, commission_year, key_words, adoption_level, status,
+                                  harmonization, accepted_first_time_or_replaced, references_list)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::adoption_level_enum, ?::status_enum, ?::harmonization_enum,
+                    ?::accepted_first_time_or_replaced_enum, ?)
+            on conflict (full_name) do nothing
+            """;
+    private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader documentReader;
+    private final DocumentFacetService documentFacetService;
+    private final OksClassifierIndex oksClassifierIndex;
+    private final DocumentSuggestIndex documentSuggestIndex;
+
+    public DocumentBulkImportService(
+            DocumentRepository documentRepository,
+            DocumentMapper documentMapper,
+            Validator validator,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            DocumentFacetService documentFacetService,
+            OksClassifierIndex oksClassifierIndex,
+            DocumentSuggestIndex documentSuggestIndex
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.documentReader = objectMapper.readerFor(DocumentDtoRequest.class);
+        this.documentFacetService = documentFacetService;
+        this.oksClassifierIndex = oksClassifierIndex;
+        this.documentSuggestIndex = documentSuggestIndex;
+    }
+
+    /**
+     * Загружает ГОСТы из потока.
+     * <p>Записи, не прошедшие валидацию, и записи с уже существующим полным названием пропускаются,
+     * остальные добавляются. Синтаксическая ошибка JSON прерывает загрузку целиком.</p>
+     *
+     * @param inputStream JSON-массив или NDJSON с ГОСТами
+     * @return количество добавленных и отклонённых записей и результат по каждой записи
+     * @throws IllegalArgumentException если входные данные не являются корректным JSON
+     * @throws IOException              ошибка чтения входного потока
+     */
+    @Transactional
+    public DocumentBulkImportDtoResponse importDocuments(InputStream inputStream) throws IOException {
+        List<DocumentBulkImportRowDtoResponse> results = new ArrayList<>();
+        List<PendingDocument> chunk = new ArrayList<>(CHUNK_SIZE);
+        Set<String> seenFullNames = new HashSet<>();
+        Set<String> createdCodes = new HashSet<>();
+        int row = 0;
+
+        try (MappingIterator<DocumentDtoRequest> iterator = documentReader.readValues(inputStream)) {
+            while (iterator.hasNextValue()) {
+                DocumentDtoRequest dto = iterator.nextValue();
+                row++;
+
+                String validationError = validate(dto);
+                if (validationError != null) {
+                    results.add(rejected(row, DocumentBulkImportRowDtoResponse.Status.INVALID, validationError));
+                    continue;
+                }
+                if (!seenFullNames.add(dto.getFullName())) {
+                    results.add(duplicate(row, dto.getFullName()));
+                    continue;
+                }
+
+                chunk.add(new PendingDocument(row, documentMapper.createDocumentEntity(dto)));
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk, results, createdCodes);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(
+                    "Некорректный JSON в записи %d: %s".formatted(row + 1, e.getOriginalMessage()));
+        }
+        insertChunk(chunk, results, createdCodes);
+
+        results.sort(Comparator.comparingInt(DocumentBulkImportRowDtoResponse::row));
+        int created = (int) results.stream()
+                .filter(result -> result.status() == DocumentBulkImportRowDtoResponse.Status.CREATED)
+                .count();
+        if (created > 0) {
+            documentFacetService.invalidate();
+            oksClassifierIndex.refresh(createdCodes);
+        }
+
+        return new DocumentBulkImportDtoResponse(created, results.size() - created, results);
+    }
+
+    /**
+     * Проверяет запись по тем же правилам, что и при добавлении одного ГОСТа
+     *
+     * @param dto запись из входных данных
+     * @return описание ошибок валидации или {@code null}, если запись корректна
+     */
+    private String validate(DocumentDtoRequest dto) {
+        if (dto == null) {
+            return "Пустая запись";
+        }
+
+        Set<ConstraintViolation<DocumentDtoRequest>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Отсеивает уже существующие в БД ГОСТы одним запросом и вставляет оставшиеся одним пакетом
+     *
+     * @param chunk        порция проверенных записей
+     * @param results      результаты обработки, в которые добавляются результаты порции
+     * @param createdCodes коды ОКС добавленных ГОСТов, в которые добавляются коды порции
+     */
+    private void insertChunk(
+            List<PendingDocument> chunk,
+            List<DocumentBulkImportRowDtoResponse> results,
+            Set<String> createdCodes
+    ) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingFullNames = new HashSet<>(documentRepository.findExistingFullNames(
+                chunk.stream().map(pending -> pending.document().getFullName()).toList()));
+
+        List<PendingDocument> toInsert = new ArrayList<>(chunk.size());
+        for (PendingDocument pending : chunk) {
+            if (existingFullNames.contains(pending.document().getFullName())) {
+                results.add(duplicate(pending.row(), pending.document().getFullName()));
+            } else {
+                toInsert.add(pending);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] insertedCounts = jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindDocument(ps, toInsert.get(i).document());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return toInsert.size();
+                    }
+                },
+                keyHolder
+        );
+
+        // Строки, вставленные параллельным запросом после проверки, пропускаются через on conflict:
+        // для них количество вставленных строк равно 0 и сгенерированный id не возвращается
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        int keyIndex = 0;
+        for (int i = 0; i < toInsert.size(); i++) {
+            Document document = toInsert.get(i).document();
+            if (insertedCounts[i] == 0) {
+                results.add(duplicate(toInsert.get(i).row(), document.getFullName()));
+                continue;
+            }
+
+            Long id = ((Number) keys.get(keyIndex++).get("id")).longValue();
+            results.add(new DocumentBulkImportRowDtoResponse(
+                    toInsert.get(i).row(), DocumentBulkImportRowDtoResponse.Status.CREATED, id, null));
+            createdCodes.add(document.getCodeOKS());
+            documentSuggestIndex.put(id, document.getDesignation(), document.getFullName());
+        }
+    }
+
+    private void bindDocument(PreparedStatement ps, Document document) throws SQLException {
+        ps.setString(1, document.getFullName());
+        ps.setString(2, document.getDesignation());
+        ps.setString(3, document.getCodeOKS());
+        ps.setString(4, document.getActivityField());
+        ps.setString(5, document.getAuthor());
+        ps.setString(6, document.getApplicationArea());
+        ps.setString(7, document.getContentLink());
+        ps.setObject(8, document.getAcceptanceYear(), Types.INTEGER);
+        ps.setObject(9, document.getCommissionYear(), Types.INTEGER);
+        ps.setString(10, document.getKeyWords());
+        ps.setString(11, document.getAdoptionLevel().name());
+        ps.setString(12, document.getStatus().name());
+        ps.setString(13, document.getHarmonization().name());
+        ps.setString(14, document.getAcceptedFirstTimeOrReplaced().name());
+        ps.setArray(15, ps.getConnection().createArrayOf("text", document.getReferences().toArray()));
+    }
+
+    private DocumentBulkImportRowDtoResponse duplicate(int row, String fullName) {
+        return rejected(row, DocumentBulkImportRowDtoResponse.Status.DUPLICATE,
+                "Гост c таким full_name: " + fullName + " уже существует!");
+    }
+
+    private DocumentBulkImportRowDtoResponse rejected(
+            int row,
+            DocumentBulkImportRowDtoResponse.Status status,
+            String message
+    ) {
+        return new DocumentBulkImportRowDtoResponse(row, status, null, message);
+    }
+
+    /**
+     * Проверенная запись, ожидающая вставки
+     *
+     * @param row      порядковый номер записи во входных данных
+     * @param document сущность ГОСТа
+     */
+    private record PendingDocument(int row, Document document) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш ДТО ГОСТов по id.
+ * <p>Размер кэша и время жизни записи ограничены настройками {@code app.cache.documents.*}.
+ * Статистика попаданий, промахов и вытеснений публикуется в Micrometer под именем {@value #CACHE_NAME}.</p>
+ * <p>Загрузка значения по ключу выполняется атомарно: параллельные запросы одного ГОСТа
+ * ждут одну загрузку из БД, а инвалидация ключа дожидается окончания текущей загрузки.
+ * Поэтому после {@link #evict(Long)} в кэш не попадёт значение, прочитанное до изменения.</p>
+ */
+@Component
+public class DocumentDtoCache {
+    /**
+     * Имя кэша в метриках
+     */
+    public static final String CACHE_NAME = "documents";
+    private final Cache<Long, DocumentDtoResponse> cache;
+
+    public DocumentDtoCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.documents.maximumSize:10000}") Long maximumSize,
+            @Value("${app.cache.documents.expireMinutes:10}") Integer expireMinutes
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Получение ДТО ГОСТа из кэша, при отсутствии – загрузка и сохранение в кэш.
+     * Отсутствие ГОСТа в БД не кэшируется.
+     *
+     * @param id     id ГОСТа
+     * @param loader загрузка ДТО из БД
+     * @return ДТО ГОСТа, если он существует
+     */
+    public Optional<DocumentDtoResponse> get(Long id, Function<Long, Optional<DocumentDtoResponse>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).map(this::freezeReferences).orElse(null)));
+    }
+
+    /**
+     * Удаление ГОСТа из кэша.
+     * <p>Если вызов происходит внутри транзакции, запись удаляется и сразу, и после завершения транзакции:
+     * иначе параллельный запрос может успеть положить в кэш ещё не изменённое состояние.</p>
+     *
+     * @param id id ГОСТа
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+
+        cache.invalidate(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Делает список ссылок кэшируемого ДТО независимым от сущности и неизменяемым,
+     * так как один и тот же объект отдаётся всем запросам
+     *
+     * @param dto ДТО ГОСТа
+     * @return то же ДТО
+     */
+    private DocumentDtoResponse freezeReferences(DocumentDtoResponse dto) {
+        if (dto.getReferences() != null) {
+            dto.setReferences(Collections.unmodifiableSet(new HashSet<>(dto.getReferences())));
+        }
+
+        return dto;
+    }
+}
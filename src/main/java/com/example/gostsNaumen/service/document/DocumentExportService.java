@@ -0,0 +1,78 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Сервис выгрузки каталога ГОСТов в формате NDJSON (одна JSON-запись на строку).
+ * <p>Документы читаются из БД курсором и сразу же пишутся в выходной поток,
+ * поэтому потребление памяти не зависит от размера каталога.</p>
+ */
+@Service
+public class DocumentExportService {
+    /**
+     * Количество записей, после которого выходной поток принудительно сбрасывается клиенту
+     */
+    private static final int FLUSH_CHUNK_SIZE = 500;
+    private static final byte LINE_SEPARATOR = '\n';
+    private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final ObjectWriter objectWriter;
+    private final EntityManager entityManager;
+
+    public DocumentExportService(
+            DocumentRepository documentRepository,
+            DocumentMapper documentMapper,
+            ObjectMapper objectMapper,
+            EntityManager entityManager
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.objectWriter = objectMapper.writer();
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Записывает все ГОСТы в выходной поток в формате NDJSON.
+     * <p>Каждая сущность после сериализации отсоединяется от контекста персистентности,
+     * чтобы он не рос вместе с количеством прочитанных строк.</p>
+     *
+     * @param outputStream поток, в который пишется выгрузка
+     * @return количество выгруженных документов
+     * @throws IOException ошибка записи в выходной поток, например при разрыве соединения клиентом
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream outputStream) throws IOException {
+        long exported = 0;
+
+        try (Stream<Document> documents = documentRepository.streamAllOrderedById()) {
+            Iterator<Document> iterator = documents.iterator();
+
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+
+                outputStream.write(objectWriter.writeValueAsBytes(documentMapper.mapEntityToDto(document)));
+                outputStream.write(LINE_SEPARATOR);
+                entityManager.detach(document);
+
+                if (++exported % FLUSH_CHUNK_SIZE == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+
+        outputStream.flush();
+        return exported;
+    }
+}
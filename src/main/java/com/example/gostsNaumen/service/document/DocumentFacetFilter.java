@@ -0,0 +1,21 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
+import com.example.gostsNaumen.entity.model.HarmonizationEnum;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+
+/**
+ * Фильтр, под которым считаются фасеты каталога. Поле со значением {@code null} не ограничивает выборку.
+ *
+ * @param status        статус ГОСТа
+ * @param adoptionLevel уровень принятия ГОСТа
+ * @param harmonization уровень гармонизации ГОСТа
+ * @param oksGroup      группа ОКС – часть кода ОКС до первой точки
+ */
+public record DocumentFacetFilter(
+        StatusEnum status,
+        AdoptionLevelEnum adoptionLevel,
+        HarmonizationEnum harmonization,
+        String oksGroup
+) {
+}
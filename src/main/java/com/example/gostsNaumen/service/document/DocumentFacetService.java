@@ -0,0 +1,162 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentFacetsDtoResponse;
+import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
+import com.example.gostsNaumen.entity.model.HarmonizationEnum;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+import com.example.gostsNaumen.entity.model.converter.RusEngEnumConverter;
+import com.example.gostsNaumen.repository.DocumentFacetView;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Сервис подсчёта ГОСТов по фасетам каталога: статусу, уровню принятия, гармонизации и группе ОКС.
+ * <p>Все счётчики считаются одним агрегирующим запросом и кэшируются по фильтру. Кэш целиком сбрасывается
+ * при любом изменении каталога, см. {@link #invalidate()}. Размер и время жизни ограничены настройками
+ * {@code app.cache.facets.*}, статистика публикуется в Micrometer под именем {@value #CACHE_NAME}.</p>
+ */
+@Service
+public class DocumentFacetService {
+    /**
+     * Имя кэша в метриках
+     */
+    public static final String CACHE_NAME = "facets";
+    private static final Pattern OKS_GROUP_PATTERN = Pattern.compile("\\d{2}");
+    private final DocumentRepository documentRepository;
+    private final RusEngEnumConverter rusEngEnumConverter;
+    private final Cache<DocumentFacetFilter, DocumentFacetsDtoResponse> cache;
+
+    public DocumentFacetService(
+            DocumentRepository documentRepository,
+            RusEngEnumConverter rusEngEnumConverter,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.facets.maximumSize:1000}") Long maximumSize,
+            @Value("${app.cache.facets.expireMinutes:5}") Integer expireMinutes
+    ) {
+        this.documentRepository = documentRepository;
+        this.rusEngEnumConverter = rusEngEnumConverter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Получение количества ГОСТов по значениям фасетов
+     *
+     * @param status        статус на русском языке или {@code null}
+     * @param adoptionLevel уровень принятия на русском языке или {@code null}
+     * @param harmonization уровень гармонизации на русском языке или {@code null}
+     * @param oksGroup      группа ОКС из двух цифр или {@code null}
+     * @throws IllegalArgumentException если значение фильтра некорректно
+     * @return счётчики по каждому фасету под фильтром
+     */
+    public DocumentFacetsDtoResponse getFacets(
+            String status,
+            String adoptionLevel,
+            String harmonization,
+            String oksGroup
+    ) {
+        if (oksGroup != null && !OKS_GROUP_PATTERN.matcher(oksGroup).matches()) {
+            throw new IllegalArgumentException("Группа ОКС должна состоять из двух цифр, получено: " + oksGroup);
+        }
+
+        DocumentFacetFilter filter = new DocumentFacetFilter(
+                status == null ? null : rusEngEnumConverter.convertToEnglishValue(status, StatusEnum.class),
+                adoptionLevel == null
+                        ? null
+                        : rusEngEnumConverter.convertToEnglishValue(adoptionLevel, AdoptionLevelEnum.class),
+                harmonization == null
+                        ? null
+                        : rusEngEnumConverter.convertToEnglishValue(harmonization, HarmonizationEnum.class),
+                oksGroup
+        );
+
+        return cache.get(filter, this::countFacets);
+    }
+
+    /**
+     * Сброс кэша после изменения каталога.
+     * <p>Если вызов происходит внутри транзакции, кэш сбрасывается и сразу, и после завершения транзакции:
+     * иначе параллельный запрос может успеть положить в кэш счётчики, посчитанные до изменения.</p>
+     */
+    public void invalidate() {
+        cache.invalidateAll();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private DocumentFacetsDtoResponse countFacets(DocumentFacetFilter filter) {
+        List<DocumentFacetView> rows = documentRepository.countFacets(
+                filter.status() == null ? null : filter.status().name(),
+                filter.adoptionLevel() == null ? null : filter.adoptionLevel().name(),
+                filter.harmonization() == null ? null : filter.harmonization().name(),
+                filter.oksGroup()
+        );
+
+        long total = 0;
+        Map<String, Long> statusCounts = new LinkedHashMap<>();
+        Map<String, Long> adoptionLevelCounts = new LinkedHashMap<>();
+        Map<String, Long> harmonizationCounts = new LinkedHashMap<>();
+        Map<String, Long> oksGroupCounts = new LinkedHashMap<>();
+
+        for (DocumentFacetView row : sortedByCount(rows)) {
+            switch (row.getFacet()) {
+                case "total" -> total = row.getCount();
+                case "status" -> statusCounts.put(
+                        StatusEnum.valueOf(row.getValue()).getValue(), row.getCount());
+                case "adoptionLevel" -> adoptionLevelCounts.put(
+                        AdoptionLevelEnum.valueOf(row.getValue()).getValue(), row.getCount());
+                case "harmonization" -> harmonizationCounts.put(
+                        HarmonizationEnum.valueOf(row.getValue()).getValue(), row.getCount());
+                case "oksGroup" -> oksGroupCounts.put(row.getValue(), row.getCount());
+                default -> throw new IllegalStateException("Неизвестный фасет: " + row.getFacet());
+            }
+        }
+
+        return new DocumentFacetsDtoResponse(
+                total,
+                Collections.unmodifiableMap(statusCounts),
+                Collections.unmodifiableMap(adoptionLevelCounts),
+                Collections.unmodifiableMap(harmonizationCounts),
+                Collections.unmodifiableMap(oksGroupCounts)
+        );
+    }
+
+    /**
+     * Сортирует строки по убыванию количества, при равенстве – по значению
+     *
+     * @param rows строки счётчиков
+     * @return отсортированные строки
+     */
+    private List<DocumentFacetView> sortedByCount(List<DocumentFacetView> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(DocumentFacetView::getCount).reversed()
+                        .thenComparing(DocumentFacetView::getValue, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+}
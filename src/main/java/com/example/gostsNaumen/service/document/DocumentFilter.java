@@ -0,0 +1,43 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
+import com.example.gostsNaumen.entity.model.HarmonizationEnum;
+import com.example.gostsNaumen.entity.model.StatusEnum;
+
+/**
+ * Критерии выборки ГОСТов. Поле со значением {@code null} выборку не ограничивает.
+ *
+ * @param status             статус ГОСТа
+ * @param adoptionLevel      уровень принятия ГОСТа
+ * @param harmonization      уровень гармонизации ГОСТа
+ * @param acceptanceYearFrom минимальный год принятия включительно
+ * @param acceptanceYearTo   максимальный год принятия включительно
+ * @param commissionYearFrom минимальный год введения в действие включительно
+ * @param commissionYearTo   максимальный год введения в действие включительно
+ * @param author             автор ГОСТа
+ * @param codeOksPrefix      начало кода ОКС
+ */
+public record DocumentFilter(
+        StatusEnum status,
+        AdoptionLevelEnum adoptionLevel,
+        HarmonizationEnum harmonization,
+        Integer acceptanceYearFrom,
+        Integer acceptanceYearTo,
+        Integer commissionYearFrom,
+        Integer commissionYearTo,
+        String author,
+        String codeOksPrefix
+) {
+    /**
+     * Фильтр без ограничений
+     */
+    public static final DocumentFilter EMPTY = new DocumentFilter(
+            null, null, null, null, null, null, null, null, null);
+
+    /**
+     * @return {@code true}, если ни один критерий не задан
+     */
+    public boolean isEmpty() {
+        return EMPTY.equals(this);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.entity.Document;
+
+import java.util.List;
+
+/**
+ * Страница стандартов, полученная keyset-пагинацией.
+ *
+ * @param documents   стандарты страницы, отсортированные по id
+ * @param nextAfterId id, после которого начинается следующая страница, либо {@code null}, если страница последняя
+ */
+public record DocumentPage(
+        List<Document> documents,
+        Long nextAfterId
+) {
+}
@@ -0,0 +1,75 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentReferenceDtoResponse;
+import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.repository.DocumentReferenceRepository;
+import com.example.gostsNaumen.repository.DocumentReferenceView;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Сервис для работы с графом нормативных ссылок между стандартами
+ */
+@Service
+public class DocumentReferenceService {
+    /**
+     * Максимальная глубина обхода графа ссылок за один запрос
+     */
+    public static final int MAX_DEPTH = 10;
+    private final DocumentRepository documentRepository;
+    private final DocumentReferenceRepository documentReferenceRepository;
+
+    public DocumentReferenceService(
+            DocumentRepository documentRepository,
+            DocumentReferenceRepository documentReferenceRepository
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentReferenceRepository = documentReferenceRepository;
+    }
+
+    /**
+     * Находит стандарты, на которые ссылается стандарт
+     *
+     * @param id    id стандарта
+     * @param depth глубина обхода, от 1 до {@link #MAX_DEPTH}; 1 – только прямые ссылки
+     * @throws IllegalArgumentException      если глубина вне допустимого диапазона
+     * @throws CustomEntityNotFoundException по переданному id нет стандарта
+     * @return упомянутые стандарты с минимальной глубиной, включая отсутствующие в каталоге
+     */
+    public List<DocumentReferenceDtoResponse> getReferences(Long id, int depth) {
+        checkRequest(id, depth);
+
+        return documentReferenceRepository.findReferences(id, depth).stream().map(this::mapViewToDto).toList();
+    }
+
+    /**
+     * Находит стандарты, которые ссылаются на стандарт
+     *
+     * @param id    id стандарта
+     * @param depth глубина обхода, от 1 до {@link #MAX_DEPTH}; 1 – только прямые ссылки
+     * @throws IllegalArgumentException      если глубина вне допустимого диапазона
+     * @throws CustomEntityNotFoundException по переданному id нет стандарта
+     * @return ссылающиеся стандарты с минимальной глубиной
+     */
+    public List<DocumentReferenceDtoResponse> getCitingDocuments(Long id, int depth) {
+        checkRequest(id, depth);
+
+        return documentReferenceRepository.findCitingDocuments(id, depth).stream().map(this::mapViewToDto).toList();
+    }
+
+    private void checkRequest(Long id, int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException(
+                    "Глубина должна быть от 1 до %d, получено: %d".formatted(MAX_DEPTH, depth));
+        }
+        if (!documentRepository.existsById(id)) {
+            throw new CustomEntityNotFoundException("По id - %d документ не найден!".formatted(id));
+        }
+    }
+
+    private DocumentReferenceDtoResponse mapViewToDto(DocumentReferenceView view) {
+        return new DocumentReferenceDtoResponse(view.getDesignation(), view.getId(), view.getFullName(), view.getDepth());
+    }
+}
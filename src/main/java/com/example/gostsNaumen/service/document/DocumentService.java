@@ -1,40 +1,86 @@
 package com.example.gostsNaumen.service.document;
 
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
 import com.example.gostsNaumen.entity.Document;
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.exception.CustomPreconditionFailedException;
+import com.example.gostsNaumen.repository.ConstraintViolations;
 import com.example.gostsNaumen.repository.DocumentRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 /**
  * Сервис по работе с гостами в БД
  */
 @Service
 public class DocumentService {
+    /**
+     * Максимальный размер страницы при постраничном получении стандартов
+     */
+    public static final int MAX_PAGE_LIMIT = 500;
+    private static final int MAX_DESIGNATION_LENGTH = 128;
     private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final DocumentDtoCache documentDtoCache;
+    private final DocumentFacetService documentFacetService;
+    private final OksClassifierIndex oksClassifierIndex;
+    private final DocumentSuggestIndex documentSuggestIndex;
 
-    public DocumentService(DocumentRepository documentRepository) {
+    public DocumentService(
+            DocumentRepository documentRepository,
+            DocumentMapper documentMapper,
+            DocumentDtoCache documentDtoCache,
+            DocumentFacetService documentFacetService,
+            OksClassifierIndex oksClassifierIndex,
+            DocumentSuggestIndex documentSuggestIndex) {
         this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.documentDtoCache = documentDtoCache;
+        this.documentFacetService = documentFacetService;
+        this.oksClassifierIndex = oksClassifierIndex;
+        this.documentSuggestIndex = documentSuggestIndex;
     }
 
     /**
-     * Сохранение сущности ГОСТа в БД
+     * Сохранение сущности ГОСТа в БД.
+     * <p>Уникальность полного названия проверяется уникальным индексом при вставке, без предварительного
+     * поиска: это один запрос вместо двух, и два параллельных запроса не могут оба пройти проверку.</p>
      *
      * @param documentForSave Сущность из БД
      * @throws CustomEntityExistsException при существовании госта по полному имени выбрасывается ошибка
      * @return сохраненная сущность в бд
      */
     public Document saveDocument(Document documentForSave) {
-
-        if (documentRepository.findByFullName(documentForSave.getFullName()).isPresent()) {
-            throw new CustomEntityExistsException(
-                    "Гост c таким full_name: " + documentForSave.getFullName() + " уже существует!");
+        Document savedDocument;
+        try {
+            savedDocument = documentRepository.saveAndFlush(documentForSave);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, ConstraintViolations.DOCUMENT_FULL_NAME)) {
+                throw new CustomEntityExistsException(
+                        "Гост c таким full_name: " + documentForSave.getFullName() + " уже существует!");
+            }
+            throw e;
         }
 
-        return documentRepository.save(documentForSave);
+        documentDtoCache.evict(savedDocument.getId());
+        documentFacetService.invalidate();
+        oksClassifierIndex.refresh(List.of(savedDocument.getCodeOKS()));
+        documentSuggestIndex.put(
+                savedDocument.getId(), savedDocument.getDesignation(), savedDocument.getFullName());
+
+        return savedDocument;
     }
 
     /**
@@ -53,6 +99,40 @@ public class DocumentService {
                 .findById(id);
     }
 
+    /**
+     * Находит ДТО ГОСТа по ID.
+     * <p>Результат берётся из {@link DocumentDtoCache}, в БД запрос уходит только при промахе кэша.</p>
+     *
+     * @param id id ГОСТа
+     * @throws IllegalArgumentException если получен id null
+     * @return ДТО найденного по ID ГОСТа
+     */
+    public Optional<DocumentDtoResponse> getDocumentDtoById(Long id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Некорректный аргумент: " + id);
+        }
+
+        return documentDtoCache.get(id, key -> documentRepository.findById(key).map(documentMapper::mapEntityToDto));
+    }
+
+    /**
+     * Находит ГОСТ по обозначению, записанному в произвольной форме.
+     * <p>Регистр, "ё", вид тире и пробелы не учитываются; при отсутствии точного совпадения
+     * возвращается ГОСТ с наиболее похожим обозначением.</p>
+     *
+     * @param designation обозначение, например "ГОСТ 3722—2014" или "гост 3722 2014"
+     * @throws IllegalArgumentException если обозначение пустое или длиннее 128 символов
+     * @return найденный ГОСТ
+     */
+    public Optional<Document> resolveDesignation(String designation) {
+        if (designation == null || designation.isBlank() || designation.length() > MAX_DESIGNATION_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Обозначение должно содержать от 1 до %d символов".formatted(MAX_DESIGNATION_LENGTH));
+        }
+
+        return documentRepository.findBestDesignationMatch(designation.strip());
+    }
+
     /**
      * Удаление ГОСТа по Id
      *
@@ -64,39 +144,180 @@ public class DocumentService {
         if (id == null) {
             throw new IllegalArgumentException("Получен null id");
         }
-        if (!documentRepository.existsById(id)) {
-            throw new CustomEntityNotFoundException(
-                    String.format("По переданному ID: %s, нет стандарта", id)
-            );
-        }
+        String codeOks = documentRepository.findCodeOksById(id).orElseThrow(
+                () -> new CustomEntityNotFoundException(
+                        String.format("По переданному ID: %s, нет стандарта", id)
+                )
+        );
         documentRepository.deleteById(id);
+        documentDtoCache.evict(id);
+        documentFacetService.invalidate();
+        oksClassifierIndex.refresh(List.of(codeOks));
+        documentSuggestIndex.remove(id);
     }
 
     /**
-     * Метод для обновления полей ГОСТа
+     * Метод для обновления полей ГОСТа с оптимистической блокировкой.
+     * <p>ГОСТ читается один раз, изменяется и сохраняется одним UPDATE с условием на прочитанную версию.
+     * Если ГОСТ успели изменить после чтения, UPDATE не затрагивает строк и выбрасывается
+     * {@link org.springframework.dao.OptimisticLockingFailureException}. Изменения сбрасываются в БД сразу,
+     * чтобы возвращаемая сущность содержала новую версию.</p>
      *
-     * @param document документ с уже обновлёнными полями, которые нужно сохранить
-     * @throws CustomEntityNotFoundException по переданному id нет стандарта
-     * @return {@code document} – обновлённый документ
+     * @param id              id ГОСТа
+     * @param expectedVersion версия, которую изменяет клиент, или {@code null}, если клиент её не передал
+     * @param changes         изменение полей ГОСТа
+     * @throws CustomEntityNotFoundException     по переданному id нет стандарта
+     * @throws CustomPreconditionFailedException текущая версия ГОСТа не совпадает с {@code expectedVersion}
+     * @return обновлённый документ
+     */
+    public Document updateDocument(Long id, Long expectedVersion, UnaryOperator<Document> changes) {
+        Document document = documentRepository.findById(id).orElseThrow(
+                () -> new CustomEntityNotFoundException(
+                        String.format("По переданному ID: %s, нет стандарта", id)));
+
+        if (expectedVersion != null && !expectedVersion.equals(document.getVersion())) {
+            throw new CustomPreconditionFailedException(
+                    "ГОСТ с id %d был изменён: текущая версия %d, передана %d".formatted(
+                            id, document.getVersion(), expectedVersion));
+        }
+
+        String previousCodeOks = document.getCodeOKS();
+        Document updatedDocument = documentRepository.saveAndFlush(changes.apply(document));
+        documentDtoCache.evict(id);
+        documentFacetService.invalidate();
+        oksClassifierIndex.refresh(List.of(previousCodeOks, updatedDocument.getCodeOKS()));
+        documentSuggestIndex.put(id, updatedDocument.getDesignation(), updatedDocument.getFullName());
+
+        return updatedDocument;
+    }
+
+    /**
+     * Получение страницы ГОСТов с БД с использованием keyset-пагинации по id.
+     * <p>Из БД запрашивается на одну запись больше {@code limit}: её наличие означает,
+     * что за текущей страницей есть следующая.</p>
+     *
+     * @param afterId id последнего стандарта предыдущей страницы, {@code null} для первой страницы
+     * @param limit   размер страницы, от 1 до {@link #MAX_PAGE_LIMIT}
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     * @return страница стандартов и id для запроса следующей страницы
      */
-    public Document updateDocument(Document document) {
+    public DocumentPage findPage(Long afterId, int limit) {
+        return findPage(DocumentFilter.EMPTY, afterId, limit);
+    }
 
-        Long id = document.getId();
+    /**
+     * Получение страницы ГОСТов, подходящих под фильтр, с использованием keyset-пагинации по id.
+     * <p>Из БД запрашивается на одну запись больше {@code limit}: её наличие означает,
+     * что за текущей страницей есть следующая.</p>
+     *
+     * @param filter  критерии выборки
+     * @param afterId id последнего стандарта предыдущей страницы, {@code null} для первой страницы
+     * @param limit   размер страницы, от 1 до {@link #MAX_PAGE_LIMIT}
+     * @throws IllegalArgumentException если размер страницы вне допустимого диапазона
+     *                                  или начало диапазона года больше его конца
+     * @return страница стандартов и id для запроса следующей страницы
+     */
+    public DocumentPage findPage(DocumentFilter filter, Long afterId, int limit) {
+        checkLimit(limit);
+        checkYearRange("принятия", filter.acceptanceYearFrom(), filter.acceptanceYearTo());
+        checkYearRange("введения", filter.commissionYearFrom(), filter.commissionYearTo());
 
-        if (!documentRepository.existsById(id)) {
-            throw new CustomEntityNotFoundException(
-                    String.format("По переданному ID: %s, нет стандарта", id));
+        if (!filter.isEmpty()) {
+            return findPageBySpecification(DocumentSpecifications.byFilter(filter), afterId, limit);
         }
 
-        return documentRepository.save(document);
+        return toPage(documentRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId,
+                Limit.of(limit + 1)
+        ), limit);
     }
 
     /**
-     * Получение всех ГОСТов с БД
+     * Получение страницы ГОСТов из поддерева классификатора ОКС с использованием keyset-пагинации по id
      *
-     * @return список сущностей ГОСТов с БД
+     * @param code    код узла классификатора, например "13" или "13.340"
+     * @param afterId id последнего стандарта предыдущей страницы, {@code null} для первой страницы
+     * @param limit   размер страницы, от 1 до {@link #MAX_PAGE_LIMIT}
+     * @throws IllegalArgumentException если код ОКС некорректен или размер страницы вне допустимого диапазона
+     * @return страница стандартов с кодом ОКС, равным {@code code} или начинающимся с {@code code + "."}
      */
-    public List<Document> findAll() {
-        return documentRepository.findAll();
+    public DocumentPage findOksSubtreePage(String code, Long afterId, int limit) {
+        OksClassifierIndex.checkCode(code);
+        checkLimit(limit);
+
+        return findPageBySpecification(DocumentSpecifications.inOksSubtree(code), afterId, limit);
+    }
+
+    /**
+     * Полнотекстовый поиск ГОСТов по полному названию, ключевым словам и области применения.
+     * <p>Результаты ранжируются по релевантности и отдаются постранично.</p>
+     *
+     * @param query строка поиска
+     * @param page  номер страницы, начиная с 0
+     * @param size  размер страницы, от 1 до {@link #MAX_PAGE_LIMIT}
+     * @throws IllegalArgumentException если строка поиска пустая или параметры страницы некорректны
+     * @return найденные ГОСТы в порядке убывания релевантности
+     */
+    public List<Document> search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Строка поиска не может быть пустой");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Некорректные параметры страницы: page=%d, size=%d".formatted(page, size));
+        }
+
+        List<Long> rankedIds = documentRepository.searchIdsByText(query.strip(), size, (long) page * size);
+
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> rankById = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rankById.put(rankedIds.get(i), i);
+        }
+
+        return documentRepository.findAllById(rankedIds)
+                .stream()
+                .sorted(Comparator.comparing(document -> rankById.get(document.getId())))
+                .toList();
+    }
+
+    private void checkYearRange(String yearName, Integer from, Integer to) {
+        if (from != null && to != null && from > to) {
+            throw new IllegalArgumentException(
+                    "Некорректный диапазон года %s: %d – %d".formatted(yearName, from, to));
+        }
+    }
+
+    private DocumentPage findPageBySpecification(Specification<Document> specification, Long afterId, int limit) {
+        return toPage(documentRepository.findBy(
+                specification.and(DocumentSpecifications.idGreaterThan(afterId)),
+                query -> query.sortBy(Sort.by("id")).limit(limit + 1).all()
+        ), limit);
+    }
+
+    /**
+     * Формирует страницу из выборки, запрошенной с одной лишней записью
+     *
+     * @param documents выборка размером не больше {@code limit + 1}
+     * @param limit     размер страницы
+     * @return страница стандартов и id для запроса следующей страницы
+     */
+    private DocumentPage toPage(List<Document> documents, int limit) {
+        if (documents.size() <= limit) {
+            return new DocumentPage(documents, null);
+        }
+
+        List<Document> pageContent = documents.subList(0, limit);
+        return new DocumentPage(pageContent, pageContent.getLast().getId());
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Размер страницы должен быть от 1 до %d, получено: %d".formatted(MAX_PAGE_LIMIT, limit));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.entity.Document;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Построение {@link Specification} для выборки ГОСТов по {@link DocumentFilter}.
+ * <p>Каждый заданный критерий превращается в отдельный предикат, предикаты объединяются через "и".
+ * Предикаты сравнивают колонки напрямую, без функций над ними, чтобы запрос мог использовать индексы
+ * из {@code document-filter-3.4.sql}.</p>
+ */
+public final class DocumentSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    private DocumentSpecifications() {
+    }
+
+    /**
+     * @param filter критерии выборки
+     * @return спецификация, которой удовлетворяют ГОСТы, подходящие под все заданные критерии
+     */
+    public static Specification<Document> byFilter(DocumentFilter filter) {
+        return Specification.allOf(
+                equalTo("status", filter.status()),
+                equalTo("adoptionLevel", filter.adoptionLevel()),
+                equalTo("harmonization", filter.harmonization()),
+                between("acceptanceYear", filter.acceptanceYearFrom(), filter.acceptanceYearTo()),
+                between("commissionYear", filter.commissionYearFrom(), filter.commissionYearTo()),
+                equalTo("author", filter.author()),
+                codeOksStartsWith(filter.codeOksPrefix())
+        );
+    }
+
+    /**
+     * @param id id последнего ГОСТа предыдущей страницы, {@code null} для первой страницы
+     * @return спецификация ГОСТов с id строго больше переданного
+     */
+    public static Specification<Document> idGreaterThan(Long id) {
+        return (root, query, cb) -> id == null ? null : cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * @param code код узла классификатора ОКС
+     * @return спецификация ГОСТов с кодом ОКС, равным {@code code} или вложенным в него
+     */
+    public static Specification<Document> inOksSubtree(String code) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("codeOKS"), code),
+                cb.like(root.get("codeOKS"), escapeLike(code) + ".%", LIKE_ESCAPE)
+        );
+    }
+
+    private static Specification<Document> equalTo(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+
+    private static Specification<Document> between(String attribute, Integer from, Integer to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.between(root.get(attribute), from, to);
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(root.get(attribute), from);
+            }
+            if (to != null) {
+                return cb.lessThanOrEqualTo(root.get(attribute), to);
+            }
+            return null;
+        };
+    }
+
+    private static Specification<Document> codeOksStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null
+                ? null
+                : cb.like(root.get("codeOKS"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
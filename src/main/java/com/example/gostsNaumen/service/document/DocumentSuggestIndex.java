@@ -0,0 +1,258 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentSuggestionDtoResponse;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.example.gostsNaumen.repository.DocumentSuggestView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Отсортированный индекс обозначений и полных названий ГОСТов для подсказок при вводе.
+ * <p>Для каждого ГОСТа в индекс попадают нормализованные ключи: обозначение ("гост 34286 2017"),
+ * его номер без префикса ("34286 2017") и полное название. Поиск по префиксу – выборка диапазона
+ * ключей из {@link ConcurrentSkipListMap}, без обращения к БД.</p>
+ * <p>Индекс строится после запуска приложения потоковым чтением проекций из БД и затем обновляется
+ * после фиксации каждого добавления, изменения и удаления ГОСТа. Пока индекс строится,
+ * подсказки могут быть неполными. Количество ключей публикуется в Micrometer как
+ * {@code documents.suggest.keys}.</p>
+ */
+@Component
+public class DocumentSuggestIndex {
+    /**
+     * Максимальное количество подсказок за один запрос
+     */
+    public static final int MAX_LIMIT = 50;
+    private static final int MAX_PREFIX_LENGTH = 128;
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-‐‑‒–—―−]+", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::text).thenComparingLong(Key::id);
+    private final Logger log = LoggerFactory.getLogger(DocumentSuggestIndex.class);
+    private final DocumentRepository documentRepository;
+    private final ConcurrentSkipListMap<Key, Entry> keys = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private final ConcurrentHashMap<Long, Entry> entriesById = new ConcurrentHashMap<>();
+    private final Set<Long> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean building;
+
+    public DocumentSuggestIndex(DocumentRepository documentRepository, MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        Gauge.builder("documents.suggest.keys", keys, Map::size)
+                .description("Количество ключей в индексе подсказок ГОСТов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Построение индекса потоковым чтением всех ГОСТов.
+     * <p>ГОСТы, изменённые во время построения, не перезаписываются прочитанным из курсора состоянием.
+     * Проверка и замена выполняются атомарно по id ГОСТа, как и в {@link #applyChange(Long, Entry)}.</p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        building = true;
+        long started = System.nanoTime();
+
+        try (Stream<DocumentSuggestView> views = documentRepository.streamSuggestViews()) {
+            views.forEach(view -> entriesById.compute(view.getId(), (id, current) -> changedDuringBuild.contains(id)
+                    ? current
+                    : replaceKeys(id, current, new Entry(id, view.getDesignation(), view.getFullName()))));
+        } finally {
+            building = false;
+            changedDuringBuild.clear();
+        }
+
+        log.info("Индекс подсказок построен: {} ГОСТов, {} ключей за {} мс",
+                entriesById.size(), keys.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Поиск подсказок по началу обозначения, номера или полного названия ГОСТа.
+     * Регистр, буква "ё" и разница между пробелами, дефисами и тире не учитываются.
+     *
+     * @param prefix введённое пользователем начало
+     * @param limit  максимальное количество подсказок, от 1 до {@value #MAX_LIMIT}
+     * @throws IllegalArgumentException если префикс пустой или длиннее 128 символов,
+     *                                  или количество вне допустимого диапазона
+     * @return подсказки по возрастанию совпавшего ключа, без повторов одного ГОСТа
+     */
+    public List<DocumentSuggestionDtoResponse> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException(
+                    "Количество подсказок должно быть от 1 до %d, получено: %d".formatted(MAX_LIMIT, limit));
+        }
+        String normalizedPrefix = prefix == null ? "" : normalize(prefix);
+        if (normalizedPrefix.isEmpty() || normalizedPrefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Префикс должен содержать от 1 до %d символов".formatted(MAX_PREFIX_LENGTH));
+        }
+
+        NavigableMap<Key, Entry> range = keys.subMap(
+                new Key(normalizedPrefix, Long.MIN_VALUE), true,
+                new Key(normalizedPrefix + Character.MAX_VALUE, Long.MIN_VALUE), false
+        );
+
+        Set<Entry> found = new LinkedHashSet<>();
+        for (Entry entry : range.values()) {
+            found.add(entry);
+            if (found.size() == limit) {
+                break;
+            }
+        }
+
+        List<DocumentSuggestionDtoResponse> suggestions = new ArrayList<>(found.size());
+        for (Entry entry : found) {
+            suggestions.add(new DocumentSuggestionDtoResponse(entry.id(), entry.designation(), entry.fullName()));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Добавление или замена ГОСТа в индексе после фиксации транзакции
+     *
+     * @param id          id ГОСТа
+     * @param designation обозначение ГОСТа
+     * @param fullName    полное название ГОСТа
+     */
+    public void put(Long id, String designation, String fullName) {
+        afterCommit(() -> applyChange(id, new Entry(id, designation, fullName)));
+    }
+
+    /**
+     * Удаление ГОСТа из индекса после фиксации транзакции
+     *
+     * @param id id ГОСТа
+     */
+    public void remove(Long id) {
+        afterCommit(() -> applyChange(id, null));
+    }
+
+    /**
+     * Нормализация текста для сравнения по префиксу по тому же правилу, что и SQL-функция
+     * {@code normalize_designation}, чтобы подсказки и поиск обозначения в БД одинаково понимали запись ГОСТа
+     *
+     * @param text исходный текст
+     * @return текст в нижнем регистре, с "е" вместо "ё", в котором каждая последовательность пробелов, дефисов
+     * и тире заменена одним пробелом
+     */
+    static String normalize(String text) {
+        String lowerCase = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        return SEPARATORS.matcher(lowerCase).replaceAll(" ").strip();
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    change.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Замена ГОСТа в индексе зафиксированным изменением.
+     * <p>Замена целиком выполняется внутри {@link ConcurrentHashMap#compute}, поэтому изменения одного ГОСТа
+     * из разных потоков и построение индекса не перемешивают его старые и новые ключи.</p>
+     *
+     * @param id    id ГОСТа
+     * @param entry новое состояние ГОСТа или {@code null}, если ГОСТ удалён
+     */
+    private void applyChange(Long id, Entry entry) {
+        entriesById.compute(id, (key, current) -> {
+            if (building) {
+                changedDuringBuild.add(id);
+            }
+            return replaceKeys(id, current, entry);
+        });
+    }
+
+    /**
+     * Замена ключей ГОСТа, вызывается только внутри {@code entriesById.compute} по его id
+     *
+     * @param id       id ГОСТа
+     * @param previous текущее состояние ГОСТа в индексе или {@code null}
+     * @param next     новое состояние ГОСТа или {@code null}
+     * @return новое состояние ГОСТа для {@code entriesById}
+     */
+    private Entry replaceKeys(long id, Entry previous, Entry next) {
+        if (previous != null) {
+            for (String text : keyTexts(previous)) {
+                keys.remove(new Key(text, id));
+            }
+        }
+        if (next != null) {
+            for (String text : keyTexts(next)) {
+                keys.put(new Key(text, id), next);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * @param entry ГОСТ в индексе
+     * @return нормализованные обозначение, номер обозначения и полное название без пустых значений и повторов
+     */
+    private Set<String> keyTexts(Entry entry) {
+        Set<String> texts = new LinkedHashSet<>();
+        if (entry.designation() != null) {
+            String designation = normalize(entry.designation());
+            texts.add(designation);
+            for (int i = 0; i < designation.length(); i++) {
+                if (Character.isDigit(designation.charAt(i))) {
+                    texts.add(designation.substring(i));
+                    break;
+                }
+            }
+        }
+        if (entry.fullName() != null) {
+            texts.add(normalize(entry.fullName()));
+        }
+        texts.remove("");
+        return texts;
+    }
+
+    /**
+     * Ключ индекса: нормализованный текст и id ГОСТа, чтобы одинаковые тексты разных ГОСТов не перезаписывали
+     * друг друга
+     *
+     * @param text нормализованный текст
+     * @param id   id ГОСТа
+     */
+    private record Key(String text, long id) {
+    }
+
+    /**
+     * ГОСТ в индексе, один объект на все его ключи
+     *
+     * @param id          id ГОСТа
+     * @param designation обозначение ГОСТа
+     * @param fullName    полное название ГОСТа
+     */
+    private record Entry(long id, String designation, String fullName) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.OksNodeDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.OksTreeDtoResponse;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.example.gostsNaumen.repository.OksCodeCountView;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Префиксное дерево кодов ОКС каталога с количеством ГОСТов в каждом поддереве.
+ * <p>Код ОКС вида "13.340.10" раскладывается по сегментам через точку: "13" → "13.340" → "13.340.10".
+ * Дерево строится одним агрегирующим запросом при первом обращении. После изменения ГОСТов
+ * количество пересчитывается только для затронутых кодов, см. {@link #refresh(Collection)}.</p>
+ * <p>Чтение выполняется под блокировкой на чтение, построение – под блокировкой на запись вместе с запросом к БД.
+ * Пересчёт читает количество в собственной транзакции без блокировки и берёт блокировку на запись только для
+ * применения результата. Каждый пересчёт и построение получают номер до запроса к БД, и для кода применяется
+ * результат только с большим номером, чем уже применённый, поэтому более старый результат не может перезаписать
+ * более новый.</p>
+ */
+@Component
+public class OksClassifierIndex {
+    private static final Pattern CODE_PATTERN = Pattern.compile("\\d+(\\.\\d+)*");
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate recountTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node(null);
+    private final Map<String, Long> countByCode = new HashMap<>();
+    /**
+     * Номер последнего применённого пересчёта по коду, изменяется под блокировкой на запись
+     */
+    private final Map<String, Long> ticketByCode = new HashMap<>();
+    private final AtomicLong tickets = new AtomicLong();
+    /**
+     * Номер последнего построения дерева, {@code 0}, пока построение не начиналось
+     */
+    private volatile long loadTicket;
+    private volatile boolean loaded;
+
+    public OksClassifierIndex(DocumentRepository documentRepository, PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.recountTransaction = new TransactionTemplate(transactionManager);
+        this.recountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recountTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Получение узла классификатора с дочерними узлами
+     *
+     * @param code код узла, {@code null} для корня классификатора
+     * @throws IllegalArgumentException если код не состоит из чисел, разделённых точками
+     * @return узел, если в его поддереве есть хотя бы один ГОСТ
+     */
+    public Optional<OksTreeDtoResponse> getNode(String code) {
+        if (code != null) {
+            checkCode(code);
+        }
+        ensureLoaded();
+
+        lock.readLock().lock();
+        try {
+            Node node = code == null ? root : find(code);
+            if (node == null || node.subtreeCount == 0) {
+                return Optional.empty();
+            }
+
+            List<OksNodeDtoResponse> children = new ArrayList<>(node.children.size());
+            for (Node child : node.children.values()) {
+                children.add(new OksNodeDtoResponse(child.code, child.subtreeCount, !child.children.isEmpty()));
+            }
+
+            return Optional.of(new OksTreeDtoResponse(node.code, node.subtreeCount, children));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Пересчёт количества ГОСТов для переданных кодов.
+     * <p>Если вызов происходит внутри транзакции, пересчёт выполняется только после её фиксации,
+     * чтобы учесть зафиксированное состояние; после отката пересчёт не нужен. Пока построение дерева
+     * не начиналось, вызов ничего не делает.</p>
+     *
+     * @param codes коды ОКС добавленных, изменённых или удалённых ГОСТов
+     */
+    public void refresh(Collection<String> codes) {
+        Set<String> affectedCodes = new HashSet<>(codes);
+        affectedCodes.remove(null);
+        if (affectedCodes.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recount(affectedCodes);
+                }
+            });
+        } else {
+            recount(affectedCodes);
+        }
+    }
+
+    /**
+     * Проверка формата кода узла классификатора
+     *
+     * @param code код узла, например "13.340"
+     * @throws IllegalArgumentException если код не состоит из чисел, разделённых точками
+     */
+    static void checkCode(String code) {
+        if (code == null || !CODE_PATTERN.matcher(code).matches()) {
+            throw new IllegalArgumentException("Некорректный код ОКС: " + code);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                loadTicket = tickets.incrementAndGet();
+                for (OksCodeCountView view : documentRepository.countByCodeOks()) {
+                    setCount(view.getCode(), view.getCount());
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Пересчёт выполняется после фиксации изменений. Если построение дерева ещё не начиналось, оно прочитает
+     * эти изменения само. Иначе количество читается в новой транзакции: транзакция, после фиксации которой вызван
+     * пересчёт, уже завершена, и её соединение нельзя использовать для запросов. Пересчёт, пришедший во время
+     * построения, дожидается его окончания на блокировке и применяется поверх, если начат после построения.
+     */
+    private void recount(Set<String> codes) {
+        long ticket = tickets.incrementAndGet();
+        if (loadTicket == 0) {
+            return;
+        }
+
+        Map<String, Long> counts = recountTransaction.execute(status -> {
+            Map<String, Long> result = new HashMap<>();
+            for (OksCodeCountView view : documentRepository.countByCodeOksIn(codes)) {
+                result.put(view.getCode(), view.getCount());
+            }
+            return result;
+        });
+
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+
+            for (String code : codes) {
+                if (ticket > Math.max(loadTicket, ticketByCode.getOrDefault(code, 0L))) {
+                    ticketByCode.put(code, ticket);
+                    setCount(code, counts.getOrDefault(code, 0L));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Устанавливает количество ГОСТов с кодом и корректирует счётчики всех узлов на пути к нему.
+     * Узлы, в поддереве которых не осталось ГОСТов, удаляются. Вызывается под блокировкой на запись.
+     *
+     * @param code  код ОКС
+     * @param count новое количество ГОСТов с этим кодом
+     */
+    private void setCount(String code, long count) {
+        if (code == null || code.isBlank()) {
+            return;
+        }
+
+        long delta = count - countByCode.getOrDefault(code, 0L);
+        if (delta == 0) {
+            return;
+        }
+        if (count == 0) {
+            countByCode.remove(code);
+        } else {
+            countByCode.put(code, count);
+        }
+
+        root.subtreeCount += delta;
+        Node parent = root;
+        StringBuilder path = new StringBuilder();
+        for (String segment : code.strip().split("\\.")) {
+            if (!path.isEmpty()) {
+                path.append('.');
+            }
+            path.append(segment);
+
+            String nodeCode = path.toString();
+            Node node = parent.children.computeIfAbsent(nodeCode, Node::new);
+            node.subtreeCount += delta;
+            if (node.subtreeCount == 0) {
+                parent.children.remove(nodeCode);
+                return;
+            }
+            parent = node;
+        }
+    }
+
+    private Node find(String code) {
+        Node node = root;
+        StringBuilder path = new StringBuilder();
+        for (String segment : code.split("\\.")) {
+            if (!path.isEmpty()) {
+                path.append('.');
+            }
+            path.append(segment);
+
+            node = node.children.get(path.toString());
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Узел дерева: код, количество ГОСТов в поддереве и дочерние узлы по возрастанию кода
+     */
+    private static final class Node {
+        private final String code;
+        private final Map<String, Node> children = new TreeMap<>();
+        private long subtreeCount;
+
+        private Node(String code) {
+            this.code = code;
+        }
+    }
+}
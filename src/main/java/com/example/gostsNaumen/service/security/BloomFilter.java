@@ -0,0 +1,86 @@
+package com.example.gostsNaumen.service.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасный фильтр Блума над 64-битными хешами ключей.
+ * <p>Отрицательный ответ {@link #mightContain(long)} точный, положительный может быть ложным с вероятностью,
+ * заданной при создании, пока число добавленных ключей не превышает ожидаемое. Проверка не выделяет память
+ * и не берёт блокировок, поэтому подходит для фильтра, через который проходит каждый запрос.</p>
+ */
+final class BloomFilter {
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions ожидаемое число ключей
+     * @param falsePositiveRate  допустимая доля ложных срабатываний при ожидаемом числе ключей
+     * @throws IllegalArgumentException если число ключей не положительное или доля не в интервале (0, 1)
+     */
+    BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Некорректные параметры фильтра Блума");
+        }
+
+        double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE / Long.SIZE, Math.max(1, (long) Math.ceil(optimalBits / Long.SIZE)));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * Long.SIZE;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Хеш ключа с хорошим перемешиванием бит (финализатор MurmurHash3)
+     *
+     * @param key ключ
+     * @return 64-битный хеш для {@link #put(long)} и {@link #mightContain(long)}
+     */
+    static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    /**
+     * Добавление ключа
+     *
+     * @param hash хеш ключа, см. {@link #hash(long)}
+     */
+    void put(long hash) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(first + i * second);
+            words.accumulateAndGet(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    /**
+     * Проверка ключа
+     *
+     * @param hash хеш ключа, см. {@link #hash(long)}
+     * @return {@code false}, если ключ точно не добавлялся, {@code true}, если ключ, возможно, добавлен
+     */
+    boolean mightContain(long hash) {
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = index(first + i * second);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % bitCount;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.gostsNaumen.service.security;
+
+import com.example.gostsNaumen.exception.CustomServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Хеширование и проверка паролей в отдельном пуле потоков.
+ * <p>BCrypt намеренно дорогой по CPU, поэтому выполняется не в потоках Tomcat, а в пуле из
+ * {@code app.security.passwordHashing.threads} потоков с очередью на {@code app.security.passwordHashing.queueCapacity}
+ * задач. Всплеск входов занимает только этот пул и не отнимает процессор и потоки у чтения каталога.
+ * Если очередь заполнена, задача не ставится в очередь, а завершается {@link CustomServiceUnavailableException}.</p>
+ * <p>Размер очереди, количество активных и выполненных задач публикуются в Micrometer как метрики
+ * {@code executor.*} с тегом {@code name=}{@value #EXECUTOR_NAME}, отклонённые задачи –
+ * счётчиком {@value #REJECTED_METRIC}.</p>
+ */
+@Service
+public class PasswordHashingService {
+    /**
+     * Имя пула в метриках
+     */
+    public static final String EXECUTOR_NAME = "passwordHashing";
+    /**
+     * Имя счётчика отклонённых задач
+     */
+    public static final String REJECTED_METRIC = "password.hashing.rejected";
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.passwordHashing.threads:0}") Integer threads,
+            @Value("${app.security.passwordHashing.queueCapacity:64}") Integer queueCapacity
+    ) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.rejectedCounter = Counter.builder(REJECTED_METRIC)
+                .description("Задачи хеширования паролей, отклонённые из-за заполненной очереди")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Хеширование пароля в пуле.
+     *
+     * @param rawPassword пароль в открытом виде
+     * @return хеш пароля; при заполненной очереди – {@link CustomServiceUnavailableException}
+     */
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Сверка пароля с хешем в пуле.
+     *
+     * @param rawPassword  пароль в открытом виде
+     * @param passwordHash хеш пароля из БД
+     * @return совпадает ли пароль; при заполненной очереди – {@link CustomServiceUnavailableException}
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String passwordHash) {
+        return submit(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Хеширование пароля в пуле, только если в очереди нет ожидающих задач.
+     * <p>Для фоновой работы, которую можно отложить, например пересчёта устаревшего хеша:
+     * при нагрузке она не должна занимать место в очереди, нужное входам и регистрациям.</p>
+     *
+     * @param rawPassword пароль в открытом виде
+     * @return хеш пароля или пустой {@link Optional}, если пул занят
+     */
+    public Optional<CompletableFuture<String>> encodeIfIdle(CharSequence rawPassword) {
+        if (!executor.getQueue().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor));
+        } catch (RejectedExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Проверка, что хеш посчитан с устаревшими параметрами и его стоит пересчитать
+     *
+     * @param passwordHash хеш пароля из БД
+     * @return {@code true}, если текущий кодировщик посчитал бы хеш с большей стоимостью
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    /**
+     * Хеширование пароля в пуле с ожиданием результата в вызывающем потоке.
+     * <p>Для вызовов, которые не могут завершиться асинхронно, например внутри транзакции.
+     * Вызывающий поток ждёт, но процессор занимает только пул.</p>
+     *
+     * @param rawPassword пароль в открытом виде
+     * @return хеш пароля
+     * @throws CustomServiceUnavailableException очередь пула заполнена
+     */
+    public String encodeAndWait(CharSequence rawPassword) {
+        try {
+            return encode(rawPassword).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new CustomServiceUnavailableException(
+                    "Сервис авторизации перегружен, повторите запрос позже", RETRY_AFTER));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.gostsNaumen.service.security;
 
 import com.example.gostsNaumen.exception.InvalidTokenException;
 import com.example.gostsNaumen.security.dto.CustomUserDetails;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -32,4 +33,21 @@ public class SecurityContextService {
             throw new InvalidTokenException("Неверный токен");
         }
     }
+
+    /**
+     * Получает проверенные данные токена, с которым пришёл запрос, иначе выбрасывает ошибку
+     *
+     * @return данные токена текущего запроса
+     */
+    public TokenClaimsDto getLoggedInTokenClaims() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null
+                && authentication.isAuthenticated()
+                && authentication.getDetails() instanceof TokenClaimsDto claims) {
+            return claims;
+        }
+
+        throw new InvalidTokenException("Неверный токен");
+    }
 }
\ No newline at end of file
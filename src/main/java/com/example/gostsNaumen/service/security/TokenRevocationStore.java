@@ -0,0 +1,332 @@
+package com.example.gostsNaumen.service.security;
+
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.jwe.TokenType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище отозванных токенов.
+ * <p>Отзываются отдельные токены по айди (jti) и все сессии пользователя разом: во втором случае отозванными
+ * считаются токены пользователя, выпущенные не позже момента отзыва. Время выпуска и момент отзыва сравниваются
+ * с точностью до миллисекунды, поэтому токен, выпущенный в ту же секунду до отзыва, в том числе при обмене токена
+ * обновления, тоже отклоняется. Вход в ту же миллисекунду, что и отзыв, отклоняется, и клиент входит повторно.
+ * Токены, выпущенные до добавления миллисекунд в токен, сравниваются по секунде выпуска: они отклоняются,
+ * если выпущены в секунду отзыва или раньше.</p>
+ * <p>Проверка основного токена в {@link #isRevoked(TokenClaimsDto)} сначала обращается к паре фильтров Блума.
+ * Почти все токены не отозваны, и для них ответ даёт фильтр без обращения к точным наборам и к БД. Положительный
+ * ответ фильтра подтверждается по точным наборам, ложные срабатывания считаются в метрике
+ * {@value #FALSE_POSITIVE_METRIC}. Новые ключи добавляются в текущий фильтр; раз в время жизни основного токена
+ * текущий фильтр становится предыдущим, а предыдущий выбрасывается вместе с ключами истёкших токенов.</p>
+ * <p>В фильтры и точные наборы попадают только основные токены и пользователи. Отозванные токены обновления
+ * хранятся только в БД: при каждом обмене токен обновления отзывается, и такие ключи быстро заполнили бы фильтр,
+ * хотя {@link com.example.gostsNaumen.security.jwe.JweFilter} отклоняет токены обновления по типу. Повторное
+ * использование токена обновления отклоняет вставка в {@code revoked_token} в {@link #revoke(TokenClaimsDto)},
+ * а отзыв всех сессий для него проверяется сразу по точному набору пользователей.</p>
+ * <p>Точные айди отозванных основных токенов хранятся в наборах, сгруппированных по часу истечения токена.
+ * Наборы, все токены которых уже истекли, удаляются целиком: такие токены не пройдут проверку срока действия.</p>
+ * <p>Каждый отзыв записывается в таблицы {@code revoked_token} и {@code revoked_user_session}. Вставка по
+ * первичному ключу атомарна, поэтому один и тот же токен отзывается успешно только один раз, в том числе
+ * на разных экземплярах приложения. При старте и затем раз в {@code app.security.revocation.syncSeconds} секунд
+ * в память дочитываются отзывы, сделанные другими экземплярами, а истёкшие записи удаляются из таблиц.</p>
+ */
+@Component
+public class TokenRevocationStore {
+    /**
+     * Имя метрики количества отозванных токенов в памяти
+     */
+    public static final String REVOKED_METRIC = "auth.tokens.revoked";
+    /**
+     * Имя метрики ложных срабатываний фильтра Блума
+     */
+    public static final String FALSE_POSITIVE_METRIC = "auth.tokens.revocation.bloom.false-positives";
+    /**
+     * Размер интервала времени истечения, токены которого хранятся в одном наборе
+     */
+    static final Duration BUCKET = Duration.ofHours(1);
+    /**
+     * Запас при дочитывании отзывов: транзакция, начатая раньше, может зафиксироваться позже уже прочитанных
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    /**
+     * Смещение ключей пользователей в фильтре Блума, чтобы они не совпадали с ключами токенов
+     */
+    private static final long USER_KEY_SALT = 0x9e3779b97f4a7c15L;
+    private static final String INSERT_TOKEN_SQL = """
+            insert into revoked_token (jti, expires_at, token_type)
+            values (?, ?, ?)
+            on conflict (jti) do nothing
+            """;
+    private static final String UPSERT_USER_SQL = """
+            insert into revoked_user_session (user_id, revoked_before)
+            values (?, ?)
+            on conflict (user_id) do update
+            set revoked_before = greatest(revoked_user_session.revoked_before, excluded.revoked_before),
+                revoked_at     = now()
+            """;
+    private final ConcurrentSkipListMap<Long, Set<String>> tokenIdsByExpiryBucket = new ConcurrentSkipListMap<>();
+    private final Map<Long, Instant> revokedBeforeByUserId = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter falsePositives;
+    private final Duration accessTokenLifetime;
+    private final Duration maxTokenLifetime;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Clock clock;
+    private volatile BloomFilters bloomFilters;
+    private volatile Instant syncedUpTo = Instant.EPOCH;
+
+    @Autowired
+    public TokenRevocationStore(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.expireMinutes}") Integer expireMinutes,
+            @Value("${app.refreshExpireMinutes:43200}") Integer refreshExpireMinutes,
+            @Value("${app.security.revocation.bloom.expectedInsertions:100000}") Long expectedInsertions,
+            @Value("${app.security.revocation.bloom.falsePositiveRate:0.01}") Double falsePositiveRate
+    ) {
+        this(
+                jdbcTemplate,
+                meterRegistry,
+                Duration.ofMinutes(expireMinutes),
+                Duration.ofMinutes(Math.max(expireMinutes, refreshExpireMinutes)),
+                expectedInsertions,
+                falsePositiveRate,
+                Clock.systemUTC()
+        );
+    }
+
+    TokenRevocationStore(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            Duration accessTokenLifetime,
+            Duration maxTokenLifetime,
+            long expectedInsertions,
+            double falsePositiveRate,
+            Clock clock
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accessTokenLifetime = accessTokenLifetime;
+        this.maxTokenLifetime = maxTokenLifetime;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.bloomFilters = new BloomFilters(newBloomFilter(), newBloomFilter(), clock.instant());
+        this.falsePositives = Counter.builder(FALSE_POSITIVE_METRIC)
+                .description("Срабатывания фильтра Блума, не подтверждённые точным набором")
+                .register(meterRegistry);
+        Gauge.builder(REVOKED_METRIC, this, TokenRevocationStore::size)
+                .description("Отозванные и ещё не истёкшие основные токены в памяти")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверка, отозван ли токен, без обращения к БД
+     *
+     * @param claims проверенные данные токена
+     * @return {@code true}, если отозван сам основной токен или все сессии его пользователя; токены без айди
+     * отозвать по отдельности нельзя, отзыв отдельного токена обновления проверяет {@link #revoke(TokenClaimsDto)}
+     */
+    public boolean isRevoked(TokenClaimsDto claims) {
+        Long userId = claims.userId();
+        if (claims.type() == TokenType.REFRESH) {
+            return userId != null && isSessionRevoked(userId, claims.issuedAt());
+        }
+
+        BloomFilters filters = bloomFilters;
+
+        String tokenId = claims.tokenId();
+        if (tokenId != null && filters.mightContain(tokenKey(tokenId)) && isTokenRevoked(tokenId, claims.expiration())) {
+            return true;
+        }
+
+        return userId != null && filters.mightContain(userKey(userId)) && isSessionRevoked(userId, claims.issuedAt());
+    }
+
+    /**
+     * Отзыв токена. Основной токен запоминается в памяти для {@link #isRevoked(TokenClaimsDto)}, токен обновления
+     * записывается только в БД.
+     *
+     * @param claims проверенные данные токена; токены без типа считаются основными
+     * @return {@code true}, если токен отозван этим вызовом, {@code false}, если он уже был отозван
+     * @throws IllegalArgumentException если у токена нет айди или времени истечения
+     */
+    public boolean revoke(TokenClaimsDto claims) {
+        String tokenId = claims.tokenId();
+        Instant expiresAt = claims.expiration();
+        if (tokenId == null || expiresAt == null) {
+            throw new IllegalArgumentException("Нельзя отозвать токен без айди или времени истечения");
+        }
+
+        TokenType type = claims.type() == null ? TokenType.ACCESS : claims.type();
+        int inserted = jdbcTemplate.update(INSERT_TOKEN_SQL, tokenId, Timestamp.from(expiresAt), type.name());
+        if (type == TokenType.ACCESS) {
+            rememberToken(tokenId, expiresAt);
+        }
+
+        return inserted == 1;
+    }
+
+    /**
+     * Отзыв всех сессий пользователя: все его токены, выпущенные до текущей миллисекунды включительно,
+     * перестают приниматься.
+     *
+     * @param userId айди пользователя
+     * @throws IllegalArgumentException если айди не указан
+     */
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("Нельзя отозвать сессии пользователя без айди");
+        }
+
+        Instant revokedBefore = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+        jdbcTemplate.update(UPSERT_USER_SQL, userId, Timestamp.from(revokedBefore));
+        rememberUser(userId, revokedBefore);
+    }
+
+    /**
+     * Дочитывание отзывов, сделанных другими экземплярами приложения, удаление истёкших записей
+     * и смена поколения фильтров Блума
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${app.security.revocation.syncSeconds:30}",
+            fixedDelayString = "${app.security.revocation.syncSeconds:30}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void sync() {
+        Instant now = clock.instant();
+        Instant sessionsExpireBefore = now.minus(maxTokenLifetime);
+        Timestamp since = Timestamp.from(syncedUpTo.minus(SYNC_OVERLAP));
+
+        BloomFilters filters = bloomFilters;
+        if (!now.isBefore(filters.currentSince().plus(accessTokenLifetime))) {
+            bloomFilters = new BloomFilters(newBloomFilter(), filters.current(), now);
+        }
+
+        jdbcTemplate.query(
+                """
+                        select jti, expires_at, revoked_at from revoked_token
+                        where revoked_at >= ? and expires_at > ? and token_type = 'ACCESS'
+                        """,
+                resultSet -> {
+                    rememberToken(resultSet.getString("jti"), resultSet.getTimestamp("expires_at").toInstant());
+                    advanceSyncedUpTo(resultSet.getTimestamp("revoked_at").toInstant());
+                },
+                since,
+                Timestamp.from(now)
+        );
+        jdbcTemplate.query(
+                "select user_id, revoked_before, revoked_at from revoked_user_session where revoked_at >= ? and revoked_before > ?",
+                resultSet -> {
+                    rememberUser(resultSet.getLong("user_id"), resultSet.getTimestamp("revoked_before").toInstant());
+                    advanceSyncedUpTo(resultSet.getTimestamp("revoked_at").toInstant());
+                },
+                since,
+                Timestamp.from(sessionsExpireBefore)
+        );
+
+        tokenIdsByExpiryBucket.headMap(bucketOf(now)).clear();
+        revokedBeforeByUserId.values().removeIf(revokedBefore -> revokedBefore.isBefore(sessionsExpireBefore));
+        jdbcTemplate.update("delete from revoked_token where expires_at < ?", Timestamp.from(now));
+        jdbcTemplate.update("delete from revoked_user_session where revoked_before < ?", Timestamp.from(sessionsExpireBefore));
+    }
+
+    private boolean isTokenRevoked(String tokenId, Instant expiresAt) {
+        Set<String> bucket = expiresAt == null ? null : tokenIdsByExpiryBucket.get(bucketOf(expiresAt));
+        if (bucket != null && bucket.contains(tokenId)) {
+            return true;
+        }
+
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Токен, выпущенный в момент отзыва, и токен без времени выпуска считаются выпущенными до отзыва сессий
+     */
+    private boolean isSessionRevoked(Long userId, Instant issuedAt) {
+        Instant revokedBefore = revokedBeforeByUserId.get(userId);
+        if (revokedBefore != null) {
+            return issuedAt == null || !issuedAt.isAfter(revokedBefore);
+        }
+
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Точный набор обновляется до фильтра Блума: увидевший ключ в фильтре увидит его и в наборе
+     */
+    private void rememberToken(String tokenId, Instant expiresAt) {
+        tokenIdsByExpiryBucket
+                .computeIfAbsent(bucketOf(expiresAt), ignored -> ConcurrentHashMap.newKeySet())
+                .add(tokenId);
+        bloomFilters.current().put(tokenKey(tokenId));
+    }
+
+    private void rememberUser(Long userId, Instant revokedBefore) {
+        revokedBeforeByUserId.merge(userId, revokedBefore, (existing, added) -> existing.isAfter(added) ? existing : added);
+        bloomFilters.current().put(userKey(userId));
+    }
+
+    private void advanceSyncedUpTo(Instant revokedAt) {
+        if (revokedAt.isAfter(syncedUpTo)) {
+            syncedUpTo = revokedAt;
+        }
+    }
+
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    private long size() {
+        return tokenIdsByExpiryBucket.values().stream().mapToLong(Set::size).sum();
+    }
+
+    private static long tokenKey(String tokenId) {
+        return BloomFilter.hash(tokenId.hashCode());
+    }
+
+    private static long userKey(Long userId) {
+        return BloomFilter.hash(userId + USER_KEY_SALT);
+    }
+
+    private static long bucketOf(Instant expiresAt) {
+        return expiresAt.getEpochSecond() / BUCKET.toSeconds();
+    }
+
+    /**
+     * Текущее и предыдущее поколения фильтра Блума. Поколение живёт не меньше времени жизни основного токена,
+     * поэтому ключ остаётся в одном из фильтров, пока отозванный основной токен или основной токен, выпущенный
+     * до отзыва всех сессий, может пройти проверку срока действия.
+     *
+     * @param current      фильтр, в который добавляются новые ключи
+     * @param previous     фильтр предыдущего поколения
+     * @param currentSince время создания текущего фильтра
+     */
+    private record BloomFilters(BloomFilter current, BloomFilter previous, Instant currentSince) {
+        boolean mightContain(long hash) {
+            return current.mightContain(hash) || previous.mightContain(hash);
+        }
+    }
+}
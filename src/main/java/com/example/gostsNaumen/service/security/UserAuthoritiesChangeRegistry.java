@@ -0,0 +1,94 @@
+package com.example.gostsNaumen.service.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранит время последнего изменения роли, почты или удаления пользователя.
+ * <p>Используется для принудительной загрузки пользователя из БД вместо данных из токена:
+ * токены, выпущенные до изменения, больше не считаются источником актуальных ролей.</p>
+ * <p>Записи старше {@code app.security.claimsMaxAgeMinutes} удаляются: такие токены и так проверяются по БД.
+ * Реестр хранится в памяти экземпляра приложения, на остальных экземплярах изменение будет учтено
+ * не позже, чем через то же время.</p>
+ */
+@Component
+public class UserAuthoritiesChangeRegistry {
+    private final Map<Long, Instant> changedAtByUserId = new ConcurrentHashMap<>();
+    private final Duration claimsMaxAge;
+    private final Clock clock;
+
+    @Autowired
+    public UserAuthoritiesChangeRegistry(
+            @Value("${app.security.claimsMaxAgeMinutes:15}") Integer claimsMaxAgeMinutes
+    ) {
+        this(Duration.ofMinutes(claimsMaxAgeMinutes), Clock.systemUTC());
+    }
+
+    UserAuthoritiesChangeRegistry(Duration claimsMaxAge, Clock clock) {
+        this.claimsMaxAge = claimsMaxAge;
+        this.clock = clock;
+    }
+
+    /**
+     * Отмечает изменение данных пользователя.
+     * <p>Если вызов происходит внутри транзакции, отметка обновляется и после её завершения,
+     * чтобы токены, выпущенные до фиксации изменений, тоже считались устаревшими.</p>
+     *
+     * @param userId айди пользователя
+     */
+    public void markChanged(Long userId) {
+        if (userId == null) {
+            return;
+        }
+
+        changedAtByUserId.put(userId, clock.instant());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    changedAtByUserId.put(userId, clock.instant());
+                }
+            });
+        }
+    }
+
+    /**
+     * Проверяет, можно ли доверять ролям из токена.
+     *
+     * @param userId   айди пользователя из токена
+     * @param issuedAt время выпуска токена
+     * @return {@code true}, если токен выпущен не раньше, чем {@code claimsMaxAgeMinutes} назад,
+     * и после выпуска данные пользователя не менялись
+     */
+    public boolean isTrusted(Long userId, Instant issuedAt) {
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+
+        Instant now = clock.instant();
+        if (issuedAt.isBefore(now.minus(claimsMaxAge))) {
+            return false;
+        }
+
+        Instant changedAt = changedAtByUserId.get(userId);
+        if (changedAt == null) {
+            return true;
+        }
+        if (changedAt.isBefore(now.minus(claimsMaxAge))) {
+            changedAtByUserId.remove(userId, changedAt);
+            return true;
+        }
+
+        return issuedAt.isAfter(changedAt);
+    }
+}
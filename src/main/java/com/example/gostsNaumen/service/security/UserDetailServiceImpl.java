@@ -3,26 +3,130 @@ package com.example.gostsNaumen.service.security;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.repository.UserRepository;
 import com.example.gostsNaumen.security.dto.CustomUserDetails;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 /**
  * Реализация интерфейса {@link UserDetailsService} Spring Security.
  * Загружает данные пользователя {@link CustomUserDetails} по его email.
+ * <p>Загруженные пользователи кэшируются на {@code app.security.principalCache.expireSeconds} секунд.
+ * Параллельные запросы одного пользователя при промахе кэша ждут одну загрузку из БД.
+ * Статистика кэша публикуется в Micrometer под именем {@value #CACHE_NAME}.</p>
  */
 @Service
 public class UserDetailServiceImpl implements UserDetailsService {
+    /**
+     * Имя кэша в метриках
+     */
+    public static final String CACHE_NAME = "principals";
     private final UserRepository userRepository;
+    private final UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry;
+    private final Cache<String, CustomUserDetails> principalCache;
 
-    public UserDetailServiceImpl(UserRepository userRepository) {
+    public UserDetailServiceImpl(
+            UserRepository userRepository,
+            UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.principalCache.maximumSize:10000}") Long maximumSize,
+            @Value("${app.security.principalCache.expireSeconds:30}") Integer expireSeconds
+    ) {
         this.userRepository = userRepository;
+        this.userAuthoritiesChangeRegistry = userAuthoritiesChangeRegistry;
+        this.principalCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, CACHE_NAME);
     }
 
+    /**
+     * Загружает пользователя по почте через кэш.
+     * Отсутствие пользователя не кэшируется.
+     *
+     * @param email почта пользователя
+     * @return данные пользователя
+     * @throws EntityNotFoundException если пользователя с такой почтой нет
+     */
     @Override
     public CustomUserDetails loadUserByUsername(String email) throws EntityNotFoundException {
+        return principalCache.get(email, this::loadFromDatabase);
+    }
+
+    /**
+     * Удаляет пользователя из кэша.
+     * <p>Если вызов происходит внутри транзакции, запись удаляется и сразу, и после завершения транзакции,
+     * чтобы в кэш не вернулось состояние, прочитанное до фиксации изменений.</p>
+     *
+     * @param email почта пользователя
+     */
+    public void evictUser(String email) {
+        if (email == null) {
+            return;
+        }
+
+        principalCache.invalidate(email);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    principalCache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Получает данные пользователя из проверенного токена.
+     * <p>Если токен содержит айди и роль пользователя, не старше допустимого возраста и выпущен после
+     * последнего изменения пользователя, данные собираются из токена без обращения к БД.
+     * Иначе пользователь загружается из БД по почте.</p>
+     *
+     * @param claims проверенные данные токена
+     * @return данные аутентифицированного пользователя
+     * @throws EntityNotFoundException если пользователь загружается из БД и не существует
+     * @see UserAuthoritiesChangeRegistry
+     */
+    public CustomUserDetails loadUserByClaims(TokenClaimsDto claims) throws EntityNotFoundException {
+        if (claims.role() == null || !userAuthoritiesChangeRegistry.isTrusted(claims.userId(), claims.issuedAt())) {
+            return loadUserByUsername(claims.subject());
+        }
+
+        User user = new User(claims.userId(), null, null, null, claims.subject(), claims.role());
+        return new CustomUserDetails(user, claims.role().getAuthorities());
+    }
+
+    /**
+     * Загружает пользователя из БД. В кэш кладётся копия сущности,
+     * не связанная с контекстом персистентности загрузившего её запроса.
+     *
+     * @param email почта пользователя
+     * @return данные пользователя
+     * @throws EntityNotFoundException если пользователя с такой почтой нет
+     */
+    private CustomUserDetails loadFromDatabase(String email) throws EntityNotFoundException {
         User user = userRepository.findUserByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User does not exists"));
-        return new CustomUserDetails(user, user.getRoles().getAuthorities());
+        User detachedUser = new User(
+                user.getId(),
+                user.getUsername(),
+                user.getFullName(),
+                user.getPasswordHash(),
+                user.getEmail(),
+                user.getRoles()
+        );
+        return new CustomUserDetails(detachedUser, detachedUser.getRoles().getAuthorities());
     }
-}
\ No newline at end of file
+}
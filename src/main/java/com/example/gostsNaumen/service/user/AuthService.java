@@ -3,80 +3,181 @@ package com.example.gostsNaumen.service.user;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.security.dto.JwtAuthDto;
 import com.example.gostsNaumen.security.dto.RefreshTokenDto;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
 import com.example.gostsNaumen.security.dto.UserCredentialsDto;
 import com.example.gostsNaumen.security.jwe.JweService;
+import com.example.gostsNaumen.security.jwe.TokenType;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
+import com.example.gostsNaumen.service.security.SecurityContextService;
+import com.example.gostsNaumen.service.security.TokenRevocationStore;
 import com.nimbusds.jose.JOSEException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import javax.naming.AuthenticationException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Реализует логику авторизации пользователей
  */
 @Service
 public class AuthService {
+    private final Logger log = LoggerFactory.getLogger(AuthService.class);
     private final JweService jweService;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final SecurityContextService securityContextService;
 
     public AuthService(
             JweService jweService,
             UserService userService,
-            PasswordEncoder passwordEncoder
+            PasswordHashingService passwordHashingService,
+            TokenRevocationStore tokenRevocationStore,
+            SecurityContextService securityContextService
     ) {
         this.jweService = jweService;
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.securityContextService = securityContextService;
     }
     /**
      * Вход в систему.
-     * Сверка данных из БД, с введенными данными проходит в методе
-     * {@link #checkUserCredentials(UserCredentialsDto userCredentialsDto)}
+     * Пользователь читается из БД в вызывающем потоке, а сверка пароля выполняется в пуле
+     * {@link PasswordHashingService}, после чего в том же пуле выпускаются токены.
+     * Если хеш пароля посчитан с устаревшей стоимостью, он пересчитывается в фоне, ответ этого не ждёт.
      *
      * @param userCredentialsDto данные введённые пользователями.
-     * @return дто с токенами и айди пользователя.
-     * @throws AuthenticationException какие-либо проблемы с аутентификацией.
-     * @throws JOSEException           общая ошибка работы с JWT, проблемы с подписями, шифрованием.
-     * @see #checkUserCredentials
+     * @return дто с токенами и айди пользователя. Завершается с {@link AuthenticationException},
+     * если пароль неверный, и с {@link JOSEException} при ошибке выпуска токенов.
+     * @see #issueTokens
      */
-    public JwtAuthDto signIn(UserCredentialsDto userCredentialsDto) throws AuthenticationException, JOSEException {
-        User user = checkUserCredentials(userCredentialsDto);
-        return jweService.generateAuthToken(user.getEmail(), user.getId());
+    public CompletableFuture<JwtAuthDto> signIn(UserCredentialsDto userCredentialsDto) {
+        User user = userService.getEntityByEmail(userCredentialsDto.email());
+
+        return passwordHashingService.matches(userCredentialsDto.password(), user.getPasswordHash())
+                .thenApply(passwordMatches -> {
+                    try {
+                        JwtAuthDto tokens = issueTokens(user, passwordMatches);
+                        rehashIfOutdated(user, userCredentialsDto.password());
+                        return tokens;
+                    } catch (AuthenticationException | JOSEException e) {
+                        throw new CompletionException(e);
+                    }
+                });
     }
 
     /**
-     * Обновление основного токена пользователя.
+     * Обновление токенов пользователя.
+     * <p>Принимается только токен типа {@link TokenType#REFRESH}. Токен обновления одноразовый: при обмене он
+     * отзывается, а пользователь получает новую пару токенов. Повторное использование того же токена,
+     * в том числе параллельным запросом, отклоняется. Токен, отозванный при выходе или вместе со всеми сессиями
+     * пользователя, тоже отклоняется.</p>
      *
      * @param refreshTokenDto токен обновления.
-     * @return дто с токенами и айди пользователя.
+     * @return дто с новыми токенами и айди пользователя.
      * @throws AuthenticationException какие-либо проблемы с аутентификацией.
      * @throws JOSEException           общая ошибка работы с JWT, проблемы с подписями, шифрованием.
      */
     public JwtAuthDto refreshToken(RefreshTokenDto refreshTokenDto) throws AuthenticationException, JOSEException {
-        String refreshedToken = refreshTokenDto.refreshToken();
+        String refreshToken = refreshTokenDto.refreshToken();
+
+        Optional<TokenClaimsDto> claims = refreshToken == null
+                ? Optional.empty()
+                : jweService.verifyToken(refreshToken).filter(verified -> verified.type() == TokenType.REFRESH);
 
-        if (refreshedToken != null && jweService.validateJweToken(refreshedToken)) {
-            User user = userService.getEntityByEmail(jweService.getEmailFromToken(refreshedToken));
-            return jweService.refreshBaseToken(user.getEmail(), refreshedToken, user.getId());
+        if (claims.isEmpty()) {
+            throw new AuthenticationException("Невалидный токен обновления.");
+        }
+        if (tokenRevocationStore.isRevoked(claims.get())) {
+            throw new AuthenticationException("Токен обновления отозван.");
         }
-        throw new AuthenticationException("Невалидный токен обновления.");
+        if (!tokenRevocationStore.revoke(claims.get())) {
+            throw new AuthenticationException("Токен обновления уже использован.");
+        }
+
+        User user = userService.getEntityByEmail(claims.get().subject());
+        return jweService.generateAuthToken(user.getEmail(), user.getId(), user.getRoles());
     }
 
     /**
-     * Сверка данных пользователя введенных при входе.
+     * Выход из системы.
+     * <p>Отзывается основной токен, с которым пришёл запрос, и, если передан, токен обновления того же пользователя.
+     * Основные токены, выпущенные до добавления айди в токен, отозвать нельзя, они действуют до истечения.</p>
      *
-     * @param userCredentialsDto данные пользователя.
-     * @return сущность пользователя из БД.
-     * @throws AuthenticationException ошибка сверки данных.
+     * @param refreshTokenDto токен обновления, может отсутствовать.
+     * @throws AuthenticationException если передан невалидный токен обновления или токен другого пользователя.
      */
-    private User checkUserCredentials(UserCredentialsDto userCredentialsDto) throws AuthenticationException {
-        User user = userService.getEntityByEmail(userCredentialsDto.email());
+    public void logout(RefreshTokenDto refreshTokenDto) throws AuthenticationException {
+        TokenClaimsDto accessClaims = securityContextService.getLoggedInTokenClaims();
+
+        Optional<TokenClaimsDto> refreshClaims = Optional.empty();
+        if (refreshTokenDto != null && refreshTokenDto.refreshToken() != null) {
+            refreshClaims = jweService.verifyToken(refreshTokenDto.refreshToken())
+                    .filter(verified -> verified.type() == TokenType.REFRESH)
+                    .filter(verified -> verified.subject().equals(accessClaims.subject()));
+
+            if (refreshClaims.isEmpty()) {
+                throw new AuthenticationException("Невалидный токен обновления.");
+            }
+        }
 
-        if (passwordEncoder.matches(userCredentialsDto.password(), user.getPasswordHash())) {
-            return user;
-        } else {
+        if (accessClaims.tokenId() != null) {
+            tokenRevocationStore.revoke(accessClaims);
+        }
+        refreshClaims.ifPresent(tokenRevocationStore::revoke);
+    }
+
+    /**
+     * Отзыв всех сессий пользователя: все выпущенные ему до этого момента токены перестают приниматься.
+     *
+     * @param userId айди пользователя.
+     */
+    public void revokeAllSessions(Long userId) {
+        User user = userService.getEntityById(userId);
+
+        tokenRevocationStore.revokeAllForUser(user.getId());
+        log.info("All sessions revoked for user {}", user.getId());
+    }
+
+    /**
+     * Выпуск токенов после сверки пароля пользователя, введённого при входе.
+     *
+     * @param user            сущность пользователя из БД.
+     * @param passwordMatches совпал ли введённый пароль с хешем из БД.
+     * @return дто с токенами и айди пользователя.
+     * @throws AuthenticationException ошибка сверки данных.
+     * @throws JOSEException           общая ошибка работы с JWT, проблемы с подписями, шифрованием.
+     */
+    private JwtAuthDto issueTokens(User user, boolean passwordMatches) throws AuthenticationException, JOSEException {
+        if (!passwordMatches) {
             throw new AuthenticationException("Почта или пароль неверные.");
         }
+        return jweService.generateAuthToken(user.getEmail(), user.getId(), user.getRoles());
+    }
+
+    /**
+     * Пересчёт хеша пароля с актуальной стоимостью после успешного входа.
+     * <p>Выполняется в фоне и только если пул хеширования свободен: при нагрузке пересчёт откладывается
+     * до следующего входа. Ошибки пересчёта не влияют на вход и только логируются.</p>
+     *
+     * @param user        пользователь, прошедший сверку пароля
+     * @param rawPassword пароль в открытом виде
+     */
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordHashingService.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+
+        passwordHashingService.encodeIfIdle(rawPassword).ifPresent(newHash -> newHash
+                .thenAccept(hash -> userService.upgradePasswordHash(user, hash))
+                .exceptionally(e -> {
+                    log.warn("Password rehash failed for user {}: {}", user.getId(), e.getMessage());
+                    return null;
+                }));
     }
 }
\ No newline at end of file
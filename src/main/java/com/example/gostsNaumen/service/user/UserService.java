@@ -5,10 +5,14 @@ import com.example.gostsNaumen.controller.dto.request.UpdateUserDtoRequest;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.repository.ConstraintViolations;
 import com.example.gostsNaumen.repository.UserRepository;
 import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
 import com.example.gostsNaumen.service.security.SecurityContextService;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.example.gostsNaumen.service.security.UserAuthoritiesChangeRegistry;
+import com.example.gostsNaumen.service.security.UserDetailServiceImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
@@ -20,38 +24,48 @@ import java.util.List;
 @Service
 public class UserService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final SecurityContextService securityContextService;
+    private final UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry;
+    private final UserDetailServiceImpl userDetailService;
 
     public UserService(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder,
-            SecurityContextService securityContextService
+            PasswordHashingService passwordHashingService,
+            SecurityContextService securityContextService,
+            UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry,
+            UserDetailServiceImpl userDetailService
     ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.securityContextService = securityContextService;
+        this.userAuthoritiesChangeRegistry = userAuthoritiesChangeRegistry;
+        this.userDetailService = userDetailService;
     }
 
     /**
      * Сохранить сущность пользователя в БД.
+     * Уникальность почты и никнейма проверяется ограничениями БД при вставке, без предварительного поиска.
      *
      * @param user сущность пригодная для сохранения.
      * @return сохранённая сущность в БД.
      * @throws CustomEntityExistsException если пользователь с переданной почтой или никнеймом уже существует
      */
     public User saveUser(User user) {
-        if (userRepository.findUserByEmail(user.getEmail()).isPresent()) {
-            throw new CustomEntityExistsException(
-                    String.format("Пользователь с почтой %s, уже существует", user.getEmail())
-            );
-        } else if (userRepository.findUserByUsername(user.getUsername()).isPresent()) {
-            throw new CustomEntityExistsException(
-                    String.format("Пользователь с ником %s, уже существует", user.getUsername())
-            );
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (ConstraintViolations.isViolated(e, ConstraintViolations.USER_EMAIL)) {
+                throw new CustomEntityExistsException(
+                        String.format("Пользователь с почтой %s, уже существует", user.getEmail())
+                );
+            } else if (ConstraintViolations.isViolated(e, ConstraintViolations.USER_USERNAME)) {
+                throw new CustomEntityExistsException(
+                        String.format("Пользователь с ником %s, уже существует", user.getUsername())
+                );
+            }
+            throw e;
         }
-
-        return userRepository.save(user);
     }
 
     /**
@@ -83,6 +97,9 @@ public class UserService {
     /**
      * Обновляет пользователя по введенным данным.
      * Производит проверку на наличие уже существующих записей по уникальным полям.
+     * Пользователь удаляется из кэша {@link UserDetailServiceImpl} по прежней почте.
+     * При смене почты или роли ранее выпущенные токены пользователя перестают быть источником его ролей,
+     * см. {@link UserAuthoritiesChangeRegistry}.
      *
      * @param id                   айди пользователя
      * @param updateUserDtoRequest дто с данными пользователя
@@ -91,6 +108,7 @@ public class UserService {
      */
     public User updateUserData(Long id, UpdateUserDtoRequest updateUserDtoRequest) {
         User user = getEntityById(id);
+        userDetailService.evictUser(user.getEmail());
 
         if (updateUserDtoRequest.userName() != null && !updateUserDtoRequest.userName().isEmpty()) {
             userRepository.findUserByUsername(updateUserDtoRequest.userName())
@@ -109,12 +127,14 @@ public class UserService {
                     });
 
             user.setEmail(updateUserDtoRequest.email());
+            userAuthoritiesChangeRegistry.markChanged(id);
         }
         if (updateUserDtoRequest.fullName() != null && !updateUserDtoRequest.fullName().isEmpty()) {
             user.setFullName(updateUserDtoRequest.fullName());
         }
         if (updateUserDtoRequest.role() != null && !updateUserDtoRequest.role().isEmpty()) {
             user.setRoles(UserRoles.valueOf(updateUserDtoRequest.role()));
+            userAuthoritiesChangeRegistry.markChanged(id);
         }
 
         return user;
@@ -131,11 +151,29 @@ public class UserService {
 
         User user = getEntityById(userId);
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword.newPassword()));
+        user.setPasswordHash(passwordHashingService.encodeAndWait(newPassword.newPassword()));
+        userDetailService.evictUser(user.getEmail());
 
         return user.getId();
     }
 
+    /**
+     * Замена хеша пароля пользователя на пересчитанный с актуальной стоимостью.
+     * Хеш заменяется, только если в БД всё ещё записан прежний хеш пользователя,
+     * поэтому параллельная смена пароля не откатывается.
+     *
+     * @param user    пользователь с прежним хешем пароля
+     * @param newHash новый хеш того же пароля
+     * @return {@code true}, если хеш заменён
+     */
+    public boolean upgradePasswordHash(User user, String newHash) {
+        boolean replaced = userRepository.replacePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1;
+        if (replaced) {
+            userDetailService.evictUser(user.getEmail());
+        }
+        return replaced;
+    }
+
     /**
      * Выводит список всех пользователей.
      * Доступен только для админа.
@@ -152,9 +190,12 @@ public class UserService {
      * @param id id пользователя в БД
      */
     public String deleteUserById(Long id) {
-        String username = getEntityById(id).getUsername();
+        User user = getEntityById(id);
+        String username = user.getUsername();
 
         userRepository.deleteById(id);
+        userDetailService.evictUser(user.getEmail());
+        userAuthoritiesChangeRegistry.markChanged(id);
 
         return username;
     }
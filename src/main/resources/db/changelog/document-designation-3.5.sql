@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+--changeset manakin:2 splitStatements:false
+CREATE OR REPLACE FUNCTION normalize_designation(designation TEXT) RETURNS TEXT
+    LANGUAGE sql
+    IMMUTABLE
+    PARALLEL SAFE
+    RETURNS NULL ON NULL INPUT
+AS
+$$
+SELECT btrim(regexp_replace(translate(lower(designation), 'ё‐‑‒–—―−', 'е-------'), '[[:space:]-]+', ' ', 'g'))
+$$;
+
+--changeset manakin:3
+ALTER TABLE document
+    ADD COLUMN designation_normalized TEXT GENERATED ALWAYS AS (normalize_designation(designation)) STORED;
+
+ALTER TABLE document_reference
+    ADD COLUMN referenced_designation_normalized TEXT
+        GENERATED ALWAYS AS (normalize_designation(referenced_designation)) STORED;
+
+--changeset manakin:4
+CREATE INDEX IF NOT EXISTS idx_document_designation_normalized ON document (designation_normalized);
+CREATE INDEX IF NOT EXISTS idx_document_designation_trgm ON document USING GIN (designation_normalized gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_document_reference_designation_normalized
+    ON document_reference (referenced_designation_normalized);
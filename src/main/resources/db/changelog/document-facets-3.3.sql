@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+CREATE INDEX IF NOT EXISTS idx_document_facets
+    ON document (status, adoption_level, harmonization, code_oks);
+
+--changeset manakin:2
+CREATE INDEX IF NOT EXISTS idx_document_oks_group ON document (split_part(code_oks, '.', 1));
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+CREATE INDEX IF NOT EXISTS idx_document_status_commission_year ON document (status, commission_year, id);
+CREATE INDEX IF NOT EXISTS idx_document_status_acceptance_year ON document (status, acceptance_year, id);
+
+--changeset manakin:2
+CREATE INDEX IF NOT EXISTS idx_document_author ON document (author, id);
+
+--changeset manakin:3
+CREATE INDEX IF NOT EXISTS idx_document_code_oks_pattern ON document (code_oks text_pattern_ops);
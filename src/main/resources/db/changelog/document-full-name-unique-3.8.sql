@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset manakin:0
+-- До уникального индекса полные названия проверялись только приложением без блокировки, поэтому дубликаты возможны.
+-- Первый по id ГОСТ сохраняет название, к названиям остальных добавляется их id, данные не удаляются.
+-- Если индекс всё же не создаётся, оставшиеся дубликаты находятся запросом
+-- SELECT full_name, array_agg(id) FROM document GROUP BY full_name HAVING count(*) > 1
+UPDATE document d
+SET full_name  = left(d.full_name, 512 - length(duplicate.suffix)) || duplicate.suffix,
+    version    = d.version + 1,
+    updated_at = now()
+FROM (SELECT id,
+             ' [дубликат id ' || id || ']'                      AS suffix,
+             row_number() OVER (PARTITION BY full_name ORDER BY id) AS position
+      FROM document) duplicate
+WHERE d.id = duplicate.id
+  AND duplicate.position > 1;
+
+--changeset manakin:1
+--preconditions onFail:HALT onError:HALT
+--precondition-sql-check expectedResult:0 SELECT count(*) FROM (SELECT full_name FROM document GROUP BY full_name HAVING count(*) > 1) duplicates
+CREATE UNIQUE INDEX IF NOT EXISTS uq_document_full_name ON document (full_name);
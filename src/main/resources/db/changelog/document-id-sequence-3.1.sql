@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+ALTER SEQUENCE document_id_seq INCREMENT BY 50;
+
+--changeset manakin:2
+SELECT setval('document_id_seq', GREATEST(
+        (SELECT coalesce(max(id), 0) FROM document),
+        (SELECT last_value FROM document_id_seq),
+        1));
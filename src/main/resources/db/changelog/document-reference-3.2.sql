@@ -0,0 +1,45 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+CREATE TABLE IF NOT EXISTS document_reference
+(
+    document_id            BIGINT NOT NULL REFERENCES document (id) ON DELETE CASCADE,
+    referenced_designation TEXT   NOT NULL,
+    PRIMARY KEY (document_id, referenced_designation)
+);
+
+--changeset manakin:2
+CREATE INDEX IF NOT EXISTS idx_document_reference_designation ON document_reference (referenced_designation);
+CREATE INDEX IF NOT EXISTS idx_document_designation ON document (designation);
+
+--changeset manakin:3 splitStatements:false
+CREATE OR REPLACE FUNCTION sync_document_reference() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        DELETE FROM document_reference WHERE document_id = NEW.id;
+    END IF;
+
+    INSERT INTO document_reference (document_id, referenced_designation)
+    SELECT DISTINCT NEW.id, reference
+    FROM unnest(NEW.references_list) AS reference
+    WHERE reference IS NOT NULL;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+--changeset manakin:4
+CREATE TRIGGER trg_document_reference_sync
+    AFTER INSERT OR UPDATE OF references_list
+    ON document
+    FOR EACH ROW
+EXECUTE FUNCTION sync_document_reference();
+
+--changeset manakin:5
+INSERT INTO document_reference (document_id, referenced_designation)
+SELECT DISTINCT d.id, reference
+FROM document d,
+     unnest(d.references_list) AS reference
+WHERE reference IS NOT NULL
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+ALTER TABLE document
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(full_name, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(key_words, '')), 'B') ||
+        setweight(to_tsvector('russian', coalesce(application_area, '')), 'C')
+        ) STORED;
+
+--changeset manakin:2
+CREATE INDEX IF NOT EXISTS idx_document_search_vector ON document USING GIN (search_vector);
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+ALTER TABLE document
+    ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
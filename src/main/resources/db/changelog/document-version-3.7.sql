@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+ALTER TABLE document
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
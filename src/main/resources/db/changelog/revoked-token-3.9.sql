@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+create table if not exists revoked_token
+(
+    jti        varchar(64) primary key not null,
+    expires_at timestamptz             not null,
+    revoked_at timestamptz             not null default now()
+);
+
+create index if not exists idx_revoked_token_expires_at on revoked_token (expires_at);
+create index if not exists idx_revoked_token_revoked_at on revoked_token (revoked_at);
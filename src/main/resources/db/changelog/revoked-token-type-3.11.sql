@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+alter table revoked_token
+    add column if not exists token_type varchar(16) not null default 'ACCESS';
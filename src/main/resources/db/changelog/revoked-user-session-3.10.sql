@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset manakin:1
+create table if not exists revoked_user_session
+(
+    user_id        bigint primary key not null,
+    revoked_before timestamptz        not null,
+    revoked_at     timestamptz        not null default now()
+);
+
+create index if not exists idx_revoked_user_session_revoked_before on revoked_user_session (revoked_before);
+create index if not exists idx_revoked_user_session_revoked_at on revoked_user_session (revoked_at);
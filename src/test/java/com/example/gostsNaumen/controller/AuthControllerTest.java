@@ -8,6 +8,10 @@ import com.example.gostsNaumen.security.dto.JwtAuthDto;
 import com.example.gostsNaumen.security.dto.RefreshTokenDto;
 import com.example.gostsNaumen.security.dto.UserCredentialsDto;
 import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.exception.CustomServiceUnavailableException;
+import com.example.gostsNaumen.exception.InvalidTokenException;
+import com.example.gostsNaumen.handler.ControllerExceptionHandler;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
 import com.example.gostsNaumen.service.user.AuthService;
 import com.example.gostsNaumen.service.user.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,14 +21,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Тестовый класс для {@link AuthController}.
  *
@@ -47,6 +55,10 @@ class AuthControllerTest {
      * Маппер для преобразования пользователей
      */
     private final UserMapper userMapper;
+    /**
+     * Сервис хеширования паролей
+     */
+    private final PasswordHashingService passwordHashingService;
     /**
      * Контроллер аутентификации
      */
@@ -62,41 +74,71 @@ class AuthControllerTest {
 
     public AuthControllerTest(
             @Mock AuthService authService,
-            @Mock UserService userService
+            @Mock UserService userService,
+            @Mock PasswordHashingService passwordHashingService
     ) {
         this.authService = authService;
         this.userService = userService;
-        this.userMapper = new UserMapper(new BCryptPasswordEncoder(4));
-        this.authController = new AuthController(userService, userMapper, authService);
+        this.passwordHashingService = passwordHashingService;
+        this.userMapper = new UserMapper();
+        this.authController = new AuthController(userService, userMapper, authService, passwordHashingService);
         this.objectMapper = new ObjectMapper();
 
-        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new ControllerExceptionHandler())
+                .build();
     }
 
     /**
      * Проверяет, что метод логина возвращает корректное DTO с токенами и ID пользователя.
      *
      * <P>Этот тест проверяет, что при вызове метода {@link AuthController#signIn(UserCredentialsDto)}
-     * сервис возвращает DTO с токенами, и что HTTP-ответ возвращает статус 200 OK.</P>
+     * сервис возвращает DTO с токенами, запрос обрабатывается асинхронно,
+     * и что HTTP-ответ возвращает статус 200 OK.</P>
      */
     @Test
     void signInShouldReturnJwtAuthDto() throws Exception {
         UserCredentialsDto credentials = new UserCredentialsDto("test@example.com", "password123");
         JwtAuthDto expectedDto = new JwtAuthDto("access_token", "refresh_token", 1L);
 
-        Mockito.when(authService.signIn(credentials)).thenReturn(expectedDto);
+        Mockito.when(authService.signIn(credentials)).thenReturn(CompletableFuture.completedFuture(expectedDto));
 
-        JwtAuthDto result = authController.signIn(credentials);
+        JwtAuthDto result = authController.signIn(credentials).join();
 
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                 MockMvcRequestBuilders.post("/api/auth/sign-in")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(credentials))
-        ).andExpect(MockMvcResultMatchers.status().isOk());
+        ).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.token").value(expectedDto.token()));
 
         Assertions.assertEquals(expectedDto, result);
     }
 
+    /**
+     * Проверяет, что при заполненной очереди пула хеширования логин возвращает 503 и заголовок Retry-After.
+     */
+    @Test
+    void signInShouldReturnServiceUnavailableWhenHashingQueueIsFull() throws Exception {
+        UserCredentialsDto credentials = new UserCredentialsDto("test@example.com", "password123");
+
+        Mockito.when(authService.signIn(credentials)).thenReturn(CompletableFuture.failedFuture(
+                new CustomServiceUnavailableException("Перегружен", Duration.ofSeconds(1))));
+
+        MvcResult mvcResult = mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/auth/sign-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(credentials))
+        ).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
     /**
      * Проверяет, что метод логина возвращает 400 BAD REQUEST при невалидных данных.
      */
@@ -135,6 +177,33 @@ class AuthControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.userId").value(expectedDto.userId()));
     }
 
+    /**
+     * Проверяет, что выход из системы передаёт токен обновления в сервис и возвращает 204 NO CONTENT.
+     */
+    @Test
+    void logoutShouldReturnNoContent() throws Exception {
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto("refresh_token");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/auth/logout")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto))
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Mockito.verify(authService).logout(refreshTokenDto);
+    }
+
+    /**
+     * Проверяет, что выход из системы без основного токена возвращает 401 UNAUTHORIZED.
+     */
+    @Test
+    void logoutShouldReturnUnauthorizedWithoutAccessToken() throws Exception {
+        Mockito.doThrow(new InvalidTokenException("Неверный токен")).when(authService).logout(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/auth/logout"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
     /**
      * Проверяет, что метод регистрации возвращает корректное DTO пользователя.
      *
@@ -168,6 +237,7 @@ class AuthControllerTest {
                 "USER"
         );
 
+        Mockito.when(passwordHashingService.encodeAndWait("!Qweqweqwe123")).thenReturn("hashedPassword");
         Mockito.when(userService.saveUser(Mockito.any(User.class))).thenReturn(savedUser);
 
         ResponseEntity<UserDtoResponse> result = authController.register(request);
@@ -1,10 +1,20 @@
 package com.example.gostsNaumen.controller;
 
+import com.example.gostsNaumen.controller.dto.DocumentCursorCodec;
+import com.example.gostsNaumen.controller.dto.DocumentETags;
 import com.example.gostsNaumen.controller.dto.DocumentFieldsActualizer;
 import com.example.gostsNaumen.controller.dto.DocumentMapper;
 import com.example.gostsNaumen.controller.dto.request.ActualizeDtoRequest;
 import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.request.DocumentFilterDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportRowDtoResponse;
 import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentFacetsDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentReferenceDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentSuggestionDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.OksNodeDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.OksTreeDtoResponse;
 import com.example.gostsNaumen.entity.Document;
 import com.example.gostsNaumen.entity.model.AcceptedFirstTimeOrReplacedEnum;
 import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
@@ -13,23 +23,49 @@ import com.example.gostsNaumen.entity.model.StatusEnum;
 import com.example.gostsNaumen.entity.model.converter.RusEngEnumConverter;
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.exception.CustomPreconditionFailedException;
 import com.example.gostsNaumen.security.jwe.JweFilter;
+import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.security.ratelimit.SignInRateLimitFilter;
+import com.example.gostsNaumen.service.document.DocumentBulkImportService;
+import com.example.gostsNaumen.service.document.DocumentExportService;
+import com.example.gostsNaumen.service.document.DocumentFacetService;
+import com.example.gostsNaumen.service.document.DocumentFilter;
+import com.example.gostsNaumen.service.document.DocumentPage;
+import com.example.gostsNaumen.service.document.DocumentReferenceService;
 import com.example.gostsNaumen.service.document.DocumentService;
+import com.example.gostsNaumen.service.document.DocumentSuggestIndex;
+import com.example.gostsNaumen.service.document.OksClassifierIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 /**
  * Класс, предназначенный для тестирования {@link DocumentController}
@@ -65,6 +101,12 @@ class DocumentControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    /**
+     * Контекст приложения для MockMvc с включёнными фильтрами безопасности
+     */
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
     /**
      * Маппер для преобразований документов
      */
@@ -85,14 +127,59 @@ class DocumentControllerTest {
      */
     @MockitoBean
     private DocumentFieldsActualizer documentFieldsActualizer;
+    /**
+     * Кодировщик курсоров пагинации
+     */
+    @MockitoBean
+    private DocumentCursorCodec documentCursorCodec;
+    /**
+     * Сервис выгрузки каталога
+     */
+    @MockitoBean
+    private DocumentExportService documentExportService;
+    /**
+     * Мок сервиса массовой загрузки документов
+     */
+    @MockitoBean
+    private DocumentBulkImportService documentBulkImportService;
+    /**
+     * Мок сервиса графа ссылок между документами
+     */
+    @MockitoBean
+    private DocumentReferenceService documentReferenceService;
+    /**
+     * Мок сервиса фасетов каталога
+     */
+    @MockitoBean
+    private DocumentFacetService documentFacetService;
+    /**
+     * Мок дерева классификатора ОКС
+     */
+    @MockitoBean
+    private OksClassifierIndex oksClassifierIndex;
+    /**
+     * Мок индекса подсказок по обозначению и названию ГОСТа
+     */
+    @MockitoBean
+    private DocumentSuggestIndex documentSuggestIndex;
     /**
      * Жве фильтр
      */
     @MockitoBean
     private JweFilter jweFilter;
+    /**
+     * Фильтр ограничения частоты входов
+     */
+    @MockitoBean
+    private SignInRateLimitFilter signInRateLimitFilter;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Момент последнего изменения тестового документа
+     */
+    private static final Instant UPDATED_AT = Instant.parse("2025-01-01T12:00:00.123456Z");
+
     /**
      * Нам понадобятся экземпляры dto и entity документа
      */
@@ -138,6 +225,8 @@ class DocumentControllerTest {
             add("test1");
             add("test2");
         }});
+        document.setUpdatedAt(UPDATED_AT);
+        document.setVersion(0L);
 
         documentResponse = new DocumentDtoResponse();
         documentResponse.setFullName("БРОНЕОДЕЖДА Классификация и общие технические требования");
@@ -276,7 +365,7 @@ class DocumentControllerTest {
     /**
      * Тест, покрывающий кейс, когда в параметр метода передаётся отрицательное значение id
      * <p>
-     * Тестируемый метод {@link DocumentController#getDocument(Long)}
+     * Тестируемый метод {@link DocumentController#getDocument(Long, WebRequest, HttpServletResponse)}
      * В случае получения отрицательного id метод должен вернуть следующий ответ:
      * <ul>
      *         <li>status: BAD_REQUEST</li>
@@ -288,7 +377,7 @@ class DocumentControllerTest {
     @Test
     void getDocumentShouldThrowIllegalArgumentExceptionWhenProvidedNegativeId() throws Exception {
 
-        Mockito.when(documentService.getDocumentById(Mockito.anyLong()))
+        Mockito.when(documentService.getDocumentDtoById(Mockito.anyLong()))
                 .thenThrow(new IllegalArgumentException("Некорректное значение id: " + -2));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/{id}", -2))
@@ -301,7 +390,7 @@ class DocumentControllerTest {
 
     /**
      * Тест, покрывающий кейс, когда в параметр метода передаётся строка вместо id
-     * Тестируемый метод {@link DocumentController#getDocument(Long)}
+     * Тестируемый метод {@link DocumentController#getDocument(Long, WebRequest, HttpServletResponse)}
      * В случае получения строки вместо id метод должен вернуть следующий ответ:
      * <ul>
      *         <li>status: BAD_REQUEST</li>
@@ -322,7 +411,7 @@ class DocumentControllerTest {
     /**
      * Тест, проверяющий кейс, когда сервис успешно возвращает документ по переданному идентификатору
      * <p>
-     * Тестируемы метод {@link DocumentController#getDocument(Long)}
+     * Тестируемы метод {@link DocumentController#getDocument(Long, WebRequest, HttpServletResponse)}
      * <p>
      * Пример успешно выведенного документа:
      * <ul>
@@ -349,20 +438,20 @@ class DocumentControllerTest {
      */
     @Test
     void getDocumentShouldReturnDocument() throws Exception {
-        Mockito.when(documentService.getDocumentById(Mockito.anyLong())).thenReturn(Optional.of(document));
-        Mockito.when(documentMapper.mapEntityToDto(Mockito.any(Document.class)))
-                .thenAnswer(invocation -> {
-                    Document temp = invocation.getArgument(0);
-                    return new DocumentDtoResponse(temp.getId(), temp.getFullName(), temp.getDesignation(),
-                            temp.getCodeOKS(), temp.getActivityField(), temp.getAuthor(),
-                            temp.getApplicationArea(), temp.getContentLink(), temp.getAcceptanceYear(),
-                            temp.getCommissionYear(), temp.getKeyWords(), temp.getAdoptionLevel().getValue(),
-                            temp.getStatus().getValue(), temp.getHarmonization().getValue(),
-                            temp.getAcceptedFirstTimeOrReplaced().getValue(), temp.getReferences());
-                });
+        Mockito.when(documentService.getDocumentDtoById(Mockito.anyLong())).thenReturn(Optional.of(
+                new DocumentDtoResponse(document.getId(), document.getFullName(), document.getDesignation(),
+                        document.getCodeOKS(), document.getActivityField(), document.getAuthor(),
+                        document.getApplicationArea(), document.getContentLink(), document.getAcceptanceYear(),
+                        document.getCommissionYear(), document.getKeyWords(), document.getAdoptionLevel().getValue(),
+                        document.getStatus().getValue(), document.getHarmonization().getValue(),
+                        document.getAcceptedFirstTimeOrReplaced().getValue(), document.getReferences())
+                        .setUpdatedAt(document.getUpdatedAt())
+                        .setVersion(document.getVersion())
+        ));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/{id}", 1))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", DocumentETags.of(null, 0L)))
                 .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.fullName")
                         .value("testName"))
@@ -398,7 +487,7 @@ class DocumentControllerTest {
      * Тест, проверяющий кейс, когда метод получения документа выбрасывает ошибку {@link CustomEntityNotFoundException}
      * в связи с тем, что по полученному id не найдена запись в бд
      * <p>
-     * Тестируемы метод {@link DocumentController#getDocument(Long)}
+     * Тестируемы метод {@link DocumentController#getDocument(Long, WebRequest, HttpServletResponse)}
      * <p>
      * Ответ должен содержать:
      * <ul>
@@ -411,7 +500,7 @@ class DocumentControllerTest {
     @Test
     void getDocumentShouldReturnCustomEntityNotFoundExceptionWhyenDocByIdNotFound() throws Exception {
         Long id = 1L;
-        Mockito.when(documentService.getDocumentById(
+        Mockito.when(documentService.getDocumentDtoById(
                 Mockito.anyLong())).thenThrow(new CustomEntityNotFoundException(
                 "По переданному id: %s нет стандарта".formatted(id)));
 
@@ -502,7 +591,7 @@ class DocumentControllerTest {
     @Test
     void updateDocumentShouldThrowCustomEntityNotFoundExceptionWhenStandardByIdNotExist() throws Exception {
         Long docId = 1L;
-        Mockito.when(documentService.getDocumentById(docId)).thenThrow(
+        Mockito.when(documentService.updateDocument(Mockito.eq(docId), Mockito.isNull(), Mockito.any())).thenThrow(
                 new CustomEntityNotFoundException("По переданному id: %s нет стандарта".formatted(docId)));
 
         mockMvc.perform(MockMvcRequestBuilders.patch("/api/standards/{id}", docId)
@@ -515,7 +604,7 @@ class DocumentControllerTest {
 
     /**
      * Тест, проверяющий правильное выполнение метода
-     * {@link DocumentController#updateDocument(Long, ActualizeDtoRequest)}, возвращает {@link DocumentDtoResponse},
+     * {@link DocumentController#updateDocument(Long, ActualizeDtoRequest, String)}, возвращает {@link DocumentDtoResponse},
      * содержащее обновленные значения полей документа
      */
     @Test
@@ -528,7 +617,7 @@ class DocumentControllerTest {
 
         document.setId(docId);
 
-        Mockito.when(documentService.getDocumentById(docId)).thenReturn(Optional.of(document));
+        document.setVersion(2L);
         Mockito.when(documentFieldsActualizer.setNewValues(
                         Mockito.any(Document.class), Mockito.any(ActualizeDtoRequest.class)))
                 .thenAnswer(invocation -> {
@@ -539,8 +628,11 @@ class DocumentControllerTest {
                     tempDocument.setHarmonization(HarmonizationEnum.MODIFIED);
                     return tempDocument;
                 });
-        Mockito.when(documentService.updateDocument(Mockito.any(Document.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(documentService.updateDocument(Mockito.eq(docId), Mockito.eq(2L), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    document.setVersion(3L);
+                    return invocation.<UnaryOperator<Document>>getArgument(2).apply(document);
+                });
         Mockito.when(documentMapper.mapEntityToDto(Mockito.any(Document.class)))
                 .thenAnswer(invocation -> {
                     Document doc = invocation.getArgument(0);
@@ -554,9 +646,11 @@ class DocumentControllerTest {
                 });
 
         mockMvc.perform(MockMvcRequestBuilders.patch("/api/standards/{id}", docId)
+                        .header("If-Match", DocumentETags.of(docId, 2L))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(toJson(actualizeDtoRequest)))
                 .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("ETag", DocumentETags.of(docId, 3L)))
                 .andExpect(MockMvcResultMatchers.jsonPath(
                         "$.contentLink").value("https://new_link.ru"))
                 .andExpect(MockMvcResultMatchers.jsonPath(
@@ -566,7 +660,7 @@ class DocumentControllerTest {
     }
 
     /**
-     * Тест, покрывающий кейс, когда метод {@link DocumentController#updateDocument(Long, ActualizeDtoRequest)}
+     * Тест, покрывающий кейс, когда метод {@link DocumentController#updateDocument(Long, ActualizeDtoRequest, String)}
      * получает невалидное дто и возникают ошибки валидации
      * <p>
      * Пользователю должен возвращаться {@link com.example.gostsNaumen.handler.ErrorResponse} со следующими значениями
@@ -619,7 +713,7 @@ class DocumentControllerTest {
 
         Long docId = 1L;
 
-        Mockito.when(documentService.getDocumentById(Mockito.anyLong()))
+        Mockito.when(documentService.updateDocument(Mockito.anyLong(), Mockito.isNull(), Mockito.any()))
                 .thenThrow(new CustomEntityNotFoundException("По переданному id: %s нет стандарта".formatted(docId)));
 
         ActualizeDtoRequest actualizeDtoRequest = new ActualizeDtoRequest()
@@ -634,4 +728,378 @@ class DocumentControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.url")
                         .value("/api/standards/%s".formatted(docId)));
     }
+
+    /**
+     * Тест, проверяющий постраничное получение документов
+     * {@link DocumentController#getAll(int, String, DocumentFilterDtoRequest, WebRequest, HttpServletResponse)}.
+     * <p>
+     * Переданный курсор декодируется в id, сервис возвращает страницу, а в ответе присутствуют
+     * документы страницы и курсор следующей страницы.
+     */
+    @Test
+    void getAllShouldReturnPageWithNextCursor() throws Exception {
+        document.setId(11L);
+
+        Mockito.when(documentCursorCodec.decode("cursor-10")).thenReturn(10L);
+        Mockito.when(documentMapper.createFilter(Mockito.any(DocumentFilterDtoRequest.class)))
+                .thenReturn(DocumentFilter.EMPTY);
+        Mockito.when(documentService.findPage(DocumentFilter.EMPTY, 10L, 1))
+                .thenReturn(new DocumentPage(List.of(document), 11L));
+        Mockito.when(documentMapper.mapEntityToDto(Mockito.any(Document.class))).thenReturn(documentResponse);
+        Mockito.when(documentCursorCodec.encode(11L)).thenReturn("cursor-11");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/documents")
+                        .param("limit", "1")
+                        .param("after", "cursor-10"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.documents.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.documents[0].designation")
+                        .value("ГОСТ 34286-2017"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("cursor-11"));
+    }
+
+    /**
+     * Тест, проверяющий кейс, когда передан недопустимый размер страницы.
+     * <p>
+     * Пользователь получает {@link com.example.gostsNaumen.handler.ErrorResponse} со статусом {@code BAD_REQUEST}.
+     */
+    @Test
+    void getAllShouldReturnBadRequestWhenLimitIsOutOfRange() throws Exception {
+        Mockito.when(documentMapper.createFilter(Mockito.any(DocumentFilterDtoRequest.class)))
+                .thenReturn(DocumentFilter.EMPTY);
+        Mockito.when(documentService.findPage(DocumentFilter.EMPTY, null, 0))
+                .thenThrow(new IllegalArgumentException("Размер страницы должен быть от 1 до 500, получено: 0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/documents")
+                        .param("limit", "0"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                        .value("Размер страницы должен быть от 1 до 500, получено: 0"));
+    }
+
+    /**
+     * Тест, проверяющий передачу параметров фильтрации из запроса при постраничном получении ГОСТов.
+     * <p>
+     * Параметры запроса должны собираться в {@link DocumentFilterDtoRequest}.
+     */
+    @Test
+    void getAllShouldBindFilterParameters() throws Exception {
+        DocumentFilterDtoRequest expectedFilter = new DocumentFilterDtoRequest(
+                "Актуальный", null, null, null, null, 2015, 2020, "МТК 391", "13.340");
+        DocumentFilter filter = new DocumentFilter(
+                StatusEnum.CURRENT, null, null, null, null, 2015, 2020, "МТК 391", "13.340");
+
+        Mockito.when(documentMapper.createFilter(expectedFilter)).thenReturn(filter);
+        Mockito.when(documentService.findPage(filter, null, 50)).thenReturn(new DocumentPage(List.of(), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/documents")
+                        .param("status", "Актуальный")
+                        .param("commissionYearFrom", "2015")
+                        .param("commissionYearTo", "2020")
+                        .param("author", "МТК 391")
+                        .param("codeOksPrefix", "13.340"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.documents.length()").value(0));
+    }
+
+    /**
+     * Тест, проверяющий кейс, когда в фильтре передано значение, не соответствующее enum-у.
+     * <p>
+     * Ожидается ответ {@code 400 BAD REQUEST} без обращения к сервису.
+     */
+    @Test
+    void getAllShouldReturnBadRequestWhenFilterIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/documents")
+                        .param("status", "Неизвестный"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verifyNoInteractions(documentService);
+    }
+
+    /**
+     * Тест, проверяющий потоковую выгрузку каталога {@link DocumentController#exportDocuments()}.
+     * <p>
+     * Ответ формируется асинхронно и должен иметь тип {@code application/x-ndjson},
+     * а тело содержать строки, записанные сервисом выгрузки.
+     */
+    @Test
+    void exportDocumentsShouldStreamNdjson() throws Exception {
+        Mockito.when(documentExportService.exportNdjson(Mockito.any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    OutputStream outputStream = invocation.getArgument(0);
+                    outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+                    return 2L;
+                });
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    /**
+     * Тест, проверяющий массовую загрузку документов {@link DocumentController#importDocuments(InputStream)}.
+     * <p>
+     * Тело запроса в формате NDJSON передаётся сервису загрузки, а в ответе возвращаются
+     * итоги и результат по каждой записи.
+     */
+    @Test
+    void importDocumentsShouldReturnPerRowResults() throws Exception {
+        Mockito.when(documentBulkImportService.importDocuments(Mockito.any(InputStream.class)))
+                .thenReturn(new DocumentBulkImportDtoResponse(1, 1, List.of(
+                        new DocumentBulkImportRowDtoResponse(
+                                1, DocumentBulkImportRowDtoResponse.Status.CREATED, 10L, null),
+                        new DocumentBulkImportRowDtoResponse(
+                                2, DocumentBulkImportRowDtoResponse.Status.DUPLICATE, null, "Дубликат")
+                )));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/standards/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(toJson(documentRequest) + "\n" + toJson(documentRequest)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rows[0].id").value(10))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rows[1].status").value("DUPLICATE"));
+    }
+
+    /**
+     * Тест, проверяющий получение транзитивных ссылок документа
+     * {@link DocumentController#getReferences(Long, int)}.
+     * <p>
+     * Обозначение, которого нет в каталоге, возвращается без id.
+     */
+    @Test
+    void getReferencesShouldReturnReferencesWithDepth() throws Exception {
+        Mockito.when(documentReferenceService.getReferences(1L, 2)).thenReturn(List.of(
+                new DocumentReferenceDtoResponse("ГОСТ 15150-69", 2L, "Машины, приборы", 1),
+                new DocumentReferenceDtoResponse("ГОСТ 12.4.011-89", null, null, 2)
+        ));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/1/references").param("depth", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].depth").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].designation").value("ГОСТ 12.4.011-89"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].id").doesNotExist());
+    }
+
+    /**
+     * Тест, проверяющий получение ссылающихся документов для несуществующего документа
+     * {@link DocumentController#getCitingDocuments(Long, int)}.
+     * <p>
+     * Ожидается ответ {@code 404 NOT FOUND}.
+     */
+    @Test
+    void getCitingDocumentsShouldReturnNotFoundForMissingDocument() throws Exception {
+        Mockito.when(documentReferenceService.getCitingDocuments(99L, 1))
+                .thenThrow(new CustomEntityNotFoundException("По id - 99 документ не найден!"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/99/cited-by"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    /**
+     * Тест, проверяющий получение фасетов под фильтром
+     * {@link DocumentController#getFacets(String, String, String, String)}.
+     * <p>
+     * Непереданные параметры фильтра передаются сервису как {@code null}.
+     */
+    @Test
+    void getFacetsShouldPassFilterToService() throws Exception {
+        Mockito.when(documentFacetService.getFacets("Актуальный", null, null, "13"))
+                .thenReturn(new DocumentFacetsDtoResponse(
+                        3,
+                        Map.of("Актуальный", 3L),
+                        Map.of("Межгосударственный", 2L, "Национальный", 1L),
+                        Map.of("Не гармонизированный", 3L),
+                        Map.of("13", 3L)
+                ));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/facets")
+                        .param("status", "Актуальный")
+                        .param("oksGroup", "13"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.adoptionLevel['Межгосударственный']").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.oksGroup['13']").value(3));
+    }
+
+    /**
+     * Тест, проверяющий получение узла классификатора ОКС {@link DocumentController#getOksNode(String)}.
+     * <p>
+     * Код с точками должен передаваться целиком.
+     */
+    @Test
+    void getOksNodeShouldReturnChildren() throws Exception {
+        Mockito.when(oksClassifierIndex.getNode("13.340")).thenReturn(Optional.of(new OksTreeDtoResponse(
+                "13.340", 3, List.of(new OksNodeDtoResponse("13.340.10", 3, false)))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/oks/13.340"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.documentCount").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.children[0].code").value("13.340.10"));
+    }
+
+    /**
+     * Тест, проверяющий получение узла классификатора ОКС, по которому нет ГОСТов.
+     * <p>
+     * Ожидается ответ {@code 404 NOT FOUND}.
+     */
+    @Test
+    void getOksNodeShouldReturnNotFoundForEmptyNode() throws Exception {
+        Mockito.when(oksClassifierIndex.getNode("99")).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/oks/99"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    /**
+     * Тест, проверяющий подсказки при вводе {@link DocumentController#suggest(String, int)}.
+     * <p>
+     * Без параметра {@code limit} должно возвращаться не больше 10 подсказок.
+     */
+    @Test
+    void suggestShouldReturnSuggestionsWithDefaultLimit() throws Exception {
+        Mockito.when(documentSuggestIndex.suggest("ГОСТ 342", 10)).thenReturn(List.of(
+                new DocumentSuggestionDtoResponse(1L, "ГОСТ 34286-2017", "Полное название")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/suggest").param("prefix", "ГОСТ 342"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].designation").value("ГОСТ 34286-2017"));
+    }
+
+    /**
+     * Тест, проверяющий получение ГОСТа по обозначению в произвольной записи
+     * {@link DocumentController#resolveDesignation(String)}.
+     */
+    @Test
+    void resolveDesignationShouldReturnMatchedDocument() throws Exception {
+        Mockito.when(documentService.resolveDesignation("ГОСТ 34286—2017")).thenReturn(Optional.of(document));
+        Mockito.when(documentMapper.mapEntityToDto(document)).thenReturn(documentResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/resolve").param("designation", "ГОСТ 34286—2017"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.designation").value("ГОСТ 34286-2017"));
+    }
+
+    /**
+     * Тест, проверяющий получение ГОСТа по обозначению, для которого нет похожих.
+     * <p>
+     * Ожидается ответ {@code 404 NOT FOUND}.
+     */
+    @Test
+    void resolveDesignationShouldReturnNotFoundWhenNoMatch() throws Exception {
+        Mockito.when(documentService.resolveDesignation("ГОСТ 1")).thenReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/resolve").param("designation", "ГОСТ 1"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                        .value("По обозначению - ГОСТ 1 документ не найден!"));
+    }
+
+    /**
+     * Тест, проверяющий условное получение ГОСТа {@link DocumentController#getDocument(Long, WebRequest, HttpServletResponse)}.
+     * <p>
+     * При совпадении {@code If-None-Match} с текущим ETag ожидается ответ {@code 304 NOT MODIFIED} без тела.
+     */
+    @Test
+    void getDocumentShouldReturnNotModifiedWhenETagMatches() throws Exception {
+        Mockito.when(documentService.getDocumentDtoById(1L))
+                .thenReturn(Optional.of(documentResponse.setId(1L).setUpdatedAt(UPDATED_AT).setVersion(2L)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/{id}", 1)
+                        .header("If-None-Match", DocumentETags.of(1L, 2L)))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    /**
+     * Тест, проверяющий заголовок Cache-Control ответов с ETag при включённых фильтрах безопасности.
+     * <p>
+     * Spring Security по умолчанию запрещает хранение ответа ({@code no-store}), и клиент не присылает
+     * {@code If-None-Match}. Ожидается, что ответы с ETag разрешают хранение клиентом с обязательной перепроверкой.
+     */
+    @Test
+    void conditionalGetResponsesShouldAllowPrivateRevalidatedCachingWithSecurityFilters() throws Exception {
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+        document.setId(11L);
+        Mockito.when(documentService.getDocumentDtoById(1L))
+                .thenReturn(Optional.of(documentResponse.setId(1L).setUpdatedAt(UPDATED_AT).setVersion(2L)));
+        Mockito.when(documentMapper.createFilter(Mockito.any(DocumentFilterDtoRequest.class)))
+                .thenReturn(DocumentFilter.EMPTY);
+        Mockito.when(documentService.findPage(DocumentFilter.EMPTY, null, 50))
+                .thenReturn(new DocumentPage(List.of(document), null));
+
+        for (String url : List.of("/api/standards/1", "/api/standards/documents")) {
+            securedMockMvc.perform(MockMvcRequestBuilders.get(url)
+                            .with(SecurityMockMvcRequestPostProcessors.user("user").authorities(UserRoles.USER.getAuthorities())))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                    .andExpect(MockMvcResultMatchers.header().string(
+                            HttpHeaders.CACHE_CONTROL, DocumentETags.CACHE_CONTROL.getHeaderValue()));
+        }
+    }
+
+    /**
+     * Тест, проверяющий условное получение страницы ГОСТов.
+     * <p>
+     * При неизменной странице ожидается ответ {@code 304 NOT MODIFIED}, а ГОСТы не преобразуются в ДТО.
+     */
+    @Test
+    void getAllShouldReturnNotModifiedWithoutMappingWhenETagMatches() throws Exception {
+        document.setId(11L);
+        Mockito.when(documentMapper.createFilter(Mockito.any(DocumentFilterDtoRequest.class)))
+                .thenReturn(DocumentFilter.EMPTY);
+        Mockito.when(documentService.findPage(DocumentFilter.EMPTY, null, 50))
+                .thenReturn(new DocumentPage(List.of(document), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/standards/documents")
+                        .header("If-None-Match", DocumentETags.ofPage(List.of(document), null)))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        Mockito.verify(documentMapper, Mockito.never()).mapEntityToDto(Mockito.any(Document.class));
+    }
+
+    /**
+     * Тест, проверяющий изменение ГОСТа, который изменили после получения клиентом его ETag.
+     * <p>
+     * Ожидается ответ {@code 412 PRECONDITION FAILED}.
+     */
+    @Test
+    void updateDocumentShouldReturnPreconditionFailedWhenVersionIsStale() throws Exception {
+        Mockito.when(documentService.updateDocument(Mockito.eq(1L), Mockito.eq(2L), Mockito.any()))
+                .thenThrow(new CustomPreconditionFailedException("ГОСТ с id 1 был изменён: текущая версия 3, передана 2"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/standards/{id}", 1L)
+                        .header("If-Match", DocumentETags.of(1L, 2L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(new ActualizeDtoRequest().setContentLink("https://new_link.ru"))))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                        .value("ГОСТ с id 1 был изменён: текущая версия 3, передана 2"));
+    }
+
+    /**
+     * Тест, проверяющий изменение ГОСТа с ETag другого ГОСТа в {@code If-Match}.
+     * <p>
+     * Ожидается ответ {@code 412 PRECONDITION FAILED} без обращения к сервису.
+     */
+    @Test
+    void updateDocumentShouldReturnPreconditionFailedWhenETagBelongsToOtherDocument() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/standards/{id}", 1L)
+                        .header("If-Match", DocumentETags.of(2L, 2L))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(toJson(new ActualizeDtoRequest().setContentLink("https://new_link.ru"))))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        Mockito.verifyNoInteractions(documentService);
+    }
 }
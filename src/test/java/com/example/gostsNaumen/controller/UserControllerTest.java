@@ -7,6 +7,7 @@ import com.example.gostsNaumen.controller.dto.response.UserDtoResponse;
 import com.example.gostsNaumen.controller.dto.response.UserIdDtoResponse;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.service.user.AuthService;
 import com.example.gostsNaumen.service.user.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
@@ -17,8 +18,6 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -45,9 +44,9 @@ class UserControllerTest {
      */
     private final UserMapper userMapper;
     /**
-     * Кодировщик паролей
+     * Сервис авторизации
      */
-    private final PasswordEncoder passwordEncoder;
+    private final AuthService authService;
     /**
      * Контроллер для работы с пользователями
      */
@@ -66,12 +65,13 @@ class UserControllerTest {
     private User testUser;
 
     public UserControllerTest(
-            @Mock UserService userService
+            @Mock UserService userService,
+            @Mock AuthService authService
     ) {
         this.userService = userService;
-        this.passwordEncoder = new BCryptPasswordEncoder(4);
-        this.userMapper = new UserMapper(passwordEncoder);
-        this.userController = new UserController(userService, userMapper);
+        this.authService = authService;
+        this.userMapper = new UserMapper();
+        this.userController = new UserController(userService, userMapper, authService);
         this.objectMapper = new ObjectMapper();
 
         mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
@@ -246,4 +246,16 @@ class UserControllerTest {
 
         Mockito.verify(userService).deleteUserById(userId);
     }
+
+    /**
+     * Проверяет, что завершение всех сессий пользователя возвращает 204 и отзывает сессии через сервис.
+     */
+    @Test
+    void revokeAllSessionsShouldReturnNoContent() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/user/{id}/sessions", 1L)
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Mockito.verify(authService).revokeAllSessions(1L);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.gostsNaumen.controller.dto;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тесты кодировщика курсоров пагинации {@link DocumentCursorCodec}
+ */
+class DocumentCursorCodecTest {
+    private final DocumentCursorCodec documentCursorCodec = new DocumentCursorCodec();
+
+    /**
+     * Закодированный курсор должен декодироваться в исходный id
+     */
+    @Test
+    void decodeShouldReturnEncodedId() {
+        String cursor = documentCursorCodec.encode(42L);
+
+        Assertions.assertEquals(42L, documentCursorCodec.decode(cursor));
+    }
+
+    /**
+     * Курсор, сформированный не сервером, должен приводить к {@link IllegalArgumentException}
+     */
+    @Test
+    void decodeShouldThrowIllegalArgumentExceptionWhenCursorIsForged() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> documentCursorCodec.decode("42"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> documentCursorCodec.decode("!!!"));
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.gostsNaumen.security.jwe;
 
 import com.example.gostsNaumen.security.dto.JwtAuthDto;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.permission.UserRoles;
 import com.nimbusds.jose.JOSEException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 /**
  * Тестирование логики JWE сервиса.
  */
@@ -27,7 +33,8 @@ class JweServiceTest {
         this.jweService = new JweService(
                 SECRET,
                 SECRET,
-                1000
+                1000,
+                43200
         );
     }
 
@@ -36,7 +43,7 @@ class JweServiceTest {
      * <p>
      * Сценарий:
      * <ol>
-     *     <li>С помощью {@link JweService#generateAuthToken(String, Long)} генерируется JWT-токен с указанным email и ID.</li>
+     *     <li>С помощью {@link JweService#generateAuthToken(String, Long, UserRoles)} генерируется JWT-токен с указанным email и ID.</li>
      *     <li>Из сгенерированного токена извлекается email с помощью {@link JweService#getEmailFromToken(String)}.</li>
      *     <li>Проверяется, что извлечённый email совпадает с переданным при генерации.</li>
      *     <li>Проверяется валидность токена с помощью {@link JweService#validateJweToken(String)}.</li>
@@ -48,7 +55,7 @@ class JweServiceTest {
      */
     @Test
     void shouldGenerateTokenWithoutException() throws JOSEException {
-        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L);
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
         Assertions.assertEquals(
                 "example@example.com",
                 jweService.getEmailFromToken(jwtAuthenticationDto.token())
@@ -61,7 +68,7 @@ class JweServiceTest {
      * <p>
      * Сценарий:
      * <ol>
-     *     <li>С помощью {@link JweService#generateAuthToken(String, Long)} генерируется JWT-токен с указанным email.</li>
+     *     <li>С помощью {@link JweService#generateAuthToken(String, Long, UserRoles)} генерируется JWT-токен с указанным email.</li>
      *     <li>Из сгенерированного токена извлекается email с помощью {@link JweService#getEmailFromToken(String)}.</li>
      * </ol>
      * <p>
@@ -71,7 +78,7 @@ class JweServiceTest {
      */
     @Test
     void shouldGetEmailFromTokenWithoutException() throws JOSEException {
-        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L);
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
         Assertions.assertEquals(
                 "example@example.com",
                 jweService.getEmailFromToken(jwtAuthenticationDto.token())
@@ -83,7 +90,7 @@ class JweServiceTest {
      * <p>
      * Сценарий:
      * <ol>
-     *     <li>С помощью {@link JweService#generateAuthToken(String, Long)} генерируется действительный JWT-токен.</li>
+     *     <li>С помощью {@link JweService#generateAuthToken(String, Long, UserRoles)} генерируется действительный JWT-токен.</li>
      *     <li>Сгенерированный токен передается в метод {@link JweService#validateJweToken(String)}.</li>
      * </ol>
      * <p>
@@ -93,43 +100,35 @@ class JweServiceTest {
      */
     @Test
     void validateJweToken() throws JOSEException {
-        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L);
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
         Assertions.assertTrue(jweService.validateJweToken(jwtAuthenticationDto.token()));
     }
 
     /**
-     * Проверяет обновление базового токена при сохранении того же refresh-токена.
-     * <p>
-     * Сценарий:
-     * <ol>
-     *     <li>Генерируется новый JWT-токен (включающий access и refresh токены) с помощью
-     *     {@link JweService#generateAuthToken(String, Long)}.</li>
-     *     <li>Выполняется пауза в 1 секунду, чтобы гарантировать различие во времени создания токенов.</li>
-     *     <li>Обновляется токен с помощью {@link JweService#refreshBaseToken(String, String, Long)},
-     *     передается старый refresh-токен.</li>
-     * </ol>
+     * Проверяет, что основной токен и токен обновления различаются типом, айди и временем жизни.
      * <p>
      * Ожидается, что:
      * <ul>
-     *     <li>Refresh-токен остается неизменным.</li>
-     *     <li>Новый access-токен отличается от старого.</li>
+     *     <li>Основной токен имеет тип {@link TokenType#ACCESS} и живёт {@code expireMinutes}.</li>
+     *     <li>Токен обновления имеет тип {@link TokenType#REFRESH} и живёт {@code refreshExpireMinutes}.</li>
+     *     <li>У токенов разные jti.</li>
      * </ul>
      *
      * @throws JOSEException если возникает ошибка при работе с JWT (например, подпись, расшифровка)
-     * @throws InterruptedException если поток ожидания был прерван
      */
     @Test
-    void refreshBaseToken() throws JOSEException, InterruptedException {
-        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L);
+    void generateAuthTokenShouldIssueDistinctAccessAndRefreshTokens() throws JOSEException {
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
 
-        Thread.sleep(1010);
+        TokenClaimsDto access = jweService.verifyToken(jwtAuthenticationDto.token()).orElseThrow();
+        TokenClaimsDto refresh = jweService.verifyToken(jwtAuthenticationDto.refreshToken()).orElseThrow();
 
-        JwtAuthDto jwtAuthenticationDtoNew = jweService
-                .refreshBaseToken("example@example.com", jwtAuthenticationDto.refreshToken(), 1L);
-
-        Assertions.assertEquals(jwtAuthenticationDto.refreshToken(), jwtAuthenticationDtoNew.refreshToken());
-
-        Assertions.assertNotEquals(jwtAuthenticationDtoNew.token(), jwtAuthenticationDto.token());
+        Assertions.assertEquals(TokenType.ACCESS, access.type());
+        Assertions.assertEquals(TokenType.REFRESH, refresh.type());
+        Assertions.assertNotNull(access.tokenId());
+        Assertions.assertNotEquals(access.tokenId(), refresh.tokenId());
+        Assertions.assertTrue(access.expiration().isBefore(Instant.now().plus(Duration.ofMinutes(1001))));
+        Assertions.assertTrue(refresh.expiration().isAfter(Instant.now().plus(Duration.ofMinutes(43000))));
     }
 
     /**
@@ -146,4 +145,76 @@ class JweServiceTest {
                 "l1Zrk26lMol_ilWJg3vpEuz6eYYaHac6ZVZVDWLJZ9ASuvGyvUZsN1vlZ2dYkp1kOKa6IrhbOQtuvrVAah5U8cgX6QQ." +
                 "0cVJ1kd43nE6aAa5HKVfhA"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет, что {@link JweService#verifyToken(String)} за один вызов возвращает
+     * почту, айди и роль пользователя, время выпуска и истечения токена.
+     *
+     * @throws JOSEException если возникает ошибка при генерации токена
+     */
+    @Test
+    void verifyTokenShouldReturnClaims() throws JOSEException {
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 7L, UserRoles.USER);
+
+        TokenClaimsDto claims = jweService.verifyToken(jwtAuthenticationDto.token()).orElseThrow();
+
+        Assertions.assertEquals("example@example.com", claims.subject());
+        Assertions.assertEquals(7L, claims.userId());
+        Assertions.assertEquals(UserRoles.USER, claims.role());
+        Assertions.assertNotNull(claims.issuedAt());
+        Assertions.assertTrue(claims.expiration().isAfter(Instant.now()));
+    }
+
+    /**
+     * Проверяет, что время выпуска токена возвращается с точностью до миллисекунды, а не до секунды
+     * стандартного {@code iat}: по нему сравнивается отзыв всех сессий пользователя.
+     *
+     * @throws JOSEException если возникает ошибка при генерации токена
+     */
+    @Test
+    void verifyTokenShouldReturnIssueTimeWithMillisecondPrecision() throws JOSEException {
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        JwtAuthDto jwtAuthenticationDto = jweService.generateAuthToken("example@example.com", 7L, UserRoles.USER);
+        Instant after = Instant.now();
+
+        Instant issuedAt = jweService.verifyToken(jwtAuthenticationDto.token()).orElseThrow().issuedAt();
+
+        Assertions.assertFalse(issuedAt.isBefore(before));
+        Assertions.assertFalse(issuedAt.isAfter(after));
+    }
+
+    /**
+     * Проверяет, что токен, зашифрованный другим ключом, не проходит проверку {@link JweService#verifyToken(String)}.
+     *
+     * @throws JOSEException если возникает ошибка при генерации токена
+     */
+    @Test
+    void verifyTokenShouldReturnEmptyForForeignToken() throws JOSEException {
+        JweService foreignJweService = new JweService(
+                "aQpMbX+5QkX1qKp3iPh4mfrc5D0F3eG9HvA2BcD4Efg",
+                "aQpMbX+5QkX1qKp3iPh4mfrc5D0F3eG9HvA2BcD4Efg",
+                1000,
+                43200
+        );
+        JwtAuthDto jwtAuthenticationDto = foreignJweService.generateAuthToken("example@example.com", 1L, UserRoles.USER);
+
+        Assertions.assertTrue(jweService.verifyToken(jwtAuthenticationDto.token()).isEmpty());
+    }
+
+    /**
+     * Проверяет, что ключ шифрования неподходящей для A256GCM длины отклоняется при создании сервиса,
+     * а не при первой генерации токена.
+     */
+    @Test
+    void constructorShouldRejectEncryptionKeyOfWrongLength() {
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> new JweService(
+                        SECRET,
+                        "AAECAwQFBgcICQoLDA0ODxAREhMUFRYXGBkaGxwdHh8gISIjJCUmJygpKissLS4v",
+                        1000,
+                        43200
+                ));
+
+        Assertions.assertEquals("Ключ шифрования должен быть 256 бит (32 байта) для A256GCM.", exception.getMessage());
+    }
+}
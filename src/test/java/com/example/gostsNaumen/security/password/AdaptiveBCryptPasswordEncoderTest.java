@@ -0,0 +1,63 @@
+package com.example.gostsNaumen.security.password;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Тестирование выбора стоимости и пересчёта хешей в {@link AdaptiveBCryptPasswordEncoder}.
+ */
+class AdaptiveBCryptPasswordEncoderTest {
+    /**
+     * Замер, при котором стоимость 4 занимает 1 мс, а каждая следующая – вдвое больше
+     */
+    private static final IntFunction<Duration> DOUBLING_HASH_TIME = cost -> Duration.ofMillis(1L << (cost - 4));
+
+    /**
+     * Выбирается наибольшая стоимость, укладывающаяся в бюджет: 2^6 = 64 мс при бюджете 100 мс.
+     */
+    @Test
+    void chooseCostShouldPickHighestCostWithinBudget() {
+        Assertions.assertEquals(10,
+                AdaptiveBCryptPasswordEncoder.chooseCost(Duration.ofMillis(100), 4, 16, DOUBLING_HASH_TIME));
+    }
+
+    /**
+     * Стоимость не опускается ниже минимальной и не поднимается выше максимальной.
+     */
+    @Test
+    void chooseCostShouldStayWithinBounds() {
+        Assertions.assertEquals(12,
+                AdaptiveBCryptPasswordEncoder.chooseCost(Duration.ofMillis(100), 12, 16, DOUBLING_HASH_TIME));
+        Assertions.assertEquals(8,
+                AdaptiveBCryptPasswordEncoder.chooseCost(Duration.ofSeconds(10), 4, 8, DOUBLING_HASH_TIME));
+    }
+
+    /**
+     * Границы, которые не допускает BCrypt, отклоняются.
+     */
+    @Test
+    void chooseCostShouldRejectInvalidBounds() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AdaptiveBCryptPasswordEncoder.chooseCost(Duration.ofMillis(100), 3, 16, DOUBLING_HASH_TIME));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AdaptiveBCryptPasswordEncoder.chooseCost(Duration.ofMillis(100), 12, 10, DOUBLING_HASH_TIME));
+    }
+
+    /**
+     * Хеш с меньшей стоимостью сверяется, но помечается для пересчёта, хеш с текущей стоимостью – нет.
+     */
+    @Test
+    void outdatedHashShouldMatchAndNeedUpgrade() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+        String outdatedHash = new BCryptPasswordEncoder(4).encode("!Qweqweqwe123");
+        String currentHash = encoder.encode("!Qweqweqwe123");
+
+        Assertions.assertTrue(encoder.matches("!Qweqweqwe123", outdatedHash));
+        Assertions.assertTrue(encoder.upgradeEncoding(outdatedHash));
+        Assertions.assertFalse(encoder.upgradeEncoding(currentHash));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.gostsNaumen.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Тестирует фильтр {@link SignInRateLimitFilter}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignInRateLimitFilterTest {
+    private static final String BODY = "{\"email\":\"user@example.com\",\"password\":\"!Qweqweqwe123\"}";
+
+    /**
+     * Ограничитель частоты попыток входа
+     */
+    private final SignInRateLimiter signInRateLimiter;
+    /**
+     * Тестируемый фильтр
+     */
+    private final SignInRateLimitFilter signInRateLimitFilter;
+
+    public SignInRateLimitFilterTest(@Mock SignInRateLimiter signInRateLimiter) {
+        this.signInRateLimiter = signInRateLimiter;
+        this.signInRateLimitFilter = new SignInRateLimitFilter(signInRateLimiter, new ObjectMapper());
+    }
+
+    /**
+     * Разрешённая попытка передаётся дальше по цепочке с тем же телом запроса.
+     */
+    @Test
+    void allowedAttemptShouldPassBodyToChain() throws Exception {
+        MockHttpServletRequest request = signInRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        Mockito.when(signInRateLimiter.tryAcquireIp("10.0.0.1")).thenReturn(Optional.empty());
+        Mockito.when(signInRateLimiter.tryAcquireEmail("user@example.com")).thenReturn(Optional.empty());
+
+        signInRateLimitFilter.doFilter(request, response, chain);
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assertions.assertNotNull(chain.getRequest());
+        Assertions.assertEquals(BODY,
+                new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Отклонённая попытка завершается 429 с Retry-After, округлённым вверх до секунд, и не доходит до контроллера.
+     */
+    @Test
+    void rejectedAttemptShouldReturnTooManyRequests() throws Exception {
+        MockHttpServletRequest request = signInRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        Mockito.when(signInRateLimiter.tryAcquireIp("10.0.0.1")).thenReturn(Optional.empty());
+        Mockito.when(signInRateLimiter.tryAcquireEmail("user@example.com"))
+                .thenReturn(Optional.of(Duration.ofMillis(2500)));
+
+        signInRateLimitFilter.doFilter(request, response, chain);
+
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        Assertions.assertEquals("3", response.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertNull(chain.getRequest());
+    }
+
+    /**
+     * Попытка, отклонённая по IP, завершается 429 до чтения тела и не расходует токены почты.
+     */
+    @Test
+    void attemptRejectedByIpShouldNotReadBody() throws Exception {
+        MockHttpServletRequest request = signInRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        Mockito.when(signInRateLimiter.tryAcquireIp("10.0.0.1")).thenReturn(Optional.of(Duration.ofSeconds(10)));
+
+        signInRateLimitFilter.doFilter(request, response, chain);
+
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        Assertions.assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        Mockito.verify(signInRateLimiter, Mockito.never()).tryAcquireEmail(Mockito.any());
+    }
+
+    /**
+     * Тело больше допустимого отклоняется с 413 и по заявленной длине, и при чтении без заявленной длины.
+     */
+    @Test
+    void oversizedBodyShouldBeRejected() throws Exception {
+        byte[] oversizedBody = new byte[SignInRateLimitFilter.MAX_BODY_BYTES + 1];
+        MockHttpServletRequest withLength = signInRequest();
+        withLength.setContent(oversizedBody);
+        MockHttpServletRequest withoutLength = new MockHttpServletRequest("POST", SignInRateLimitFilter.SIGN_IN_PATH) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        withoutLength.setRemoteAddr("10.0.0.1");
+        withoutLength.setContent(oversizedBody);
+
+        Mockito.when(signInRateLimiter.tryAcquireIp("10.0.0.1")).thenReturn(Optional.empty());
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{withLength, withoutLength}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+
+            signInRateLimitFilter.doFilter(request, response, chain);
+
+            Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+            Assertions.assertNull(chain.getRequest());
+        }
+        Mockito.verify(signInRateLimiter, Mockito.never()).tryAcquireEmail(Mockito.any());
+    }
+
+    /**
+     * Сохранённое тело можно прочитать и неблокирующим способом через {@link ReadListener}.
+     */
+    @Test
+    void cachedBodyShouldSupportReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        Mockito.when(signInRateLimiter.tryAcquireIp("10.0.0.1")).thenReturn(Optional.empty());
+        Mockito.when(signInRateLimiter.tryAcquireEmail("user@example.com")).thenReturn(Optional.empty());
+
+        signInRateLimitFilter.doFilter(signInRequest(), new MockHttpServletResponse(), chain);
+
+        ServletInputStream inputStream = chain.getRequest().getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        boolean[] allDataRead = new boolean[1];
+        inputStream.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (inputStream.isReady() && !inputStream.isFinished()) {
+                    received.write(inputStream.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allDataRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+        });
+
+        Assertions.assertTrue(allDataRead[0]);
+        Assertions.assertEquals(BODY, received.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Запросы к другим эндпоинтам не ограничиваются.
+     */
+    @Test
+    void otherEndpointsShouldNotBeLimited() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/refresh");
+        MockFilterChain chain = new MockFilterChain();
+
+        signInRateLimitFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Assertions.assertSame(request, chain.getRequest());
+        Mockito.verifyNoInteractions(signInRateLimiter);
+    }
+
+    private MockHttpServletRequest signInRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", SignInRateLimitFilter.SIGN_IN_PATH);
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
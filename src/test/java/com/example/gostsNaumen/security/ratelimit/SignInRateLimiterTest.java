@@ -0,0 +1,64 @@
+package com.example.gostsNaumen.security.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Тестирует ограничение частоты попыток входа в {@link SignInRateLimiter}.
+ */
+class SignInRateLimiterTest {
+    /**
+     * Реестр метрик для проверки счётчика отклонённых попыток
+     */
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /**
+     * Управляемое время в наносекундах
+     */
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    /**
+     * Ограничение: по IP 3 попытки и 6 в минуту, по почте 2 попытки и 2 в минуту
+     */
+    private final SignInRateLimiter signInRateLimiter =
+            new SignInRateLimiter(meterRegistry, 1000, 3, 6, 2, 2, now::get);
+
+    /**
+     * Попытки сверх ёмкости корзины почты отклоняются со временем до следующего токена,
+     * а после пополнения снова разрешаются.
+     */
+    @Test
+    void emailLimitShouldRejectAttemptsOverCapacityUntilRefill() {
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.1", "user@example.com").isEmpty());
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.2", "USER@example.com ").isEmpty());
+
+        Optional<Duration> retryAfter = signInRateLimiter.tryAcquire("10.0.0.3", "user@example.com");
+
+        Assertions.assertEquals(Optional.of(Duration.ofSeconds(30)), retryAfter);
+        Assertions.assertEquals(1.0, meterRegistry.get(SignInRateLimiter.REJECTED_METRIC)
+                .tag("limit", "email").counter().count());
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.3", "user@example.com").isEmpty());
+    }
+
+    /**
+     * Попытки с одного IP на разные почты ограничиваются по IP, и отклонённая по IP попытка
+     * не расходует токены почты.
+     */
+    @Test
+    void ipLimitShouldRejectBeforeConsumingEmailTokens() {
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.1", "a@example.com").isEmpty());
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.1", "b@example.com").isEmpty());
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.1", "c@example.com").isEmpty());
+
+        Assertions.assertEquals(Optional.of(Duration.ofSeconds(10)),
+                signInRateLimiter.tryAcquire("10.0.0.1", "d@example.com"));
+
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.2", "d@example.com").isEmpty());
+        Assertions.assertTrue(signInRateLimiter.tryAcquire("10.0.0.3", "d@example.com").isEmpty());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.request.DocumentDtoRequest;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.DocumentBulkImportRowDtoResponse;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Тесты сервиса массовой загрузки {@link DocumentBulkImportService}
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentBulkImportServiceTest {
+    private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final DocumentFacetService documentFacetService;
+    private final OksClassifierIndex oksClassifierIndex;
+    private final DocumentSuggestIndex documentSuggestIndex;
+    private final DocumentBulkImportService documentBulkImportService;
+
+    public DocumentBulkImportServiceTest(
+            @Mock DocumentRepository documentRepository,
+            @Mock DocumentMapper documentMapper,
+            @Mock Validator validator,
+            @Mock JdbcTemplate jdbcTemplate,
+            @Mock DocumentFacetService documentFacetService,
+            @Mock OksClassifierIndex oksClassifierIndex,
+            @Mock DocumentSuggestIndex documentSuggestIndex
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.documentFacetService = documentFacetService;
+        this.oksClassifierIndex = oksClassifierIndex;
+        this.documentSuggestIndex = documentSuggestIndex;
+        this.documentBulkImportService = new DocumentBulkImportService(
+                documentRepository,
+                documentMapper,
+                validator,
+                jdbcTemplate,
+                new ObjectMapper(),
+                documentFacetService,
+                oksClassifierIndex,
+                documentSuggestIndex
+        );
+    }
+
+    /**
+     * Дубликаты внутри запроса и уже существующие в БД ГОСТы должны отклоняться,
+     * остальные записи – вставляться одним пакетом с возвратом сгенерированных айди
+     */
+    @Test
+    void importDocumentsShouldSkipDuplicatesAndInsertRestInOneBatch() throws Exception {
+        Mockito.when(validator.validate(Mockito.any(DocumentDtoRequest.class))).thenReturn(Set.of());
+        Mockito.when(documentMapper.createDocumentEntity(Mockito.any(DocumentDtoRequest.class)))
+                .thenAnswer(invocation -> {
+                    Document document = new Document();
+                    document.setFullName(invocation.<DocumentDtoRequest>getArgument(0).getFullName());
+                    document.setCodeOKS("13.340.10");
+                    return document;
+                });
+        Mockito.when(documentRepository.findExistingFullNames(List.of("ГОСТ 1", "ГОСТ 2")))
+                .thenReturn(List.of("ГОСТ 2"));
+        Mockito.when(jdbcTemplate.batchUpdate(
+                        Mockito.any(PreparedStatementCreator.class),
+                        Mockito.any(BatchPreparedStatementSetter.class),
+                        Mockito.any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    Assertions.assertEquals(1, invocation.<BatchPreparedStatementSetter>getArgument(1).getBatchSize());
+                    invocation.<KeyHolder>getArgument(2).getKeyList().add(Map.of("id", 10L));
+                    return new int[]{1};
+                });
+
+        DocumentBulkImportDtoResponse response = documentBulkImportService.importDocuments(ndjson(
+                "{\"fullName\":\"ГОСТ 1\"}",
+                "{\"fullName\":\"ГОСТ 1\"}",
+                "{\"fullName\":\"ГОСТ 2\"}"
+        ));
+
+        Assertions.assertEquals(1, response.created());
+        Assertions.assertEquals(2, response.rejected());
+        Assertions.assertEquals(List.of(
+                new DocumentBulkImportRowDtoResponse(1, DocumentBulkImportRowDtoResponse.Status.CREATED, 10L, null),
+                new DocumentBulkImportRowDtoResponse(2, DocumentBulkImportRowDtoResponse.Status.DUPLICATE, null,
+                        "Гост c таким full_name: ГОСТ 1 уже существует!"),
+                new DocumentBulkImportRowDtoResponse(3, DocumentBulkImportRowDtoResponse.Status.DUPLICATE, null,
+                        "Гост c таким full_name: ГОСТ 2 уже существует!")
+        ), response.rows());
+        Mockito.verify(documentFacetService).invalidate();
+        Mockito.verify(oksClassifierIndex).refresh(Set.of("13.340.10"));
+        Mockito.verify(documentSuggestIndex).put(10L, null, "ГОСТ 1");
+    }
+
+    /**
+     * Запись, вставленная параллельным запросом между проверкой и вставкой, пропускается уникальным индексом
+     * и отмечается как дубликат, а сгенерированные айди сопоставляются только вставленным записям
+     */
+    @Test
+    void importDocumentsShouldReportRowsSkippedByUniqueIndexAsDuplicates() throws Exception {
+        Mockito.when(validator.validate(Mockito.any(DocumentDtoRequest.class))).thenReturn(Set.of());
+        Mockito.when(documentMapper.createDocumentEntity(Mockito.any(DocumentDtoRequest.class)))
+                .thenAnswer(invocation -> {
+                    Document document = new Document();
+                    document.setFullName(invocation.<DocumentDtoRequest>getArgument(0).getFullName());
+                    document.setCodeOKS("13.340.10");
+                    return document;
+                });
+        Mockito.when(documentRepository.findExistingFullNames(List.of("ГОСТ 1", "ГОСТ 2"))).thenReturn(List.of());
+        Mockito.when(jdbcTemplate.batchUpdate(
+                        Mockito.any(PreparedStatementCreator.class),
+                        Mockito.any(BatchPreparedStatementSetter.class),
+                        Mockito.any(KeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<KeyHolder>getArgument(2).getKeyList().add(Map.of("id", 11L));
+                    return new int[]{0, 1};
+                });
+
+        DocumentBulkImportDtoResponse response = documentBulkImportService.importDocuments(ndjson(
+                "{\"fullName\":\"ГОСТ 1\"}",
+                "{\"fullName\":\"ГОСТ 2\"}"
+        ));
+
+        Assertions.assertEquals(List.of(
+                new DocumentBulkImportRowDtoResponse(1, DocumentBulkImportRowDtoResponse.Status.DUPLICATE, null,
+                        "Гост c таким full_name: ГОСТ 1 уже существует!"),
+                new DocumentBulkImportRowDtoResponse(2, DocumentBulkImportRowDtoResponse.Status.CREATED, 11L, null)
+        ), response.rows());
+        Mockito.verify(documentSuggestIndex).put(11L, null, "ГОСТ 2");
+    }
+
+    /**
+     * Синтаксическая ошибка JSON должна прерывать загрузку до обращения к БД
+     */
+    @Test
+    void importDocumentsShouldRejectMalformedJson() {
+        IllegalArgumentException exception = Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> documentBulkImportService.importDocuments(ndjson("{\"fullName\":"))
+        );
+
+        Assertions.assertTrue(exception.getMessage().startsWith("Некорректный JSON в записи 1"));
+        Mockito.verifyNoInteractions(documentRepository, jdbcTemplate, documentFacetService);
+    }
+
+    private InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Тесты кэша ДТО ГОСТов {@link DocumentDtoCache}
+ */
+class DocumentDtoCacheTest {
+
+    /**
+     * Реестр метрик кэша
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Тестируемый кэш
+     */
+    private DocumentDtoCache documentDtoCache;
+
+    /**
+     * Счётчик обращений к загрузчику
+     */
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        documentDtoCache = new DocumentDtoCache(meterRegistry, 100L, 10);
+        loads = new AtomicInteger();
+    }
+
+    /**
+     * Повторное получение ГОСТа не должно обращаться к загрузчику, а после удаления из кэша – должно
+     */
+    @Test
+    void getShouldLoadOnlyOnceUntilEvicted() {
+        documentDtoCache.get(1L, this::load);
+        documentDtoCache.get(1L, this::load);
+
+        Assertions.assertEquals(1, loads.get());
+
+        documentDtoCache.evict(1L);
+        documentDtoCache.get(1L, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * Отсутствующий в БД ГОСТ не должен кэшироваться
+     */
+    @Test
+    void getShouldNotCacheMissingDocument() {
+        Assertions.assertTrue(documentDtoCache.get(2L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        documentDtoCache.get(2L, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    /**
+     * Список ссылок закэшированного ДТО не должен меняться снаружи
+     */
+    @Test
+    void getShouldReturnUnmodifiableReferences() {
+        DocumentDtoResponse dto = documentDtoCache.get(1L, this::load).orElseThrow();
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> dto.getReferences().add("ГОСТ 1-2000"));
+    }
+
+    /**
+     * Попадания и промахи должны публиковаться в метриках
+     */
+    @Test
+    void getShouldRecordHitAndMissMetrics() {
+        documentDtoCache.get(1L, this::load);
+        documentDtoCache.get(1L, this::load);
+
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", DocumentDtoCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", DocumentDtoCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+
+    private Optional<DocumentDtoResponse> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(new DocumentDtoResponse().setId(id).setReferences(new HashSet<>(Set.of("ГОСТ 2-2001"))));
+    }
+}
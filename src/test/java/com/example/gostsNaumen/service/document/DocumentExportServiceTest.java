@@ -0,0 +1,74 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
+import com.example.gostsNaumen.entity.Document;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Тесты сервиса выгрузки каталога {@link DocumentExportService}
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentExportServiceTest {
+    private final DocumentRepository documentRepository;
+    private final DocumentMapper documentMapper;
+    private final EntityManager entityManager;
+    private final DocumentExportService documentExportService;
+
+    public DocumentExportServiceTest(
+            @Mock DocumentRepository documentRepository,
+            @Mock DocumentMapper documentMapper,
+            @Mock EntityManager entityManager
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentMapper = documentMapper;
+        this.entityManager = entityManager;
+        this.documentExportService = new DocumentExportService(
+                documentRepository,
+                documentMapper,
+                new ObjectMapper(),
+                entityManager
+        );
+    }
+
+    /**
+     * Каждый документ должен быть записан отдельной строкой и отсоединён от контекста персистентности
+     */
+    @Test
+    void exportNdjsonShouldWriteOneLinePerDocumentAndDetachIt() throws IOException {
+        Document first = new Document();
+        first.setId(1L);
+        Document second = new Document();
+        second.setId(2L);
+
+        Mockito.when(documentRepository.streamAllOrderedById()).thenReturn(Stream.of(first, second));
+        Mockito.when(documentMapper.mapEntityToDto(Mockito.any(Document.class)))
+                .thenAnswer(invocation -> new DocumentDtoResponse()
+                        .setId(invocation.<Document>getArgument(0).getId()));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long exported = documentExportService.exportNdjson(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(2, exported);
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"id\":1,"));
+        Assertions.assertTrue(lines[1].startsWith("{\"id\":2,"));
+        Mockito.verify(entityManager).detach(first);
+        Mockito.verify(entityManager).detach(second);
+    }
+}
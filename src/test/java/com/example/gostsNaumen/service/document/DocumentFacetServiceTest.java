@@ -0,0 +1,111 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentFacetsDtoResponse;
+import com.example.gostsNaumen.entity.model.converter.RusEngEnumConverter;
+import com.example.gostsNaumen.repository.DocumentFacetView;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Тесты сервиса фасетов каталога {@link DocumentFacetService}
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentFacetServiceTest {
+    private final DocumentRepository documentRepository;
+    private final DocumentFacetService documentFacetService;
+
+    public DocumentFacetServiceTest(@Mock DocumentRepository documentRepository) {
+        this.documentRepository = documentRepository;
+        this.documentFacetService = new DocumentFacetService(
+                documentRepository,
+                new RusEngEnumConverter(),
+                new SimpleMeterRegistry(),
+                100L,
+                5
+        );
+    }
+
+    /**
+     * Строки агрегирующего запроса должны раскладываться по фасетам с русскими значениями enum-ов,
+     * а фильтр – передаваться в запрос английскими ключами
+     */
+    @Test
+    void getFacetsShouldGroupRowsByFacet() {
+        Mockito.when(documentRepository.countFacets("CURRENT", null, null, null)).thenReturn(List.of(
+                row("total", null, 3L),
+                row("status", "CURRENT", 3L),
+                row("adoptionLevel", "NATIONAL", 1L),
+                row("adoptionLevel", "INTERSTATE", 2L),
+                row("harmonization", "NON_HARMONIZED", 3L),
+                row("oksGroup", "13", 3L)
+        ));
+
+        DocumentFacetsDtoResponse facets = documentFacetService.getFacets("Актуальный", null, null, null);
+
+        Assertions.assertEquals(3, facets.total());
+        Assertions.assertEquals(Map.of("Актуальный", 3L), facets.status());
+        Assertions.assertEquals(
+                List.of("Межгосударственный", "Национальный"),
+                List.copyOf(facets.adoptionLevel().keySet())
+        );
+        Assertions.assertEquals(Map.of("13", 3L), facets.oksGroup());
+    }
+
+    /**
+     * Повторный запрос с тем же фильтром должен браться из кэша, а после сброса – считаться заново
+     */
+    @Test
+    void getFacetsShouldBeCachedUntilInvalidated() {
+        Mockito.when(documentRepository.countFacets(null, null, null, null))
+                .thenReturn(List.of(row("total", null, 0L)));
+
+        documentFacetService.getFacets(null, null, null, null);
+        documentFacetService.getFacets(null, null, null, null);
+        Mockito.verify(documentRepository, Mockito.times(1)).countFacets(null, null, null, null);
+
+        documentFacetService.invalidate();
+        documentFacetService.getFacets(null, null, null, null);
+        Mockito.verify(documentRepository, Mockito.times(2)).countFacets(null, null, null, null);
+    }
+
+    /**
+     * Некорректные значения фильтра должны отклоняться до обращения к БД
+     */
+    @Test
+    void getFacetsShouldRejectInvalidFilter() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentFacetService.getFacets(null, null, null, "13.340"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentFacetService.getFacets("Неизвестный", null, null, null));
+
+        Mockito.verifyNoInteractions(documentRepository);
+    }
+
+    private DocumentFacetView row(String facet, String value, Long count) {
+        return new DocumentFacetView() {
+            @Override
+            public String getFacet() {
+                return facet;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentReferenceDtoResponse;
+import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.repository.DocumentReferenceRepository;
+import com.example.gostsNaumen.repository.DocumentReferenceView;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+/**
+ * Тесты сервиса графа ссылок {@link DocumentReferenceService}
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentReferenceServiceTest {
+    private final DocumentRepository documentRepository;
+    private final DocumentReferenceRepository documentReferenceRepository;
+    private final DocumentReferenceService documentReferenceService;
+
+    public DocumentReferenceServiceTest(
+            @Mock DocumentRepository documentRepository,
+            @Mock DocumentReferenceRepository documentReferenceRepository
+    ) {
+        this.documentRepository = documentRepository;
+        this.documentReferenceRepository = documentReferenceRepository;
+        this.documentReferenceService = new DocumentReferenceService(documentRepository, documentReferenceRepository);
+    }
+
+    /**
+     * Вершины графа из репозитория должны преобразовываться в ДТО с сохранением порядка
+     */
+    @Test
+    void getReferencesShouldMapViewsToDto() {
+        DocumentReferenceView view = Mockito.mock(DocumentReferenceView.class);
+        Mockito.when(view.getDesignation()).thenReturn("ГОСТ 15150-69");
+        Mockito.when(view.getId()).thenReturn(2L);
+        Mockito.when(view.getFullName()).thenReturn("Машины, приборы");
+        Mockito.when(view.getDepth()).thenReturn(1);
+        Mockito.when(documentRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(documentReferenceRepository.findReferences(1L, 3)).thenReturn(List.of(view));
+
+        List<DocumentReferenceDtoResponse> references = documentReferenceService.getReferences(1L, 3);
+
+        Assertions.assertEquals(
+                List.of(new DocumentReferenceDtoResponse("ГОСТ 15150-69", 2L, "Машины, приборы", 1)),
+                references
+        );
+    }
+
+    /**
+     * Глубина вне допустимого диапазона должна отклоняться до обращения к БД
+     */
+    @Test
+    void getCitingDocumentsShouldRejectDepthOutOfRange() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentReferenceService.getCitingDocuments(1L, 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentReferenceService.getCitingDocuments(1L, DocumentReferenceService.MAX_DEPTH + 1));
+
+        Mockito.verifyNoInteractions(documentRepository, documentReferenceRepository);
+    }
+
+    /**
+     * Для несуществующего стандарта должно выбрасываться {@link CustomEntityNotFoundException}
+     */
+    @Test
+    void getCitingDocumentsShouldThrowWhenDocumentMissing() {
+        Mockito.when(documentRepository.existsById(99L)).thenReturn(false);
+
+        Assertions.assertThrows(CustomEntityNotFoundException.class,
+                () -> documentReferenceService.getCitingDocuments(99L, 1));
+        Mockito.verifyNoInteractions(documentReferenceRepository);
+    }
+}
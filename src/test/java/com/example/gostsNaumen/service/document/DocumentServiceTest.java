@@ -1,12 +1,17 @@
 package com.example.gostsNaumen.service.document;
 
+import com.example.gostsNaumen.controller.dto.DocumentMapper;
+import com.example.gostsNaumen.controller.dto.response.DocumentDtoResponse;
 import com.example.gostsNaumen.entity.Document;
 import com.example.gostsNaumen.entity.model.AcceptedFirstTimeOrReplacedEnum;
 import com.example.gostsNaumen.entity.model.AdoptionLevelEnum;
 import com.example.gostsNaumen.entity.model.StatusEnum;
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.exception.CustomPreconditionFailedException;
+import com.example.gostsNaumen.repository.ConstraintViolations;
 import com.example.gostsNaumen.repository.DocumentRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,9 +20,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.sql.SQLException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Класс для тестов сервиса по работе с документами {@link DocumentService}.<br>
@@ -25,9 +37,12 @@ import java.util.Optional;
  * <ul>
  *     <li>{@code saveDocument}</li>
  *     <li>{@code getDocumentById}</li>
+ *     <li>{@code getDocumentDtoById}</li>
  *     <li>{@code deleteDocumentById}</li>
  *     <li>{@code updateDocumentStatus}</li>
  *     <li>{@code updateDocument}</li>
+ *     <li>{@code findPage}</li>
+ *     <li>{@code search}</li>
  * </ul>
  */
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +54,36 @@ class DocumentServiceTest {
     @Mock
     private DocumentRepository documentRepository;
 
+    /**
+     * Маппер документов
+     */
+    @Mock
+    private DocumentMapper documentMapper;
+
+    /**
+     * Кэш ДТО документов
+     */
+    @Mock
+    private DocumentDtoCache documentDtoCache;
+
+    /**
+     * Сервис фасетов каталога
+     */
+    @Mock
+    private DocumentFacetService documentFacetService;
+
+    /**
+     * Дерево классификатора ОКС
+     */
+    @Mock
+    private OksClassifierIndex oksClassifierIndex;
+
+    /**
+     * Индекс подсказок по обозначению и названию ГОСТа
+     */
+    @Mock
+    private DocumentSuggestIndex documentSuggestIndex;
+
     /**
      * Тестируемый сервис для рабоыт с документами
      */
@@ -90,8 +135,9 @@ class DocumentServiceTest {
      */
     @Test
     void saveDocumentShouldThrowExceptionWhenDocumentAlreadyExists() {
-        Mockito.when(documentRepository.findByFullName(document.getFullName()))
-                .thenReturn(Optional.of(document));
+        Mockito.when(documentRepository.saveAndFlush(document)).thenThrow(new DataIntegrityViolationException(
+                "duplicate key", new ConstraintViolationException(
+                "duplicate key", new SQLException(), ConstraintViolations.DOCUMENT_FULL_NAME)));
 
         CustomEntityExistsException testException = Assertions.assertThrows(CustomEntityExistsException.class,
                 () -> documentService.saveDocument(document));
@@ -100,6 +146,20 @@ class DocumentServiceTest {
                 testException.getMessage());
     }
 
+    /**
+     * Проверка, что нарушение другого ограничения при сохранении не выдаётся за дубликат
+     */
+    @Test
+    void saveDocumentShouldRethrowUnknownConstraintViolation() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "not null", new ConstraintViolationException("not null", new SQLException(), null));
+        Mockito.when(documentRepository.saveAndFlush(document)).thenThrow(violation);
+
+        Assertions.assertSame(violation, Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> documentService.saveDocument(document)));
+        Mockito.verifyNoInteractions(documentDtoCache);
+    }
+
     /**
      * Проверка на Optional.empty при попытке получить документ не существующий по id
      */
@@ -130,7 +190,7 @@ class DocumentServiceTest {
      */
     @Test
     void deleteDocumentShouldThrowBusinessExceptionWhenDocumentDoesNotExist() {
-        Mockito.when(documentRepository.existsById(document.getId())).thenReturn(false);
+        Mockito.when(documentRepository.findCodeOksById(document.getId())).thenReturn(Optional.empty());
 
         CustomEntityNotFoundException testException = Assertions.assertThrows(CustomEntityNotFoundException.class,
                 () -> documentService.deleteDocumentById(document.getId()));
@@ -144,14 +204,190 @@ class DocumentServiceTest {
      */
     @Test
     void updateDocumentShouldThrowBusinessExceptionWhenDocumentDoesNotExist() {
-        Document testDocument = new Document();
-        testDocument.setId(2L);
-
-        Mockito.when(documentRepository.existsById(testDocument.getId())).thenReturn(false);
+        Mockito.when(documentRepository.findById(2L)).thenReturn(Optional.empty());
 
         CustomEntityNotFoundException testException = Assertions.assertThrows(CustomEntityNotFoundException.class,
-                () -> documentService.updateDocument(testDocument));
-        Assertions.assertEquals("По переданному ID: %d, нет стандарта".formatted(testDocument.getId()), testException
+                () -> documentService.updateDocument(2L, null, UnaryOperator.identity()));
+        Assertions.assertEquals("По переданному ID: %d, нет стандарта".formatted(2L), testException
                 .getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет, что при несовпадении переданной версии с текущей документ не сохраняется
+     */
+    @Test
+    void updateDocumentShouldThrowPreconditionFailedWhenVersionDiffers() {
+        document.setVersion(3L);
+        Mockito.when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+
+        Assertions.assertThrows(CustomPreconditionFailedException.class,
+                () -> documentService.updateDocument(1L, 2L, UnaryOperator.identity()));
+        Mockito.verify(documentRepository, Mockito.never()).saveAndFlush(Mockito.any(Document.class));
+    }
+
+    /**
+     * Проверяет, что при наличии записи сверх лимита страница обрезается до лимита,
+     * а id последнего документа страницы возвращается для запроса следующей страницы.
+     */
+    @Test
+    void findPageShouldReturnNextAfterIdWhenMoreDocumentsExist() {
+        Document second = new Document();
+        second.setId(2L);
+
+        Mockito.when(documentRepository.findByIdGreaterThanOrderByIdAsc(
+                        Mockito.eq(0L), Mockito.argThat((Limit limit) -> limit.max() == 2)))
+                .thenReturn(List.of(document, second));
+
+        DocumentPage page = documentService.findPage(null, 1);
+
+        Assertions.assertEquals(List.of(document), page.documents());
+        Assertions.assertEquals(document.getId(), page.nextAfterId());
+    }
+
+    /**
+     * Проверяет, что для последней страницы id следующей страницы не возвращается.
+     */
+    @Test
+    void findPageShouldReturnNullNextAfterIdOnLastPage() {
+        Mockito.when(documentRepository.findByIdGreaterThanOrderByIdAsc(
+                        Mockito.eq(5L), Mockito.argThat((Limit limit) -> limit.max() == 11)))
+                .thenReturn(List.of(document));
+
+        DocumentPage page = documentService.findPage(5L, 10);
+
+        Assertions.assertEquals(List.of(document), page.documents());
+        Assertions.assertNull(page.nextAfterId());
+    }
+
+    /**
+     * Проверка на выброс {@link IllegalArgumentException} при размере страницы больше допустимого.
+     */
+    @Test
+    void findPageShouldThrowIllegalArgumentExceptionWhenLimitTooBig() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentService.findPage(null, DocumentService.MAX_PAGE_LIMIT + 1));
+    }
+
+    /**
+     * Проверяет, что при заданном фильтре выборка идёт через спецификацию, а не через выборку всех по id.
+     */
+    @Test
+    void findPageWithFilterShouldQueryBySpecification() {
+        DocumentFilter filter = new DocumentFilter(
+                StatusEnum.CURRENT, null, null, null, null, 2015, 2020, null, "13.340");
+
+        Mockito.when(documentRepository.findBy(Mockito.<Specification<Document>>any(), Mockito.any()))
+                .thenReturn(List.of(document));
+
+        DocumentPage page = documentService.findPage(filter, 5L, 10);
+
+        Assertions.assertEquals(List.of(document), page.documents());
+        Assertions.assertNull(page.nextAfterId());
+        Mockito.verify(documentRepository, Mockito.never())
+                .findByIdGreaterThanOrderByIdAsc(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Проверка на выброс {@link IllegalArgumentException}, если начало диапазона года больше его конца.
+     */
+    @Test
+    void findPageShouldThrowIllegalArgumentExceptionWhenYearRangeIsInverted() {
+        DocumentFilter filter = new DocumentFilter(
+                null, null, null, 2020, 2015, null, null, null, null);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentService.findPage(filter, null, 10));
+        Mockito.verifyNoInteractions(documentRepository);
+    }
+
+    /**
+     * Проверяет, что найденные документы возвращаются в порядке релевантности, полученном из полнотекстового
+     * поиска, независимо от порядка, в котором их вернула выборка по id.
+     */
+    @Test
+    void searchShouldKeepRelevanceOrder() {
+        Document second = new Document();
+        second.setId(2L);
+
+        Mockito.when(documentRepository.searchIdsByText("бронеодежда", 20, 20L)).thenReturn(List.of(2L, 1L));
+        Mockito.when(documentRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(document, second));
+
+        List<Document> result = documentService.search(" бронеодежда ", 1, 20);
+
+        Assertions.assertEquals(List.of(second, document), result);
+    }
+
+    /**
+     * Проверка на выброс {@link IllegalArgumentException} при пустой строке поиска
+     */
+    @Test
+    void searchShouldThrowIllegalArgumentExceptionWhenQueryIsBlank() {
+        IllegalArgumentException testException = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentService.search("  ", 0, 20));
+
+        Assertions.assertEquals("Строка поиска не может быть пустой", testException.getMessage());
+    }
+
+    /**
+     * Проверяет, что при промахе кэша ДТО загружается из БД через маппер
+     */
+    @Test
+    void getDocumentDtoByIdShouldLoadDocumentOnCacheMiss() {
+        DocumentDtoResponse dto = new DocumentDtoResponse().setId(document.getId());
+
+        Mockito.when(documentDtoCache.get(Mockito.eq(1L), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Function<Long, Optional<DocumentDtoResponse>>>getArgument(1)
+                        .apply(1L));
+        Mockito.when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        Mockito.when(documentMapper.mapEntityToDto(document)).thenReturn(dto);
+
+        Assertions.assertEquals(Optional.of(dto), documentService.getDocumentDtoById(1L));
+    }
+
+    /**
+     * Проверяет, что обозначение передаётся в поиск без крайних пробелов, а пустое – отклоняется
+     */
+    @Test
+    void resolveDesignationShouldStripAndRejectBlank() {
+        Mockito.when(documentRepository.findBestDesignationMatch("ГОСТ 34286—2017")).thenReturn(Optional.of(document));
+
+        Assertions.assertEquals(Optional.of(document), documentService.resolveDesignation("  ГОСТ 34286—2017 "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> documentService.resolveDesignation(" "));
+    }
+
+    /**
+     * Проверяет, что после обновления документа его ДТО удаляется из кэша
+     */
+    @Test
+    void updateDocumentShouldEvictCachedDto() {
+        document.setVersion(3L);
+        Mockito.when(documentRepository.findById(1L)).thenReturn(Optional.of(document));
+        Mockito.when(documentRepository.saveAndFlush(document)).thenReturn(document);
+
+        documentService.updateDocument(1L, 3L, changed -> {
+            changed.setCodeOKS("13.340.20");
+            return changed;
+        });
+
+        Mockito.verify(documentDtoCache).evict(1L);
+        Mockito.verify(documentFacetService).invalidate();
+        Mockito.verify(oksClassifierIndex).refresh(List.of("13.340.10", "13.340.20"));
+        Mockito.verify(documentSuggestIndex).put(1L, document.getDesignation(), document.getFullName());
+    }
+
+    /**
+     * Проверяет, что после удаления документа его ДТО удаляется из кэша
+     */
+    @Test
+    void deleteDocumentShouldEvictCachedDto() {
+        Mockito.when(documentRepository.findCodeOksById(1L)).thenReturn(Optional.of("13.340.10"));
+
+        documentService.deleteDocumentById(1L);
+
+        Mockito.verify(documentRepository).deleteById(1L);
+        Mockito.verify(documentDtoCache).evict(1L);
+        Mockito.verify(documentFacetService).invalidate();
+        Mockito.verify(oksClassifierIndex).refresh(List.of("13.340.10"));
+        Mockito.verify(documentSuggestIndex).remove(1L);
+    }
+}
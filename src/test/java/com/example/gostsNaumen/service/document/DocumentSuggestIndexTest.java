@@ -0,0 +1,174 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.DocumentSuggestionDtoResponse;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.example.gostsNaumen.repository.DocumentSuggestView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Тесты индекса подсказок {@link DocumentSuggestIndex}
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentSuggestIndexTest {
+    private final DocumentRepository documentRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DocumentSuggestIndex documentSuggestIndex;
+
+    public DocumentSuggestIndexTest(@Mock DocumentRepository documentRepository) {
+        this.documentRepository = documentRepository;
+        this.documentSuggestIndex = new DocumentSuggestIndex(documentRepository, meterRegistry);
+    }
+
+    /**
+     * Подсказки должны находиться по обозначению, номеру и полному названию без учёта регистра, "ё" и вида тире
+     */
+    @Test
+    void suggestShouldMatchDesignationNumberAndFullName() {
+        Mockito.when(documentRepository.streamSuggestViews()).thenReturn(Stream.of(
+                view(1L, "ГОСТ 34286-2017", "Бронеодежда. Классификация"),
+                view(2L, "ГОСТ Р 50744–95", "Бронеодежда. Общие требования"),
+                view(3L, "ГОСТ 12.4.011-89", "Ёмкости защитные")
+        ));
+        documentSuggestIndex.rebuild();
+
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("гост  342", 10)));
+        Assertions.assertEquals(List.of(2L), ids(documentSuggestIndex.suggest("50744-9", 10)));
+        Assertions.assertEquals(List.of(1L, 2L), ids(documentSuggestIndex.suggest("БРОНЕ", 10)));
+        Assertions.assertEquals(List.of(3L), ids(documentSuggestIndex.suggest("емкости", 10)));
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("броне", 1)));
+    }
+
+    /**
+     * Один ГОСТ, совпавший по нескольким ключам, должен возвращаться один раз
+     */
+    @Test
+    void suggestShouldNotRepeatDocumentMatchedByTwoKeys() {
+        documentSuggestIndex.put(1L, "ГОСТ 1", "ГОСТ 1 Общие положения");
+
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("гост 1", 10)));
+    }
+
+    /**
+     * После изменения ГОСТа подсказка по старому названию пропадает, после удаления – по новому
+     */
+    @Test
+    void putAndRemoveShouldReplaceKeysOfDocument() {
+        documentSuggestIndex.put(1L, "ГОСТ 1-2000", "Старое название");
+        documentSuggestIndex.put(1L, "ГОСТ 1-2000", "Новое название");
+
+        Assertions.assertEquals(List.of(), documentSuggestIndex.suggest("старое", 10));
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("новое", 10)));
+
+        documentSuggestIndex.remove(1L);
+
+        Assertions.assertEquals(List.of(), documentSuggestIndex.suggest("новое", 10));
+        Assertions.assertEquals(List.of(), documentSuggestIndex.suggest("гост", 10));
+    }
+
+    /**
+     * Нормализация должна совпадать с SQL-функцией {@code normalize_designation}: тире, дефисы и пробелы
+     * в любом сочетании заменяются одним пробелом
+     */
+    @Test
+    void normalizeShouldFollowSqlDesignationRule() {
+        Assertions.assertEquals("гост р 1 2000", DocumentSuggestIndex.normalize("ГОСТ Р 1–2000"));
+        Assertions.assertEquals("гост р 1 2000", DocumentSuggestIndex.normalize("ГОСТ Р 1-2000"));
+        Assertions.assertEquals("гост р 1 2000", DocumentSuggestIndex.normalize(" ГОСТ  Р 1 — 2000 "));
+        Assertions.assertEquals("гост р 1 2000", DocumentSuggestIndex.normalize("ГОСТ Р 1−2000"));
+        Assertions.assertEquals("емкости защитные", DocumentSuggestIndex.normalize("Ёмкости\tзащитные"));
+
+        documentSuggestIndex.put(1L, "ГОСТ Р 1–2000", "Общие положения");
+
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("ГОСТ Р 1-2000", 10)));
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("1 2000", 10)));
+    }
+
+    /**
+     * ГОСТ, изменённый во время построения индекса, не должен перезаписываться состоянием из курсора
+     */
+    @Test
+    void rebuildShouldKeepDocumentChangedDuringBuild() {
+        Mockito.when(documentRepository.streamSuggestViews()).thenReturn(Stream.of(
+                view(1L, "ГОСТ 1-2000", "Старое название")
+        ).peek(view -> documentSuggestIndex.put(1L, "ГОСТ 1-2000", "Новое название")));
+
+        documentSuggestIndex.rebuild();
+
+        Assertions.assertEquals(List.of(), documentSuggestIndex.suggest("старое", 10));
+        Assertions.assertEquals(List.of(1L), ids(documentSuggestIndex.suggest("новое", 10)));
+    }
+
+    /**
+     * Одновременные изменения одного ГОСТа не должны оставлять в индексе ключи разных его версий
+     */
+    @Test
+    void concurrentPutsOfSameDocumentShouldLeaveKeysOfOneVersion() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread first = new Thread(() -> putRepeatedly(start, "ГОСТ 1-2000", "Первое название"));
+        Thread second = new Thread(() -> putRepeatedly(start, "ГОСТ 2-2000", "Второе название"));
+        first.start();
+        second.start();
+        start.countDown();
+        first.join();
+        second.join();
+
+        Assertions.assertEquals(3.0, meterRegistry.get("documents.suggest.keys").gauge().value());
+        Assertions.assertEquals(1, documentSuggestIndex.suggest("гост", 10).size());
+    }
+
+    /**
+     * Пустой префикс и количество вне допустимого диапазона должны отклоняться
+     */
+    @Test
+    void suggestShouldRejectBlankPrefixAndInvalidLimit() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> documentSuggestIndex.suggest("  ", 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> documentSuggestIndex.suggest("гост", 0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> documentSuggestIndex.suggest("гост", DocumentSuggestIndex.MAX_LIMIT + 1));
+    }
+
+    private void putRepeatedly(CountDownLatch start, String designation, String fullName) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < 10_000; i++) {
+            documentSuggestIndex.put(1L, designation, fullName);
+        }
+    }
+
+    private List<Long> ids(List<DocumentSuggestionDtoResponse> suggestions) {
+        return suggestions.stream().map(DocumentSuggestionDtoResponse::id).toList();
+    }
+
+    private DocumentSuggestView view(Long id, String designation, String fullName) {
+        return new DocumentSuggestView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDesignation() {
+                return designation;
+            }
+
+            @Override
+            public String getFullName() {
+                return fullName;
+            }
+        };
+    }
+}
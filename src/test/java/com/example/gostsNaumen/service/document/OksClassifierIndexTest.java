@@ -0,0 +1,193 @@
+package com.example.gostsNaumen.service.document;
+
+import com.example.gostsNaumen.controller.dto.response.OksNodeDtoResponse;
+import com.example.gostsNaumen.controller.dto.response.OksTreeDtoResponse;
+import com.example.gostsNaumen.repository.DocumentRepository;
+import com.example.gostsNaumen.repository.OksCodeCountView;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тесты дерева классификатора ОКС {@link OksClassifierIndex}
+ */
+@ExtendWith(MockitoExtension.class)
+class OksClassifierIndexTest {
+    private final DocumentRepository documentRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final OksClassifierIndex oksClassifierIndex;
+
+    public OksClassifierIndexTest(
+            @Mock DocumentRepository documentRepository,
+            @Mock PlatformTransactionManager transactionManager
+    ) {
+        this.documentRepository = documentRepository;
+        this.transactionManager = transactionManager;
+        this.oksClassifierIndex = new OksClassifierIndex(documentRepository, transactionManager);
+    }
+
+    /**
+     * Дерево должно строиться одним запросом, а количество в узле – включать всё поддерево
+     */
+    @Test
+    void getNodeShouldReturnSubtreeCountsAndChildren() {
+        Mockito.when(documentRepository.countByCodeOks()).thenReturn(List.of(
+                count("13.340.10", 2L),
+                count("13.340.20", 1L),
+                count("13.220", 1L),
+                count("01.040", 1L)
+        ));
+
+        OksTreeDtoResponse root = oksClassifierIndex.getNode(null).orElseThrow();
+        OksTreeDtoResponse group = oksClassifierIndex.getNode("13").orElseThrow();
+
+        Assertions.assertEquals(5, root.documentCount());
+        Assertions.assertEquals(
+                List.of(new OksNodeDtoResponse("01", 1, true), new OksNodeDtoResponse("13", 4, true)),
+                root.children()
+        );
+        Assertions.assertEquals(4, group.documentCount());
+        Assertions.assertEquals(
+                List.of(new OksNodeDtoResponse("13.220", 1, false), new OksNodeDtoResponse("13.340", 3, true)),
+                group.children()
+        );
+        Assertions.assertEquals(Optional.empty(), oksClassifierIndex.getNode("13.340.30"));
+        Mockito.verify(documentRepository, Mockito.times(1)).countByCodeOks();
+    }
+
+    /**
+     * После пересчёта кода без ГОСТов его узел должен удаляться, а счётчики предков – уменьшаться
+     */
+    @Test
+    void refreshShouldRecountAffectedCodes() {
+        Mockito.when(documentRepository.countByCodeOks()).thenReturn(List.of(
+                count("13.340.10", 2L),
+                count("13.340.20", 1L)
+        ));
+        Mockito.when(documentRepository.countByCodeOksIn(Set.of("13.340.20", "13.220")))
+                .thenReturn(List.of(count("13.220", 3L)));
+
+        oksClassifierIndex.getNode(null);
+        oksClassifierIndex.refresh(List.of("13.340.20", "13.220"));
+
+        OksTreeDtoResponse group = oksClassifierIndex.getNode("13").orElseThrow();
+        Assertions.assertEquals(5, group.documentCount());
+        Assertions.assertEquals(
+                List.of(new OksNodeDtoResponse("13.220", 3, false), new OksNodeDtoResponse("13.340", 2, true)),
+                group.children()
+        );
+        Assertions.assertEquals(
+                List.of(new OksNodeDtoResponse("13.340.10", 2, false)),
+                oksClassifierIndex.getNode("13.340").orElseThrow().children()
+        );
+    }
+
+    /**
+     * Внутри транзакции пересчёт должен выполняться только после фиксации и в новой транзакции,
+     * а после отката – не выполняться
+     */
+    @Test
+    void refreshInTransactionShouldRecountInNewTransactionOnlyAfterCommit() {
+        Mockito.when(documentRepository.countByCodeOks()).thenReturn(List.of(count("13.340.10", 2L)));
+        Mockito.when(documentRepository.countByCodeOksIn(Set.of("13.340.10")))
+                .thenReturn(List.of(count("13.340.10", 3L)));
+        oksClassifierIndex.getNode(null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            oksClassifierIndex.refresh(List.of("13.340.10"));
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(documentRepository, Mockito.never()).countByCodeOksIn(Mockito.any());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            oksClassifierIndex.refresh(List.of("13.340.10"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertEquals(3, oksClassifierIndex.getNode("13.340.10").orElseThrow().documentCount());
+        Mockito.verify(transactionManager).getTransaction(Mockito.argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * Пока дерево не построено, пересчёт не должен обращаться к БД
+     */
+    @Test
+    void refreshShouldBeNoOpBeforeFirstLoad() {
+        oksClassifierIndex.refresh(List.of("13.340.10"));
+
+        Mockito.verifyNoInteractions(documentRepository);
+    }
+
+    /**
+     * Пересчёт, пришедший во время построения дерева, не должен теряться: он дожидается построения
+     * и применяется поверх снимка, прочитанного при построении
+     */
+    @Test
+    void refreshDuringFirstLoadShouldBeAppliedAfterLoad() throws Exception {
+        Thread[] recountThread = new Thread[1];
+        Mockito.when(documentRepository.countByCodeOks()).thenAnswer(invocation -> {
+            recountThread[0] = new Thread(() -> oksClassifierIndex.refresh(List.of("13.340.10")));
+            recountThread[0].start();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (recountThread[0].getState() != Thread.State.WAITING
+                    && recountThread[0].getState() != Thread.State.TERMINATED
+                    && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return List.of(count("13.340.10", 2L));
+        });
+        Mockito.when(documentRepository.countByCodeOksIn(Set.of("13.340.10")))
+                .thenReturn(List.of(count("13.340.10", 3L)));
+
+        oksClassifierIndex.getNode(null);
+        recountThread[0].join(TimeUnit.SECONDS.toMillis(5));
+
+        Assertions.assertEquals(3, oksClassifierIndex.getNode("13.340.10").orElseThrow().documentCount());
+    }
+
+    /**
+     * Некорректный код должен отклоняться до обращения к БД
+     */
+    @Test
+    void getNodeShouldRejectInvalidCode() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> oksClassifierIndex.getNode("13.%"));
+
+        Mockito.verifyNoInteractions(documentRepository);
+    }
+
+    private OksCodeCountView count(String code, Long count) {
+        return new OksCodeCountView() {
+            @Override
+            public String getCode() {
+                return code;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
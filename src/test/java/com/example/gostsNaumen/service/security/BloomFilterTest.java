@@ -0,0 +1,43 @@
+package com.example.gostsNaumen.service.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Тестирует фильтр Блума {@link BloomFilter}.
+ */
+class BloomFilterTest {
+
+    /**
+     * Добавленные ключи всегда находятся, а доля ложных срабатываний на остальных ключах
+     * не превышает заданную с разумным запасом.
+     */
+    @Test
+    void filterShouldFindAddedKeysAndKeepFalsePositiveRateNearConfigured() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+
+        for (long key = 0; key < 10_000; key++) {
+            bloomFilter.put(BloomFilter.hash(key));
+        }
+        for (long key = 0; key < 10_000; key++) {
+            Assertions.assertTrue(bloomFilter.mightContain(BloomFilter.hash(key)));
+        }
+
+        int falsePositives = 0;
+        for (long key = 10_000; key < 110_000; key++) {
+            if (bloomFilter.mightContain(BloomFilter.hash(key))) {
+                falsePositives++;
+            }
+        }
+        Assertions.assertTrue(falsePositives < 2_000, "Ложных срабатываний: " + falsePositives);
+    }
+
+    /**
+     * Некорректные параметры фильтра отклоняются.
+     */
+    @Test
+    void constructorShouldRejectInvalidParameters() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
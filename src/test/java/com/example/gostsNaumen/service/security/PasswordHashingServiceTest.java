@@ -0,0 +1,96 @@
+package com.example.gostsNaumen.service.security;
+
+import com.example.gostsNaumen.exception.CustomServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Тестирует хеширование паролей в ограниченном пуле {@link PasswordHashingService}.
+ */
+class PasswordHashingServiceTest {
+
+    /**
+     * Реестр метрик для проверки счётчика отклонённых задач
+     */
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Тестируемый сервис, создаётся в каждом тесте со своим кодировщиком
+     */
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    /**
+     * Хеш, полученный в пуле, должен сверяться с исходным паролем и не сверяться с другим.
+     */
+    @Test
+    void encodedPasswordShouldMatchOnlyOriginalPassword() {
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 1, 4);
+
+        String hash = passwordHashingService.encodeAndWait("!Qweqweqwe123");
+
+        Assertions.assertTrue(passwordHashingService.matches("!Qweqweqwe123", hash).join());
+        Assertions.assertFalse(passwordHashingService.matches("wrong-password", hash).join());
+    }
+
+    /**
+     * При занятом потоке и заполненной очереди задача должна отклоняться сразу,
+     * с {@link CustomServiceUnavailableException} и увеличением счётчика отклонённых задач.
+     */
+    @Test
+    void taskShouldBeRejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        passwordHashingService = new PasswordHashingService(
+                new BlockingPasswordEncoder(started, release), meterRegistry, 1, 1);
+
+        CompletableFuture<String> running = passwordHashingService.encode("first");
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = passwordHashingService.encode("second");
+
+        CustomServiceUnavailableException exception = Assertions.assertThrows(
+                CustomServiceUnavailableException.class,
+                () -> passwordHashingService.encodeAndWait("third")
+        );
+
+        Assertions.assertEquals(1, exception.getRetryAfter().toSeconds());
+        Assertions.assertEquals(1.0, meterRegistry.get(PasswordHashingService.REJECTED_METRIC).counter().count());
+
+        release.countDown();
+        Assertions.assertEquals("hash-first", running.join());
+        Assertions.assertEquals("hash-second", queued.join());
+    }
+
+    /**
+     * Кодировщик, который ждёт разрешения перед возвратом хеша, чтобы занять единственный поток пула
+     */
+    private record BlockingPasswordEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
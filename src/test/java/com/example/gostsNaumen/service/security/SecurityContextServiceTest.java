@@ -3,6 +3,8 @@ package com.example.gostsNaumen.service.security;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.exception.InvalidTokenException;
 import com.example.gostsNaumen.security.dto.CustomUserDetails;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.jwe.TokenType;
 import com.example.gostsNaumen.security.permission.UserRoles;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,7 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -175,4 +178,39 @@ class SecurityContextServiceTest {
             );
         }
     }
+
+    /**
+     * Проверяет, что метод {@link SecurityContextService#getLoggedInTokenClaims()}
+     * возвращает данные токена, сохранённые в деталях аутентификации.
+     */
+    @Test
+    void getLoggedInTokenClaimsShouldReturnClaimsFromAuthenticationDetails() {
+        TokenClaimsDto claims = new TokenClaimsDto("test@email.com", Instant.now().plusSeconds(60), 123L,
+                UserRoles.USER, Instant.now(), TokenType.ACCESS, "jti");
+
+        try (MockedStatic<SecurityContextHolder> mockedContextHolder = Mockito.mockStatic(SecurityContextHolder.class)) {
+            mockedContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            Mockito.when(securityContext.getAuthentication()).thenReturn(authentication);
+            Mockito.when(authentication.isAuthenticated()).thenReturn(true);
+            Mockito.when(authentication.getDetails()).thenReturn(claims);
+
+            Assertions.assertEquals(claims, securityContextService.getLoggedInTokenClaims());
+        }
+    }
+
+    /**
+     * Проверяет, что метод {@link SecurityContextService#getLoggedInTokenClaims()}
+     * выбрасывает {@link InvalidTokenException}, если запрос пришёл без токена.
+     */
+    @Test
+    void getLoggedInTokenClaimsShouldThrowInvalidTokenExceptionWhenAuthenticationIsNull() {
+        try (MockedStatic<SecurityContextHolder> mockedContext = Mockito.mockStatic(SecurityContextHolder.class)) {
+            mockedContext.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+
+            Mockito.when(securityContext.getAuthentication()).thenReturn(null);
+
+            Assertions.assertThrows(InvalidTokenException.class, securityContextService::getLoggedInTokenClaims);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.example.gostsNaumen.service.security;
+
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.jwe.TokenType;
+import com.example.gostsNaumen.security.permission.UserRoles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Тестирует хранилище отозванных токенов {@link TokenRevocationStore}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationStoreTest {
+    /**
+     * Текущее время для тестов
+     */
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+    /**
+     * Время жизни основного токена
+     */
+    private static final Duration ACCESS_TOKEN_LIFETIME = Duration.ofMinutes(15);
+    /**
+     * Время жизни токена обновления
+     */
+    private static final Duration REFRESH_TOKEN_LIFETIME = Duration.ofDays(30);
+
+    /**
+     * JDBC-шаблон для записи отзывов в таблицу
+     */
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Тестируемое хранилище
+     */
+    private final TokenRevocationStore tokenRevocationStore;
+
+    public TokenRevocationStoreTest(@Mock JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenRevocationStore = new TokenRevocationStore(
+                jdbcTemplate, new SimpleMeterRegistry(), ACCESS_TOKEN_LIFETIME, REFRESH_TOKEN_LIFETIME, 1000, 0.01,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    /**
+     * Отозванный токен определяется по айди и времени истечения, повторный отзыв возвращает {@code false}.
+     */
+    @Test
+    void revokeShouldSucceedOnlyOnceAndMarkTokenRevoked() {
+        Instant expiresAt = NOW.plus(Duration.ofDays(10));
+
+        Mockito.when(jdbcTemplate.update(ArgumentMatchers.anyString(), ArgumentMatchers.eq("jti-1"),
+                        ArgumentMatchers.any(Timestamp.class), ArgumentMatchers.eq("ACCESS")))
+                .thenReturn(1, 0);
+
+        Assertions.assertFalse(tokenRevocationStore.isRevoked(claims("jti-1", expiresAt, NOW)));
+        Assertions.assertTrue(tokenRevocationStore.revoke(claims("jti-1", expiresAt, NOW)));
+        Assertions.assertFalse(tokenRevocationStore.revoke(claims("jti-1", expiresAt, NOW)));
+
+        Assertions.assertTrue(tokenRevocationStore.isRevoked(claims("jti-1", expiresAt, NOW)));
+        Assertions.assertFalse(tokenRevocationStore.isRevoked(claims("jti-2", expiresAt, NOW)));
+        Assertions.assertFalse(tokenRevocationStore.isRevoked(claims(null, expiresAt, NOW)));
+    }
+
+    /**
+     * После отзыва всех сессий отклоняются токены пользователя, выпущенные до момента отзыва включительно,
+     * в том числе в ту же секунду, но не токены, выпущенные позже, и не токены других пользователей.
+     */
+    @Test
+    void revokeAllForUserShouldRevokeTokensIssuedUpToRevocationMillisecond() {
+        Instant revokedAt = NOW.plusMillis(700);
+        Instant expiresAt = NOW.plus(Duration.ofHours(1));
+        TokenRevocationStore store = new TokenRevocationStore(
+                jdbcTemplate, new SimpleMeterRegistry(), ACCESS_TOKEN_LIFETIME, REFRESH_TOKEN_LIFETIME, 1000, 0.01,
+                Clock.fixed(revokedAt, ZoneOffset.UTC));
+
+        store.revokeAllForUser(1L);
+
+        Assertions.assertTrue(store.isRevoked(claims("jti-1", expiresAt, NOW.minusSeconds(60))));
+        Assertions.assertTrue(store.isRevoked(claims("jti-2", expiresAt, NOW.plusMillis(699))));
+        Assertions.assertTrue(store.isRevoked(claims("jti-3", expiresAt, revokedAt)));
+        Assertions.assertTrue(store.isRevoked(claims("jti-4", expiresAt, NOW)));
+        Assertions.assertFalse(store.isRevoked(claims("jti-5", expiresAt, NOW.plusMillis(701))));
+        Assertions.assertFalse(store.isRevoked(new TokenClaimsDto(
+                "other@example.com", expiresAt, 2L, UserRoles.USER, NOW.minusSeconds(60), TokenType.ACCESS, "jti-6")));
+        Mockito.verify(jdbcTemplate).update(ArgumentMatchers.anyString(), ArgumentMatchers.eq(1L),
+                ArgumentMatchers.eq(Timestamp.from(revokedAt)));
+    }
+
+    /**
+     * Фильтр Блума меняет поколение раз в время жизни основного токена: ключ остаётся в предыдущем поколении
+     * после первой смены и выбрасывается после второй, а ключи нового поколения переживают смену.
+     */
+    @Test
+    void syncShouldRotateBloomFiltersOncePerAccessTokenLifetime(@Mock Clock clock) {
+        Instant firstRotation = NOW.plus(ACCESS_TOKEN_LIFETIME);
+        Instant secondRotation = firstRotation.plus(ACCESS_TOKEN_LIFETIME);
+        Instant expiresAt = secondRotation.plus(ACCESS_TOKEN_LIFETIME);
+
+        Mockito.when(clock.instant()).thenReturn(NOW, firstRotation, secondRotation);
+        TokenRevocationStore store = new TokenRevocationStore(
+                jdbcTemplate, new SimpleMeterRegistry(), ACCESS_TOKEN_LIFETIME, REFRESH_TOKEN_LIFETIME, 1000, 0.01, clock);
+
+        store.revoke(claims("first-generation-jti", expiresAt, NOW));
+        store.sync();
+
+        Assertions.assertTrue(store.isRevoked(claims("first-generation-jti", expiresAt, NOW)));
+
+        store.revoke(claims("second-generation-jti", expiresAt, NOW));
+        store.sync();
+
+        Assertions.assertFalse(store.isRevoked(claims("first-generation-jti", expiresAt, NOW)));
+        Assertions.assertTrue(store.isRevoked(claims("second-generation-jti", expiresAt, NOW)));
+    }
+
+    /**
+     * Отзыв всех сессий действует на токен обновления и после смены поколений фильтра Блума: токен обновления
+     * живёт дольше поколения и проверяется по точному набору пользователей.
+     */
+    @Test
+    void revokeAllForUserShouldRevokeRefreshTokensAfterBloomRotations(@Mock Clock clock) {
+        Instant firstRotation = NOW.plus(ACCESS_TOKEN_LIFETIME);
+        Instant secondRotation = firstRotation.plus(ACCESS_TOKEN_LIFETIME);
+        Instant expiresAt = NOW.plus(REFRESH_TOKEN_LIFETIME);
+
+        Mockito.when(clock.instant()).thenReturn(NOW, NOW, firstRotation, secondRotation);
+        TokenRevocationStore store = new TokenRevocationStore(
+                jdbcTemplate, new SimpleMeterRegistry(), ACCESS_TOKEN_LIFETIME, REFRESH_TOKEN_LIFETIME, 1000, 0.01, clock);
+
+        store.revokeAllForUser(1L);
+        store.sync();
+        store.sync();
+
+        Assertions.assertTrue(store.isRevoked(new TokenClaimsDto(
+                "test@example.com", expiresAt, 1L, UserRoles.USER, NOW.minusSeconds(60), TokenType.REFRESH, "refresh-jti")));
+    }
+
+    /**
+     * Отозванные при обмене токены обновления записываются только в БД и не заполняют фильтр Блума,
+     * через который проверяются основные токены.
+     */
+    @Test
+    void refreshTokenRevocationsShouldNotFillBloomFilter() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenRevocationStore store = new TokenRevocationStore(
+                jdbcTemplate, meterRegistry, ACCESS_TOKEN_LIFETIME, REFRESH_TOKEN_LIFETIME, 10, 0.01,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        Instant expiresAt = NOW.plus(REFRESH_TOKEN_LIFETIME);
+
+        for (int i = 0; i < 1000; i++) {
+            store.revoke(new TokenClaimsDto(
+                    "test@example.com", expiresAt, 1L, UserRoles.USER, NOW, TokenType.REFRESH, "refresh-jti-" + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(store.isRevoked(claims("access-jti-" + i, NOW.plus(ACCESS_TOKEN_LIFETIME), NOW)));
+        }
+
+        Assertions.assertEquals(0.0, meterRegistry.get(TokenRevocationStore.FALSE_POSITIVE_METRIC).counter().count());
+        Assertions.assertEquals(0.0, meterRegistry.get(TokenRevocationStore.REVOKED_METRIC).gauge().value());
+        Mockito.verify(jdbcTemplate).update(ArgumentMatchers.anyString(), ArgumentMatchers.eq("refresh-jti-0"),
+                ArgumentMatchers.eq(Timestamp.from(expiresAt)), ArgumentMatchers.eq("REFRESH"));
+    }
+
+    /**
+     * При синхронизации истёкшие отзывы удаляются из памяти и из таблицы, действующие остаются.
+     */
+    @Test
+    void syncShouldDropExpiredRevocations() {
+        Instant expired = NOW.minus(Duration.ofHours(2));
+        Instant active = NOW.plus(Duration.ofHours(2));
+
+        tokenRevocationStore.revoke(claims("expired-jti", expired, NOW));
+        tokenRevocationStore.revoke(claims("active-jti", active, NOW));
+        tokenRevocationStore.sync();
+
+        Assertions.assertFalse(tokenRevocationStore.isRevoked(claims("expired-jti", expired, NOW)));
+        Assertions.assertTrue(tokenRevocationStore.isRevoked(claims("active-jti", active, NOW)));
+        Mockito.verify(jdbcTemplate).update("delete from revoked_token where expires_at < ?", Timestamp.from(NOW));
+    }
+
+    private static TokenClaimsDto claims(String tokenId, Instant expiresAt, Instant issuedAt) {
+        return new TokenClaimsDto("test@example.com", expiresAt, 1L, UserRoles.USER, issuedAt, TokenType.ACCESS, tokenId);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.gostsNaumen.service.security;
+
+import com.example.gostsNaumen.entity.User;
+import com.example.gostsNaumen.repository.UserRepository;
+import com.example.gostsNaumen.security.dto.CustomUserDetails;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.jwe.TokenType;
+import com.example.gostsNaumen.security.permission.UserRoles;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Тестирует получение данных пользователя из проверенного токена и кэш пользователей
+ * в {@link UserDetailServiceImpl}.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserDetailServiceImplTest {
+
+    /**
+     * Текущее время для тестов
+     */
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    /**
+     * Репозиторий для работы с сущностями пользователей.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Реестр изменений пользователей с допустимым возрастом данных токена в 15 минут.
+     */
+    private final UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry;
+
+    /**
+     * Тестируемый сервис.
+     */
+    private final UserDetailServiceImpl userDetailService;
+
+    public UserDetailServiceImplTest(@Mock UserRepository userRepository) {
+        this.userRepository = userRepository;
+        this.userAuthoritiesChangeRegistry = new UserAuthoritiesChangeRegistry(
+                Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+        this.userDetailService = new UserDetailServiceImpl(
+                userRepository, userAuthoritiesChangeRegistry, new SimpleMeterRegistry(), 100L, 30);
+    }
+
+    /**
+     * Свежий токен с ролью должен использоваться без обращения к БД.
+     */
+    @Test
+    void loadUserByClaimsShouldUseClaimsWhenTokenIsFresh() {
+        TokenClaimsDto claims = claims(NOW.minusSeconds(60));
+
+        CustomUserDetails userDetails = userDetailService.loadUserByClaims(claims);
+
+        Assertions.assertEquals(1L, userDetails.getId());
+        Assertions.assertEquals("test@example.com", userDetails.getUsername());
+        Assertions.assertEquals(UserRoles.ADMIN.getAuthorities(), userDetails.getAuthorities());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    /**
+     * Токен старше допустимого возраста должен приводить к загрузке пользователя из БД.
+     */
+    @Test
+    void loadUserByClaimsShouldLoadFromDatabaseWhenTokenIsStale() {
+        Mockito.when(userRepository.findUserByEmail("test@example.com")).thenReturn(Optional.of(userWithRole()));
+
+        CustomUserDetails userDetails = userDetailService.loadUserByClaims(claims(NOW.minus(Duration.ofMinutes(20))));
+
+        Assertions.assertEquals(UserRoles.USER.getAuthorities(), userDetails.getAuthorities());
+    }
+
+    /**
+     * Токен, выпущенный до изменения пользователя, должен приводить к загрузке пользователя из БД.
+     */
+    @Test
+    void loadUserByClaimsShouldLoadFromDatabaseWhenUserChangedAfterIssue() {
+        Mockito.when(userRepository.findUserByEmail("test@example.com")).thenReturn(Optional.of(userWithRole()));
+
+        userAuthoritiesChangeRegistry.markChanged(1L);
+        CustomUserDetails userDetails = userDetailService.loadUserByClaims(claims(NOW.minusSeconds(60)));
+
+        Assertions.assertEquals(UserRoles.USER.getAuthorities(), userDetails.getAuthorities());
+    }
+
+    /**
+     * Повторная загрузка пользователя должна браться из кэша, а после удаления из кэша – снова из БД.
+     */
+    @Test
+    void loadUserByUsernameShouldQueryDatabaseOnceUntilEvicted() {
+        Mockito.when(userRepository.findUserByEmail("test@example.com")).thenReturn(Optional.of(userWithRole()));
+
+        userDetailService.loadUserByUsername("test@example.com");
+        userDetailService.loadUserByUsername("test@example.com");
+        Mockito.verify(userRepository, Mockito.times(1)).findUserByEmail("test@example.com");
+
+        userDetailService.evictUser("test@example.com");
+        userDetailService.loadUserByUsername("test@example.com");
+        Mockito.verify(userRepository, Mockito.times(2)).findUserByEmail("test@example.com");
+    }
+
+    private TokenClaimsDto claims(Instant issuedAt) {
+        return new TokenClaimsDto("test@example.com", NOW.plusSeconds(600), 1L, UserRoles.ADMIN, issuedAt,
+                TokenType.ACCESS, "jti");
+    }
+
+    private User userWithRole() {
+        return new User(1L, "TestUser", "Petrov Petrov", "hash", "test@example.com", UserRoles.USER);
+    }
+}
@@ -3,7 +3,15 @@ package com.example.gostsNaumen.service.user;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.security.dto.JwtAuthDto;
 import com.example.gostsNaumen.security.dto.RefreshTokenDto;
+import com.example.gostsNaumen.security.dto.TokenClaimsDto;
+import com.example.gostsNaumen.security.dto.UserCredentialsDto;
 import com.example.gostsNaumen.security.jwe.JweService;
+import com.example.gostsNaumen.security.jwe.TokenType;
+import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
+import com.example.gostsNaumen.service.security.SecurityContextService;
+import com.example.gostsNaumen.service.security.TokenRevocationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +19,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import javax.naming.AuthenticationException;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 /**
  * Тестирование логики сервиса авторизации
@@ -41,25 +52,44 @@ class AuthServiceTest {
     private final AuthService authService;
 
     /**
-     * Кодировщик паролей.
-     * Используется для хеширования паролей и сравнения с сохраненными значениями.
+     * Сервис хеширования паролей с настоящим BCrypt.
+     * Используется для сравнения введённых паролей с сохраненными значениями.
      */
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * Хранилище отозванных токенов.
+     * Используется для одноразового обмена токенов обновления.
+     */
+    private final TokenRevocationStore tokenRevocationStore;
+
+    /**
+     * Сервис контекста безопасности.
+     * Используется для получения данных токена текущего запроса.
+     */
+    private final SecurityContextService securityContextService;
 
     private User user;
 
     public AuthServiceTest(
             @Mock JweService jweService,
-            @Mock UserService userService
+            @Mock UserService userService,
+            @Mock TokenRevocationStore tokenRevocationStore,
+            @Mock SecurityContextService securityContextService
     ) {
-        passwordEncoder = new BCryptPasswordEncoder(4);
+        passwordHashingService = new PasswordHashingService(
+                new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 16);
 
         this.jweService = jweService;
         this.userService = userService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.securityContextService = securityContextService;
         this.authService = new AuthService(
                 jweService,
                 userService,
-                passwordEncoder
+                passwordHashingService,
+                tokenRevocationStore,
+                securityContextService
         );
     }
 
@@ -76,26 +106,95 @@ class AuthServiceTest {
         );
     }
 
+    /**
+     * Проверяет, что метод {@link AuthService#signIn(UserCredentialsDto)}
+     * после сверки пароля в пуле хеширования возвращает выпущенные токены.
+     */
+    @Test
+    void signInShouldReturnTokensWhenPasswordMatches() throws Exception {
+        String passwordHash = new BCryptPasswordEncoder(4).encode("!Qweqweqwe123");
+        user.setPasswordHash(passwordHash);
+        JwtAuthDto expected = new JwtAuthDto("access", "refresh", 1L);
+
+        Mockito.when(userService.getEntityByEmail("test@example.com")).thenReturn(user);
+        Mockito.when(jweService.generateAuthToken("test@example.com", null, UserRoles.USER)).thenReturn(expected);
+
+        JwtAuthDto result = authService.signIn(new UserCredentialsDto("test@example.com", "!Qweqweqwe123")).join();
+
+        Assertions.assertEquals(expected, result);
+        Mockito.verify(userService, Mockito.never()).upgradePasswordHash(Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Проверяет, что хеш с устаревшей стоимостью после успешного входа пересчитывается в фоне
+     * с текущей стоимостью, а ответ возвращается без ожидания пересчёта.
+     */
+    @Test
+    void signInShouldRehashOutdatedPasswordHashInBackground() throws Exception {
+        AuthService authServiceWithHigherCost = new AuthService(
+                jweService,
+                userService,
+                new PasswordHashingService(new BCryptPasswordEncoder(5), new SimpleMeterRegistry(), 1, 16),
+                tokenRevocationStore,
+                securityContextService
+        );
+        JwtAuthDto expected = new JwtAuthDto("access", "refresh", 1L);
+        user.setPasswordHash(new BCryptPasswordEncoder(4).encode("!Qweqweqwe123"));
+
+        Mockito.when(userService.getEntityByEmail("test@example.com")).thenReturn(user);
+        Mockito.when(jweService.generateAuthToken("test@example.com", null, UserRoles.USER)).thenReturn(expected);
+
+        JwtAuthDto result = authServiceWithHigherCost
+                .signIn(new UserCredentialsDto("test@example.com", "!Qweqweqwe123"))
+                .join();
+
+        Assertions.assertEquals(expected, result);
+        Mockito.verify(userService, Mockito.timeout(5000)).upgradePasswordHash(
+                Mockito.eq(user), Mockito.argThat(hash -> hash.startsWith("$2a$05$")));
+    }
+
+    /**
+     * Проверяет, что при неверном пароле {@link AuthService#signIn(UserCredentialsDto)}
+     * завершается с {@link AuthenticationException}, а токены не выпускаются.
+     */
+    @Test
+    void signInShouldFailWithAuthenticationExceptionWhenPasswordDoesNotMatch() throws Exception {
+        Mockito.when(userService.getEntityByEmail("test@example.com")).thenReturn(user);
+
+        CompletionException exception = Assertions.assertThrows(
+                CompletionException.class,
+                () -> authService.signIn(new UserCredentialsDto("test@example.com", "wrong-password")).join()
+        );
+
+        Assertions.assertInstanceOf(AuthenticationException.class, exception.getCause());
+        Assertions.assertEquals("Почта или пароль неверные.", exception.getCause().getMessage());
+        Mockito.verify(jweService, Mockito.never()).generateAuthToken(
+                Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
     /**
      * Проверяет, что метод {@link AuthService#refreshToken(RefreshTokenDto)}
      * корректно возвращает новые токены при предоставлении валидного токена обновления.
      * <h3>Тестируемый сценарий:</h3>
      * <ul>
      *      <li> 1. Предоставляется действительный токен обновления.</li>
-     *      <li> 2. Токен проходит валидацию.</li>
-     *      <li> 3. Извлекается email пользователя из токена.</li>
-     *      <li> 4. Находится пользователь в системе по email.</li>
-     *      <li> 5. Вызывается сервис генерации новых токенов.</li>
-     *      <li> 6. Метод возвращает ожидаемый объект {@link JwtAuthDto} с новыми токенами.</li>
+     *      <li> 2. Токен проходит валидацию, из него извлекается email пользователя.</li>
+     *      <li> 3. Проверка и извлечение выполняются одним вызовом {@link JweService#verifyToken(String)}.</li>
+     *      <li> 4. Токен обновления отзывается, чтобы его нельзя было использовать повторно.</li>
+     *      <li> 5. Находится пользователь в системе по email.</li>
+     *      <li> 6. Вызывается сервис генерации новой пары токенов.</li>
+     *      <li> 7. Метод возвращает ожидаемый объект {@link JwtAuthDto} с новыми токенами.</li>
      * </ul>
      */
     @Test
     void refreshTokenShouldReturnNewTokenWhenValidRefreshTokenProvided() throws Exception {
         RefreshTokenDto refreshTokenDto = new RefreshTokenDto("valid-refresh-token");
+        Instant expiration = Instant.now().plusSeconds(60);
 
-        Mockito.when(jweService.validateJweToken("valid-refresh-token")).thenReturn(true);
+        Mockito.when(jweService.verifyToken("valid-refresh-token")).thenReturn(Optional.of(
+                refreshClaims(expiration, TokenType.REFRESH)));
+        Mockito.when(tokenRevocationStore.revoke(refreshClaims(expiration, TokenType.REFRESH))).thenReturn(true);
         Mockito.when(userService.getEntityByEmail("test@example.com")).thenReturn(user);
-        Mockito.when(jweService.getEmailFromToken("valid-refresh-token")).thenReturn("test@example.com");
 
         JwtAuthDto refreshedJwt = new JwtAuthDto(
                 "new-access",
@@ -103,24 +202,89 @@ class AuthServiceTest {
                 1L
         );
 
-        Mockito.when(
-                jweService.refreshBaseToken(
-                        "test@example.com",
-                        "valid-refresh-token", null)
-        ).thenReturn(refreshedJwt);
+        Mockito.when(jweService.generateAuthToken("test@example.com", null, UserRoles.USER))
+                .thenReturn(refreshedJwt);
 
         JwtAuthDto result = authService.refreshToken(refreshTokenDto);
 
         Assertions.assertEquals(result, refreshedJwt);
     }
 
+    /**
+     * Проверяет, что уже использованный токен обновления повторно не обменивается на новые токены.
+     */
+    @Test
+    void refreshTokenShouldRejectAlreadyUsedRefreshToken() throws Exception {
+        Instant expiration = Instant.now().plusSeconds(60);
+
+        Mockito.when(jweService.verifyToken("used-refresh-token")).thenReturn(Optional.of(
+                refreshClaims(expiration, TokenType.REFRESH)));
+        Mockito.when(tokenRevocationStore.revoke(refreshClaims(expiration, TokenType.REFRESH))).thenReturn(false);
+
+        AuthenticationException exception = Assertions.assertThrows(
+                AuthenticationException.class,
+                () -> authService.refreshToken(new RefreshTokenDto("used-refresh-token"))
+        );
+
+        Assertions.assertEquals("Токен обновления уже использован.", exception.getMessage());
+        Mockito.verify(jweService, Mockito.never()).generateAuthToken(
+                Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Проверяет, что после отзыва всех сессий пользователя его токен обновления больше не обменивается
+     * на новые токены.
+     */
+    @Test
+    void refreshTokenShouldRejectRefreshTokenAfterAllSessionsRevoked(@Mock JdbcTemplate jdbcTemplate) throws Exception {
+        TokenRevocationStore realTokenRevocationStore = new TokenRevocationStore(
+                jdbcTemplate, new SimpleMeterRegistry(), 15, 43200, 1000L, 0.01);
+        AuthService authServiceWithRealStore = new AuthService(
+                jweService,
+                userService,
+                passwordHashingService,
+                realTokenRevocationStore,
+                securityContextService
+        );
+
+        Mockito.when(jweService.verifyToken("refresh-token")).thenReturn(Optional.of(new TokenClaimsDto(
+                "test@example.com", Instant.now().plusSeconds(3600), 1L, UserRoles.USER,
+                Instant.now().minusSeconds(60), TokenType.REFRESH, "refresh-jti")));
+
+        realTokenRevocationStore.revokeAllForUser(1L);
+
+        AuthenticationException exception = Assertions.assertThrows(
+                AuthenticationException.class,
+                () -> authServiceWithRealStore.refreshToken(new RefreshTokenDto("refresh-token"))
+        );
+
+        Assertions.assertEquals("Токен обновления отозван.", exception.getMessage());
+        Mockito.verify(jweService, Mockito.never()).generateAuthToken(
+                Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    /**
+     * Проверяет, что основной токен не принимается в качестве токена обновления.
+     */
+    @Test
+    void refreshTokenShouldRejectAccessToken() {
+        Mockito.when(jweService.verifyToken("access-token")).thenReturn(Optional.of(
+                refreshClaims(Instant.now().plusSeconds(60), TokenType.ACCESS)));
+
+        Assertions.assertThrows(
+                AuthenticationException.class,
+                () -> authService.refreshToken(new RefreshTokenDto("access-token"))
+        );
+        Mockito.verifyNoInteractions(tokenRevocationStore);
+    }
+
     /**
      * Проверяет, что метод {@link AuthService#refreshToken(RefreshTokenDto)}
      * выбрасывает {@link AuthenticationException}, если предоставлен недействительный токен обновления.
      * <h3>Тестируемый сценарий:</h3>
      * <ul>
      *      <li> 1. Предоставляется недействительный токен обновления.</li>
-     *      <li> 2. Валидация токена возвращает false.</li>
+     *      <li> 2. Валидация токена возвращает пустой результат.</li>
      *      <li> 3. Метод {@link AuthService#refreshToken} вызывает исключение.</li>
      *      <li> 4. Проверяется тип и сообщение исключения.</li>
      * </ul>
@@ -128,7 +292,7 @@ class AuthServiceTest {
     @Test
     void refreshTokenShouldThrowAuthenticationExceptionWhenTokenInvalid() {
         RefreshTokenDto refreshTokenDto = new RefreshTokenDto("invalid-token");
-        Mockito.when(jweService.validateJweToken("invalid-token")).thenReturn(false);
+        Mockito.when(jweService.verifyToken("invalid-token")).thenReturn(Optional.empty());
 
         AuthenticationException exception = Assertions.assertThrows(
                 AuthenticationException.class,
@@ -137,4 +301,62 @@ class AuthServiceTest {
 
         Assertions.assertEquals("Невалидный токен обновления.", exception.getMessage());
     }
+
+    /**
+     * Проверяет, что при выходе отзываются основной токен текущего запроса и переданный токен обновления.
+     */
+    @Test
+    void logoutShouldRevokeAccessAndRefreshTokens() throws Exception {
+        Instant accessExpiration = Instant.now().plusSeconds(60);
+        Instant refreshExpiration = Instant.now().plusSeconds(3600);
+
+        TokenClaimsDto accessClaims = new TokenClaimsDto(
+                "test@example.com", accessExpiration, 1L, UserRoles.USER, Instant.now(), TokenType.ACCESS, "access-jti");
+
+        Mockito.when(securityContextService.getLoggedInTokenClaims()).thenReturn(accessClaims);
+        Mockito.when(jweService.verifyToken("refresh-token")).thenReturn(Optional.of(
+                refreshClaims(refreshExpiration, TokenType.REFRESH)));
+
+        authService.logout(new RefreshTokenDto("refresh-token"));
+
+        Mockito.verify(tokenRevocationStore).revoke(accessClaims);
+        Mockito.verify(tokenRevocationStore).revoke(refreshClaims(refreshExpiration, TokenType.REFRESH));
+    }
+
+    /**
+     * Проверяет, что токен обновления другого пользователя не принимается при выходе и ничего не отзывается.
+     */
+    @Test
+    void logoutShouldRejectRefreshTokenOfAnotherUser() {
+        Mockito.when(securityContextService.getLoggedInTokenClaims()).thenReturn(new TokenClaimsDto(
+                "other@example.com", Instant.now().plusSeconds(60), 2L, UserRoles.USER, Instant.now(),
+                TokenType.ACCESS, "access-jti"));
+        Mockito.when(jweService.verifyToken("refresh-token")).thenReturn(Optional.of(
+                refreshClaims(Instant.now().plusSeconds(3600), TokenType.REFRESH)));
+
+        Assertions.assertThrows(
+                AuthenticationException.class,
+                () -> authService.logout(new RefreshTokenDto("refresh-token"))
+        );
+        Mockito.verifyNoInteractions(tokenRevocationStore);
+    }
+
+    /**
+     * Проверяет, что отзыв всех сессий выполняется для существующего пользователя.
+     */
+    @Test
+    void revokeAllSessionsShouldRevokeSessionsOfExistingUser() {
+        User existingUser = new User(1L, "TestUser", "Petrov Petrov", "hash", "test@example.com", UserRoles.USER);
+
+        Mockito.when(userService.getEntityById(1L)).thenReturn(existingUser);
+
+        authService.revokeAllSessions(1L);
+
+        Mockito.verify(tokenRevocationStore).revokeAllForUser(1L);
+    }
+
+    private TokenClaimsDto refreshClaims(Instant expiration, TokenType type) {
+        return new TokenClaimsDto("test@example.com", expiration, 1L, UserRoles.USER, expiration.minusSeconds(3600),
+                type, "refresh-jti");
+    }
 }
\ No newline at end of file
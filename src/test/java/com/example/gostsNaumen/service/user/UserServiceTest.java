@@ -4,9 +4,15 @@ import com.example.gostsNaumen.controller.dto.request.UpdateUserDtoRequest;
 import com.example.gostsNaumen.entity.User;
 import com.example.gostsNaumen.exception.CustomEntityExistsException;
 import com.example.gostsNaumen.exception.CustomEntityNotFoundException;
+import com.example.gostsNaumen.repository.ConstraintViolations;
 import com.example.gostsNaumen.repository.UserRepository;
 import com.example.gostsNaumen.security.permission.UserRoles;
+import com.example.gostsNaumen.service.security.PasswordHashingService;
 import com.example.gostsNaumen.service.security.SecurityContextService;
+import com.example.gostsNaumen.service.security.UserAuthoritiesChangeRegistry;
+import com.example.gostsNaumen.service.security.UserDetailServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,9 +20,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 /**
@@ -33,10 +40,10 @@ class UserServiceTest {
     private final UserRepository userRepository;
 
     /**
-     * Кодировщик паролей.
-     * Применяется для хеширования паролей при создании или обновлении пользователей.
+     * Сервис хеширования паролей с настоящим BCrypt.
+     * Применяется для хеширования паролей при обновлении пользователей.
      */
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * Сервис для работы с контекстом безопасности.
@@ -44,6 +51,18 @@ class UserServiceTest {
      */
     private final SecurityContextService securityContextService;
 
+    /**
+     * Реестр изменений пользователей.
+     * Используется для отметки изменений, после которых роли из токенов больше не актуальны.
+     */
+    private final UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry;
+
+    /**
+     * Сервис загрузки пользователей для Spring Security.
+     * Используется для удаления изменённых пользователей из кэша.
+     */
+    private final UserDetailServiceImpl userDetailService;
+
     /**
      * Основной сервис пользователей, тестируемый в данном классе.
      * Содержит бизнес-методы для работы с пользователями.
@@ -58,16 +77,23 @@ class UserServiceTest {
 
     public UserServiceTest(
             @Mock UserRepository userRepository,
-            @Mock SecurityContextService securityContextService
+            @Mock SecurityContextService securityContextService,
+            @Mock UserAuthoritiesChangeRegistry userAuthoritiesChangeRegistry,
+            @Mock UserDetailServiceImpl userDetailService
     ) {
+        this.userDetailService = userDetailService;
         this.userRepository = userRepository;
         this.securityContextService = securityContextService;
-        this.passwordEncoder = new BCryptPasswordEncoder(4);
+        this.userAuthoritiesChangeRegistry = userAuthoritiesChangeRegistry;
+        this.passwordHashingService = new PasswordHashingService(
+                new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 1, 16);
 
         this.userService = new UserService(
                 userRepository,
-                passwordEncoder,
-                securityContextService
+                passwordHashingService,
+                securityContextService,
+                userAuthoritiesChangeRegistry,
+                userDetailService
         );
     }
 
@@ -93,7 +119,7 @@ class UserServiceTest {
      */
     @Test
     void saveUserShouldThrowCustomEntityExistsExceptionWhenUserWithCurrenEmailPresent() {
-        Mockito.when(userRepository.findUserByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.saveAndFlush(user)).thenThrow(uniqueViolation(ConstraintViolations.USER_EMAIL));
 
         CustomEntityExistsException exception = Assertions.assertThrows(
                 CustomEntityExistsException.class,
@@ -111,13 +137,12 @@ class UserServiceTest {
      * выбрасывает {@link CustomEntityExistsException} с кодом
      * {@code ErrorCode.USER_FIELDS_ALREADY_EXIST} и корректным сообщением,
      * если пользователь с таким {@code username} уже существует в БД.
-     * Также проверяется, что были вызваны методы {@link UserRepository#findUserByEmail(String)}
-     * и {@link UserRepository#findUserByUsername(String)} по одному разу.
+     * Также проверяется, что уникальность проверяется одной вставкой, без предварительного поиска
+     * по {@link UserRepository#findUserByEmail(String)} и {@link UserRepository#findUserByUsername(String)}.
      */
     @Test
     void saveUserShouldThrowCustomEntityExistsExceptionWhenUserWithCurrentUserNamePresent() {
-        Mockito.when(userRepository.findUserByEmail(user.getEmail())).thenReturn(Optional.empty());
-        Mockito.when(userRepository.findUserByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.saveAndFlush(user)).thenThrow(uniqueViolation(ConstraintViolations.USER_USERNAME));
 
         CustomEntityExistsException exception = Assertions.assertThrows(
                 CustomEntityExistsException.class,
@@ -131,15 +156,31 @@ class UserServiceTest {
 
         Mockito.verify(
                 userRepository,
-                Mockito.times(1)
+                Mockito.never()
         ).findUserByEmail(user.getEmail());
 
         Mockito.verify(
                 userRepository,
-                Mockito.times(1)
+                Mockito.never()
         ).findUserByUsername(user.getUsername());
     }
 
+    /**
+     * Проверяет, что пересчитанный хеш пароля записывается условно на прежний хеш
+     * и пользователь удаляется из кэша только при успешной замене.
+     */
+    @Test
+    void upgradePasswordHashShouldReplaceOnlyUnchangedHash() {
+        user.setId(1L);
+        String oldHash = user.getPasswordHash();
+
+        Mockito.when(userRepository.replacePasswordHash(1L, oldHash, "new-hash")).thenReturn(1, 0);
+
+        Assertions.assertTrue(userService.upgradePasswordHash(user, "new-hash"));
+        Assertions.assertFalse(userService.upgradePasswordHash(user, "new-hash"));
+        Mockito.verify(userDetailService, Mockito.times(1)).evictUser("test@example.com");
+    }
+
     /**
      * Проверяет, что метод {@link UserService#getEntityByEmail(String)}
      * выбрасывает {@link CustomEntityNotFoundException} с кодом
@@ -242,7 +283,7 @@ class UserServiceTest {
      * Проверяет, что метод {@link UserService#updateUserData(Long, UpdateUserDtoRequest)}
      * корректно обновляет email пользователя, если он передан и не является пустым.
      * Проверяется, что {@link UserRepository#findUserByEmail(String)} вызывается один раз,
-     * и что email пользователя в сущности обновляется.
+     * что email пользователя в сущности обновляется, а пользователь удаляется из кэша по прежней почте.
      */
     @Test
     void updateUserDataShouldUpdateEmailWhenValidEmailProvided() {
@@ -257,6 +298,7 @@ class UserServiceTest {
         User updatedUser = userService.updateUserData(1L, request);
 
         Assertions.assertEquals("new@example.com", updatedUser.getEmail());
+        Mockito.verify(userDetailService).evictUser("test@example.com");
     }
 
     /**
@@ -311,7 +353,8 @@ class UserServiceTest {
 
     /**
      * Проверяет, что метод {@link UserService#updateUserData(Long, UpdateUserDtoRequest)}
-     * корректно обновляет роль пользователя, если она передана и не является пустой.
+     * корректно обновляет роль пользователя, если она передана и не является пустой,
+     * и отмечает изменение пользователя, чтобы роль из ранее выпущенных токенов не использовалась.
      */
     @Test
     void updateUserDataShouldUpdateRoleWhenValidRoleProvided() {
@@ -324,6 +367,7 @@ class UserServiceTest {
         User updatedUser = userService.updateUserData(1L, request);
 
         Assertions.assertEquals(UserRoles.ADMIN, updatedUser.getRoles());
+        Mockito.verify(userAuthoritiesChangeRegistry).markChanged(1L);
     }
 
     /**
@@ -347,4 +391,9 @@ class UserServiceTest {
         Assertions.assertEquals("Petrov Petrov", updatedUser.getFullName());
         Assertions.assertEquals(UserRoles.USER, updatedUser.getRoles());
     }
-}
\ No newline at end of file
+
+    private DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), constraintName));
+    }
+}